@@ -4,9 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.rocket.config.DefaultRocketListenerContainerFactory;
+import org.springframework.rocket.config.DefaultRocketPullListenerContainerFactory;
 import org.springframework.rocket.core.RocketTemplate;
+import org.springframework.rocket.listener.BackpressurePolicy;
 import org.springframework.rocket.listener.ContainerProperties;
+import org.springframework.rocket.listener.DeadLetterHandler;
 import org.springframework.rocket.support.MessageConverter;
+import org.springframework.util.unit.DataSize;
 
 @Setter
 @RequiredArgsConstructor
@@ -18,12 +22,24 @@ public class DefaultRocketListenerContainerFactoryConfigurer {
 
     private RocketTemplate replyTemplate;
 
+    private BackpressurePolicy backpressurePolicy;
+
+    private DeadLetterHandler deadLetterHandler;
+
 
     public void configure(DefaultRocketListenerContainerFactory containerFactory) {
         configureListenerContainerFactory(containerFactory);
         configureContainer(containerFactory.getContainerProperties());
     }
 
+    public void configure(DefaultRocketPullListenerContainerFactory containerFactory) {
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(this.messageConverter).to(containerFactory::setMessageConverter);
+        map.from(this.replyTemplate).to(containerFactory::setReplyTemplate);
+        map.from(this.rocketProperties::buildPullConsumerProperties).to(containerFactory.getContainerProperties()::setRocketConsumerProperties);
+        map.from(this.deadLetterHandler).to(containerFactory.getContainerProperties()::setDeadLetterHandler);
+    }
+
     private void configureListenerContainerFactory(DefaultRocketListenerContainerFactory containerFactory) {
         PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
         RocketProperties.Listener properties = this.rocketProperties.getListener();
@@ -34,6 +50,10 @@ public class DefaultRocketListenerContainerFactoryConfigurer {
 
     private void configureContainer(ContainerProperties containerProperties) {
         PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        RocketProperties.Listener properties = this.rocketProperties.getListener();
         map.from(this.rocketProperties::buildPushConsumerProperties).to(containerProperties::setRocketConsumerProperties);
+        map.from(properties::getMaxMessagesPerSecond).to(containerProperties::setMaxMessagesPerSecond);
+        map.from(properties::getMaxBytesPerSecond).as(DataSize::toBytes).to(containerProperties::setMaxBytesPerSecond);
+        map.from(this.backpressurePolicy).to(containerProperties::setBackpressurePolicy);
     }
 }
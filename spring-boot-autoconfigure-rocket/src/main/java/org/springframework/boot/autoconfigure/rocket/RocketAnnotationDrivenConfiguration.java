@@ -7,10 +7,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.rocket.annotation.EnableRocket;
 import org.springframework.rocket.annotation.RocketListenerAnnotationBeanPostProcessor;
+import org.springframework.rocket.client.DefaultRocketPullConsumerFactory;
 import org.springframework.rocket.client.RocketPushConsumerFactory;
 import org.springframework.rocket.config.DefaultRocketListenerContainerFactory;
+import org.springframework.rocket.config.DefaultRocketPullListenerContainerFactory;
 import org.springframework.rocket.config.RocketSupportBeanNames;
 import org.springframework.rocket.core.RocketTemplate;
+import org.springframework.rocket.listener.BackpressurePolicy;
+import org.springframework.rocket.listener.DeadLetterHandler;
 import org.springframework.rocket.support.converter.MessagingMessageConverter;
 
 @Configuration(proxyBeanMethods = false)
@@ -22,10 +26,14 @@ public class RocketAnnotationDrivenConfiguration {
     DefaultRocketListenerContainerFactoryConfigurer rocketListenerContainerFactoryConfigurer(
             ObjectProvider<RocketProperties> rocketProperties,
             ObjectProvider<MessagingMessageConverter> messageConverter,
-            ObjectProvider<RocketTemplate> replyTemplate) {
+            ObjectProvider<RocketTemplate> replyTemplate,
+            ObjectProvider<BackpressurePolicy> backpressurePolicy,
+            ObjectProvider<DeadLetterHandler> deadLetterHandler) {
         DefaultRocketListenerContainerFactoryConfigurer configurer = new DefaultRocketListenerContainerFactoryConfigurer(rocketProperties.getIfUnique());
         configurer.setMessageConverter(messageConverter.getIfUnique());
         configurer.setReplyTemplate(replyTemplate.getIfUnique());
+        configurer.setBackpressurePolicy(backpressurePolicy.getIfUnique());
+        configurer.setDeadLetterHandler(deadLetterHandler.getIfUnique());
         return configurer;
     }
 
@@ -38,6 +46,16 @@ public class RocketAnnotationDrivenConfiguration {
         return containerFactory;
     }
 
+    @Bean(name = "rocketPullListenerContainerFactory")
+    @ConditionalOnMissingBean(name = "rocketPullListenerContainerFactory")
+    DefaultRocketPullListenerContainerFactory rocketPullListenerContainerFactory(
+            DefaultRocketListenerContainerFactoryConfigurer configurer, RocketProperties rocketProperties) {
+        DefaultRocketPullListenerContainerFactory containerFactory = new DefaultRocketPullListenerContainerFactory(
+                new DefaultRocketPullConsumerFactory(rocketProperties.buildPullConsumerProperties()));
+        configurer.configure(containerFactory);
+        return containerFactory;
+    }
+
     @Configuration(proxyBeanMethods = false)
     @EnableRocket
     @ConditionalOnMissingBean(name = RocketSupportBeanNames.ROCKET_LISTENER_ANNOTATION_PROCESSOR_BEAN_NAME)
@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.rocket.client.DefaultRocketProducerFactory;
@@ -16,6 +17,9 @@ import org.springframework.rocket.client.RocketPushConsumerFactory;
 import org.springframework.rocket.config.RocketSupportBeanNames;
 import org.springframework.rocket.core.RocketTemplate;
 import org.springframework.rocket.support.converter.MessagingMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @AutoConfiguration
 @ConditionalOnClass(RocketTemplate.class)
@@ -60,4 +64,26 @@ public class RocketAutoConfiguration {
     public RocketTemplateCustomizer pullConsumerFactoryRocketTemplateCustomizer(RocketProperties rocketProperties) {
         return rocketTemplate -> rocketTemplate.setPullConsumerFactory(new DefaultRocketPullConsumerFactory(rocketProperties.buildPullConsumerProperties()));
     }
+
+    @Bean(name = "sendRocketTemplateCustomizer")
+    @ConditionalOnMissingBean(name = "sendRocketTemplateCustomizer")
+    public RocketTemplateCustomizer sendRocketTemplateCustomizer(RocketProperties rocketProperties) {
+        RocketProperties.Template template = rocketProperties.getTemplate();
+        return rocketTemplate -> {
+            PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            map.from(template::getMaxInFlightMessages).to(rocketTemplate::setMaxInFlightMessages);
+            map.from(template::getMaxInFlightSize).as(DataSize::toBytes).to(rocketTemplate::setMaxInFlightBytes);
+            map.from(template::getBackpressureMode).to(rocketTemplate::setBackpressureMode);
+            map.from(template::getLinger).as(Duration::toMillis).to(rocketTemplate::setLingerMillis);
+            map.from(template::getBatchMaxMessages).to(rocketTemplate::setBatchMaxMessages);
+            map.from(template::getSplitBatchMaxMessages).to(rocketTemplate::setSplitBatchMaxMessages);
+            map.from(template::getBatchMaxSize).as(DataSize::toBytes).to(rocketTemplate::setBatchMaxBytes);
+            map.from(template::getRouteRefreshInterval).as(Duration::toMillis).to(rocketTemplate::setRouteRefreshMillis);
+            map.from(template::getSharedPullConsumer).to(rocketTemplate::setSharedPullConsumer);
+            map.from(template::getPullBufferCapacity).to(rocketTemplate::setPullBufferCapacity);
+            map.from(template::getPullBufferIdleTimeout).as(Duration::toMillis).to(rocketTemplate::setPullBufferIdleMillis);
+            map.from(template::getProducerSelection).to(rocketTemplate::setProducerSelection);
+            map.from(template::getSharedTransactionalProducer).to(rocketTemplate::setSharedTransactionalProducer);
+        };
+    }
 }
@@ -9,6 +9,9 @@ import org.springframework.rocket.client.ClientProperties;
 import org.springframework.rocket.client.ProducerProperties;
 import org.springframework.rocket.client.PullConsumerProperties;
 import org.springframework.rocket.client.PushConsumerProperties;
+import org.springframework.rocket.core.BackpressureMode;
+import org.springframework.rocket.core.ProducerSelection;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -84,6 +87,10 @@ public class RocketProperties {
         private Boolean retryAnotherBroker;
         private Integer maxSize;
         private Integer compressThreshold;
+        /**
+         * Number of producers the template spreads its sends over, each with its own client instance.
+         */
+        private Integer poolSize;
 
         public Properties buildProperties() {
             Properties properties = new Properties();
@@ -95,6 +102,7 @@ public class RocketProperties {
             map.from(this::getRetryAnotherBroker).to(value -> properties.put(ProducerProperties.RETRY_ANOTHER_BROKER, value));
             map.from(this::getMaxSize).to(value -> properties.put(ProducerProperties.MAX_SIZE, value));
             map.from(this::getCompressThreshold).to(value -> properties.put(ProducerProperties.COMPRESS_THRESHOLD, value));
+            map.from(this::getPoolSize).to(value -> properties.put(ProducerProperties.POOL_SIZE, value));
             return properties;
         }
     }
@@ -121,6 +129,45 @@ public class RocketProperties {
             @DurationUnit(ChronoUnit.MILLIS)
             private Duration suspendCurrentQueueTime = Duration.ofMillis(1000);
             private Integer retryDelayLevel;
+            /**
+             * Maximum number of messages of a non batch listener consumed in parallel, each on its
+             * own task. Orderly listeners keep the order per sharding key and run distinct keys in
+             * parallel. Messages are consumed one after another when not set.
+             */
+            private Integer consumeParallelism;
+            /**
+             * Interval at which the consume threads are resized from min-consume-threads up to
+             * one below max-consume-threads, following backlog, listener latency and system load.
+             * The number of threads stays fixed when not set. Requires max-consume-threads to
+             * exceed min-consume-threads by more than one.
+             */
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration consumeThreadsAutoscaleInterval;
+            /**
+             * Number of messages a batch listener receives at once, collected across deliveries
+             * and queues. Deliveries are handed to the listener as they come when not set.
+             */
+            private Integer aggregateBatchSize;
+            /**
+             * How long a collected batch waits to reach aggregate-batch-size before it is handed
+             * to the listener.
+             */
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration aggregateWindow;
+            /**
+             * Identity by which redeliveries of consumed messages are acknowledged without
+             * reaching the listener: MSG_ID, KEYS, or a SpEL expression against the message.
+             */
+            private String dedupKey;
+            /**
+             * How long the identity of a consumed message is remembered.
+             */
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration dedupTtl;
+            /**
+             * Maximum number of remembered identities.
+             */
+            private Integer dedupCapacity;
 
             public Properties buildProperties() {
                 Properties properties = new Properties();
@@ -136,6 +183,13 @@ public class RocketProperties {
                 map.from(this::getRetries).to(value -> properties.put(PushConsumerProperties.RETRIES, value));
                 map.from(this::getSuspendCurrentQueueTime).as(Duration::toMillis).to(value -> properties.put(PushConsumerProperties.SUSPEND_CURRENT_QUEUE_TIME_MILLIS, value));
                 map.from(this::getRetryDelayLevel).to(value -> properties.put(PushConsumerProperties.RETRY_DELAY_LEVEL, value));
+                map.from(this::getConsumeParallelism).to(value -> properties.put(PushConsumerProperties.CONSUME_PARALLELISM, value));
+                map.from(this::getAggregateBatchSize).to(value -> properties.put(PushConsumerProperties.AGGREGATE_BATCH_SIZE, value));
+                map.from(this::getAggregateWindow).as(Duration::toMillis).to(value -> properties.put(PushConsumerProperties.AGGREGATE_WINDOW_MILLIS, value));
+                map.from(this::getDedupKey).to(value -> properties.put(PushConsumerProperties.DEDUP_KEY, value));
+                map.from(this::getDedupTtl).as(Duration::toMillis).to(value -> properties.put(PushConsumerProperties.DEDUP_TTL_MILLIS, value));
+                map.from(this::getDedupCapacity).to(value -> properties.put(PushConsumerProperties.DEDUP_CAPACITY, value));
+                map.from(this::getConsumeThreadsAutoscaleInterval).as(Duration::toMillis).to(value -> properties.put(PushConsumerProperties.CONSUME_THREADS_AUTOSCALE_INTERVAL_MILLIS, value));
                 return properties;
             }
         }
@@ -148,7 +202,52 @@ public class RocketProperties {
             private Integer pullThreads;
             @DurationUnit(ChronoUnit.MILLIS)
             private Duration pollTimeout;
+            /**
+             * Whether the consumer commits polled offsets on its own. Pull listener containers
+             * commit after the listener when not set.
+             */
             private Boolean autoCommit;
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration autoCommitInterval;
+            /**
+             * Maximum number of messages prefetched for all queues.
+             */
+            private Long pullThresholdForAll;
+            /**
+             * Maximum number of messages prefetched for each queue.
+             */
+            private Integer pullThresholdForQueue;
+            /**
+             * Maximum offset span of the messages prefetched for a queue.
+             */
+            private Integer consumeMaxSpan;
+            /**
+             * Minimum time between two polls of a pull listener container.
+             */
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration pollInterval;
+            /**
+             * Number of consumed messages after which a pull listener container commits.
+             */
+            private Integer commitBatchSize;
+            /**
+             * Maximum time a pull listener container keeps consumed messages uncommitted.
+             */
+            @DurationUnit(ChronoUnit.MILLIS)
+            private Duration commitInterval;
+            /**
+             * Maximum number of polled messages a pull listener container consumes in parallel.
+             */
+            private Integer consumeParallelism;
+            /**
+             * Number of times a pull listener container consumes a failed message again before
+             * it hands it to its dead letter handler.
+             */
+            private Integer retries;
+            /**
+             * Whether a pull listener container commits only when asked to.
+             */
+            private Boolean manualCommit;
 
             public Properties buildProperties() {
                 Properties properties = new Properties();
@@ -158,6 +257,17 @@ public class RocketProperties {
                 map.from(this::getPullBatchSize).to(value -> properties.put(PullConsumerProperties.PULL_BATCH_SIZE, value));
                 map.from(this::getPullThreads).to(value -> properties.put(PullConsumerProperties.PULL_THREADS, value));
                 map.from(this::getPollTimeout).as(Duration::toMillis).to(value -> properties.put(PullConsumerProperties.POLL_TIMEOUT_MILLIS, value));
+                map.from(this::getAutoCommit).to(value -> properties.put(PullConsumerProperties.AUTO_COMMIT, value));
+                map.from(this::getAutoCommitInterval).as(Duration::toMillis).to(value -> properties.put(PullConsumerProperties.AUTO_COMMIT_INTERVAL_MILLIS, value));
+                map.from(this::getPullThresholdForAll).to(value -> properties.put(PullConsumerProperties.PULL_THRESHOLD_FOR_ALL, value));
+                map.from(this::getPullThresholdForQueue).to(value -> properties.put(PullConsumerProperties.PULL_THRESHOLD_FOR_QUEUE, value));
+                map.from(this::getConsumeMaxSpan).to(value -> properties.put(PullConsumerProperties.CONSUME_MAX_SPAN, value));
+                map.from(this::getPollInterval).as(Duration::toMillis).to(value -> properties.put(PullConsumerProperties.POLL_INTERVAL_MILLIS, value));
+                map.from(this::getCommitBatchSize).to(value -> properties.put(PullConsumerProperties.COMMIT_BATCH_SIZE, value));
+                map.from(this::getCommitInterval).as(Duration::toMillis).to(value -> properties.put(PullConsumerProperties.COMMIT_INTERVAL_MILLIS, value));
+                map.from(this::getConsumeParallelism).to(value -> properties.put(PullConsumerProperties.CONSUME_PARALLELISM, value));
+                map.from(this::getRetries).to(value -> properties.put(PullConsumerProperties.RETRIES, value));
+                map.from(this::getManualCommit).to(value -> properties.put(PullConsumerProperties.MANUAL_COMMIT, value));
                 return properties;
             }
         }
@@ -169,6 +279,15 @@ public class RocketProperties {
          * Whether listener is concurrency
          */
         private Boolean concurrency;
+        /**
+         * Maximum number of messages a listener consumes per second. The consumer is suspended
+         * once the budget is spent.
+         */
+        private Double maxMessagesPerSecond;
+        /**
+         * Maximum size of the message bodies a listener consumes per second.
+         */
+        private DataSize maxBytesPerSecond;
     }
 
     @Data
@@ -177,6 +296,66 @@ public class RocketProperties {
          * Default destination to which messages are sent.
          */
         private String defaultDestination;
+        /**
+         * Maximum number of messages sent asynchronously and not completed yet.
+         */
+        private Integer maxInFlightMessages;
+        /**
+         * Maximum size of the message bodies sent asynchronously and not completed yet.
+         */
+        private DataSize maxInFlightSize;
+        /**
+         * What an asynchronous send does when an in-flight limit is reached.
+         */
+        private BackpressureMode backpressureMode;
+        /**
+         * How long a message waits for other messages to the same queue before they are sent
+         * as one batch. Batching is disabled when not set.
+         */
+        @DurationUnit(ChronoUnit.MILLIS)
+        private Duration linger;
+        /**
+         * Maximum number of messages of one linger batch.
+         */
+        private Integer batchMaxMessages;
+        /**
+         * Maximum number of messages of one sub-batch when a batch send is split. Batch sends are
+         * only split when they exceed the max message size when not set. A split batch is not
+         * stored atomically.
+         */
+        private Integer splitBatchMaxMessages;
+        /**
+         * Maximum encoded size of one linger batch, larger messages are sent on their own.
+         */
+        private DataSize batchMaxSize;
+        /**
+         * Interval to refresh the cached publish queues of topics sent to with a sharding key.
+         */
+        @DurationUnit(ChronoUnit.MILLIS)
+        private Duration routeRefreshInterval;
+        /**
+         * Whether receives of all topics go through one pull consumer instead of one per topic.
+         */
+        private Boolean sharedPullConsumer;
+        /**
+         * Number of messages the shared pull consumer buffers per topic before it pauses the topic.
+         */
+        private Integer pullBufferCapacity;
+        /**
+         * Time after which the shared pull consumer drops the buffer of a topic and tag nobody
+         * receives from, while other tags of the topic are received from.
+         */
+        @DurationUnit(ChronoUnit.MILLIS)
+        private Duration pullBufferIdleTimeout;
+        /**
+         * How sends without a sharding key pick a producer of the pool.
+         */
+        private ProducerSelection producerSelection;
+        /**
+         * Whether @RocketTransactional topics without own properties share one transactional
+         * producer instead of starting one each.
+         */
+        private Boolean sharedTransactionalProducer;
         private final Executor transactionalExecutor = new Executor() {{
             setThreadNamePrefix("transactional-");
         }};
@@ -0,0 +1,67 @@
+package org.springframework.rocket.benchmark;
+
+import java.io.Serializable;
+
+/**
+ * A small POJO used as the object payload of the benchmarks. It is {@link Serializable} so
+ * that it can go through the default {@code SimpleMessageConverter} as well as through Jackson.
+ */
+public class BenchmarkPayload implements Serializable {
+
+    private String id;
+    private long timestamp;
+    private String source;
+    private int version;
+    private double amount;
+
+    public BenchmarkPayload() {
+    }
+
+    public BenchmarkPayload(String id, long timestamp, String source, int version, double amount) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.source = source;
+        this.version = version;
+        this.amount = amount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+}
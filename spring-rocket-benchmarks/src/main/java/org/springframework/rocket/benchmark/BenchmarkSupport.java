@@ -0,0 +1,88 @@
+package org.springframework.rocket.benchmark;
+
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.rocket.support.RocketHeaders;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payloads, headers and converters shared by the benchmarks.
+ */
+public abstract class BenchmarkSupport {
+
+    public static final String TOPIC = "benchmark_topic";
+    public static final int QUEUE_NUMS = 8;
+    public static final int CUSTOM_HEADER_COUNT = 20;
+
+    public enum PayloadType {
+        BYTES, STRING, POJO
+    }
+
+    public enum HeaderProfile {
+        /** only what the template adds itself */
+        NONE,
+        /** tags, keys, flag and {@link #CUSTOM_HEADER_COUNT} user headers */
+        HEAVY
+    }
+
+    public enum ConverterType {
+        /** the default {@code SimpleMessageConverter}, POJOs are java-serialized */
+        SIMPLE,
+        /** jackson, byte[] and string converters, as a typical boot application configures them */
+        JSON
+    }
+
+    public static Object payload(PayloadType payloadType, int index) {
+        String text = "{\"id\":\"" + index + "\",\"source\":\"benchmark\",\"version\":1,\"amount\":42.0}";
+        return switch (payloadType) {
+            case BYTES -> text.getBytes(StandardCharsets.UTF_8);
+            case STRING -> text;
+            case POJO -> new BenchmarkPayload(String.valueOf(index), 1700000000000L, "benchmark", 1, 42.0);
+        };
+    }
+
+    public static List<Object> payloads(PayloadType payloadType, int size) {
+        Object[] payloads = new Object[size];
+        for (int i = 0; i < size; i++) {
+            payloads[i] = payload(payloadType, i);
+        }
+        return Arrays.asList(payloads);
+    }
+
+    public static Map<String, Object> headers(HeaderProfile headerProfile, PayloadType payloadType, ConverterType converterType) {
+        Map<String, Object> headers = new HashMap<>(64);
+        if (converterType == ConverterType.JSON && payloadType == PayloadType.POJO) {
+            headers.put(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+        }
+        if (headerProfile == HeaderProfile.HEAVY) {
+            headers.put(RocketHeaders.TAGS, "tag_a");
+            headers.put(RocketHeaders.KEYS, "key_a");
+            headers.put(RocketHeaders.FLAG, 1);
+            for (int i = 0; i < CUSTOM_HEADER_COUNT; i++) {
+                headers.put("x-custom-header-" + i, "value-" + i);
+            }
+        }
+        return headers;
+    }
+
+    public static MessageConverter messageConverter(ConverterType converterType) {
+        if (converterType == ConverterType.SIMPLE) {
+            return new SimpleMessageConverter();
+        }
+        ByteArrayMessageConverter byteArrayMessageConverter = new ByteArrayMessageConverter();
+        byteArrayMessageConverter.setContentTypeResolver(null);
+        return new CompositeMessageConverter(List.of(
+                new MappingJackson2MessageConverter(), byteArrayMessageConverter, new StringMessageConverter()));
+    }
+}
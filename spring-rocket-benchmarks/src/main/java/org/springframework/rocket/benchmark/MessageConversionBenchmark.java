@@ -0,0 +1,110 @@
+package org.springframework.rocket.benchmark;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.rocket.support.converter.DefaultMessagingMessageConverter;
+import org.springframework.rocket.support.header.DefaultRocketHeaderMapper;
+import org.springframework.rocket.support.header.RocketHeaderMapper;
+
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion steps in isolation: spring message to rocket message on the way out,
+ * rocket message to spring message on the way in, and the header mapping of both directions.
+ * <p>
+ * Run with the gc profiler to see the bytes allocated per operation:
+ * <pre>
+ * java -jar target/benchmarks.jar MessageConversionBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageConversionBenchmark {
+
+    @Param({"BYTES", "STRING", "POJO"})
+    private BenchmarkSupport.PayloadType payloadType;
+
+    @Param({"NONE", "HEAVY"})
+    private BenchmarkSupport.HeaderProfile headerProfile;
+
+    @Param({"SIMPLE", "JSON"})
+    private BenchmarkSupport.ConverterType converterType;
+
+    private DefaultMessagingMessageConverter messageConverter;
+    private RocketHeaderMapper headerMapper;
+    private Object payload;
+    private Map<String, Object> headers;
+    private org.springframework.messaging.Message<?> springMessage;
+    private MessageExt rocketMessage;
+    private Type payloadClass;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.messageConverter = new DefaultMessagingMessageConverter();
+        this.messageConverter.setMessagingConverter(BenchmarkSupport.messageConverter(this.converterType));
+        this.headerMapper = new DefaultRocketHeaderMapper();
+
+        this.payload = BenchmarkSupport.payload(this.payloadType, 0);
+        this.headers = BenchmarkSupport.headers(this.headerProfile, this.payloadType, this.converterType);
+        this.springMessage = this.messageConverter.convert(this.payload, this.headers);
+
+        Message outbound = this.messageConverter.fromMessage(this.springMessage, BenchmarkSupport.TOPIC);
+        this.rocketMessage = new MessageExt();
+        this.rocketMessage.setTopic(outbound.getTopic());
+        this.rocketMessage.setBody(outbound.getBody());
+        this.rocketMessage.setFlag(outbound.getFlag());
+        outbound.getProperties().forEach((key, value) -> MessageAccessor.putProperty(this.rocketMessage, key, value));
+        this.rocketMessage.setMsgId("7F00000100002A9F0000000000000000");
+        this.rocketMessage.setQueueId(1);
+        this.rocketMessage.setQueueOffset(1024L);
+        this.rocketMessage.setBornTimestamp(1700000000000L);
+        this.rocketMessage.setBornHost(new InetSocketAddress("127.0.0.1", 10911));
+        this.payloadClass = this.payload.getClass();
+    }
+
+    @Benchmark
+    public Message outbound() {
+        return this.messageConverter.fromMessage(this.messageConverter.convert(this.payload, this.headers), BenchmarkSupport.TOPIC);
+    }
+
+    @Benchmark
+    public org.springframework.messaging.Message<?> inbound() {
+        return this.messageConverter.toMessage(this.rocketMessage, this.payloadClass);
+    }
+
+    @Benchmark
+    public Message fromSpringHeaders() {
+        Message message = new Message(BenchmarkSupport.TOPIC, this.rocketMessage.getBody());
+        this.headerMapper.fromSpringHeaders(this.springMessage.getHeaders(), message);
+        return message;
+    }
+
+    @Benchmark
+    public MessageHeaders toSpringHeaders() {
+        Map<String, Object> springHeaders = new HashMap<>(64);
+        this.headerMapper.toSpringHeaders(this.rocketMessage, springHeaders);
+        return new MessageHeaders(springHeaders);
+    }
+}
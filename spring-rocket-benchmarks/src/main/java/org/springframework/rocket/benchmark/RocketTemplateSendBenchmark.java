@@ -0,0 +1,116 @@
+package org.springframework.rocket.benchmark;
+
+import org.apache.rocketmq.client.producer.SendResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.rocket.core.RocketTemplate;
+import org.springframework.rocket.support.RocketHeaders;
+import org.springframework.rocket.support.converter.DefaultMessagingMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the overhead {@link RocketTemplate} adds on top of the rocket client for each send mode:
+ * building the spring message, converting the payload, mapping the headers and selecting a queue.
+ * The producer underneath is a {@link StubMQProducer}, so no time is spent on the network.
+ * <p>
+ * Run with the gc profiler to see the bytes allocated per operation:
+ * <pre>
+ * java -jar target/benchmarks.jar RocketTemplateSendBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RocketTemplateSendBenchmark {
+
+    @Param({"BYTES", "STRING", "POJO"})
+    private BenchmarkSupport.PayloadType payloadType;
+
+    @Param({"NONE", "HEAVY"})
+    private BenchmarkSupport.HeaderProfile headerProfile;
+
+    @Param({"SIMPLE", "JSON"})
+    private BenchmarkSupport.ConverterType converterType;
+
+    @Param({"false", "true"})
+    private boolean sharded;
+
+    @Param({"32"})
+    private int batchSize;
+
+    private RocketTemplate rocketTemplate;
+    private Object payload;
+    private Supplier<Map<String, Object>> headerSupplier;
+    private List<Message<?>> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DefaultMessagingMessageConverter messageConverter = new DefaultMessagingMessageConverter();
+        messageConverter.setMessagingConverter(BenchmarkSupport.messageConverter(this.converterType));
+
+        this.rocketTemplate = new RocketTemplate(new StubRocketProducerFactory(
+                new StubMQProducer(BenchmarkSupport.TOPIC, BenchmarkSupport.QUEUE_NUMS)));
+        this.rocketTemplate.setMessageConverter(messageConverter);
+        this.rocketTemplate.afterPropertiesSet();
+
+        Map<String, Object> headers = BenchmarkSupport.headers(this.headerProfile, this.payloadType, this.converterType);
+        if (this.sharded) {
+            headers.put(RocketHeaders.SHARDING_KEY, "sharding_key");
+        }
+        this.payload = BenchmarkSupport.payload(this.payloadType, 0);
+        this.headerSupplier = () -> headers;
+
+        this.batch = new ArrayList<>(this.batchSize);
+        for (Object element : BenchmarkSupport.payloads(this.payloadType, this.batchSize)) {
+            this.batch.add(MessageBuilder.withPayload(element).copyHeaders(headers).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.rocketTemplate.destroy();
+    }
+
+    @Benchmark
+    public SendResult send() {
+        return this.rocketTemplate.send(BenchmarkSupport.TOPIC, this.payload, this.headerSupplier);
+    }
+
+    @Benchmark
+    public void sendAsync(Blackhole blackhole) {
+        this.rocketTemplate.sendAsync(BenchmarkSupport.TOPIC, this.payload, this.headerSupplier,
+                (sendResult, throwable) -> blackhole.consume(sendResult));
+    }
+
+    @Benchmark
+    public void sendOneway() {
+        this.rocketTemplate.sendOneway(BenchmarkSupport.TOPIC, this.payload, this.headerSupplier);
+    }
+
+    @Benchmark
+    public SendResult sendBatch() {
+        return this.rocketTemplate.sendBatch(BenchmarkSupport.TOPIC, this.batch);
+    }
+}
@@ -0,0 +1,112 @@
+package org.springframework.rocket.benchmark;
+
+import org.apache.rocketmq.client.producer.DefaultMQProducer;
+import org.apache.rocketmq.client.producer.MessageQueueSelector;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageQueue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A producer that never touches the network: every send completes immediately with a canned
+ * {@link SendResult}, so a benchmark only measures the work spring-rocket does before handing
+ * the message to the client.
+ */
+public class StubMQProducer extends DefaultMQProducer {
+
+    private final List<MessageQueue> messageQueues;
+    private final SendResult sendResult;
+
+    public StubMQProducer(String topic, int queueNums) {
+        super("benchmark");
+        List<MessageQueue> queues = new ArrayList<>(queueNums);
+        for (int i = 0; i < queueNums; i++) {
+            queues.add(new MessageQueue(topic, "broker-a", i));
+        }
+        this.messageQueues = List.copyOf(queues);
+        this.sendResult = new SendResult(SendStatus.SEND_OK, "msgId", queues.get(0), 0L, null, "offsetMsgId", null);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public List<MessageQueue> fetchPublishMessageQueues(String topic) {
+        return new ArrayList<>(this.messageQueues);
+    }
+
+    @Override
+    public SendResult send(Message msg, long timeout) {
+        return this.sendResult;
+    }
+
+    @Override
+    public void send(Message msg, SendCallback sendCallback, long timeout) {
+        sendCallback.onSuccess(this.sendResult);
+    }
+
+    @Override
+    public void sendOneway(Message msg) {
+    }
+
+    @Override
+    public SendResult send(Message msg, MessageQueue mq, long timeout) {
+        return this.sendResult;
+    }
+
+    @Override
+    public void send(Message msg, MessageQueue mq, SendCallback sendCallback, long timeout) {
+        sendCallback.onSuccess(this.sendResult);
+    }
+
+    @Override
+    public void sendOneway(Message msg, MessageQueue mq) {
+    }
+
+    @Override
+    public SendResult send(Message msg, MessageQueueSelector selector, Object arg, long timeout) {
+        selector.select(this.messageQueues, msg, arg);
+        return this.sendResult;
+    }
+
+    @Override
+    public void send(Message msg, MessageQueueSelector selector, Object arg, SendCallback sendCallback, long timeout) {
+        selector.select(this.messageQueues, msg, arg);
+        sendCallback.onSuccess(this.sendResult);
+    }
+
+    @Override
+    public void sendOneway(Message msg, MessageQueueSelector selector, Object arg) {
+        selector.select(this.messageQueues, msg, arg);
+    }
+
+    @Override
+    public SendResult send(Collection<Message> msgs, long timeout) {
+        return this.sendResult;
+    }
+
+    @Override
+    public SendResult send(Collection<Message> msgs, MessageQueue mq, long timeout) {
+        return this.sendResult;
+    }
+
+    @Override
+    public void send(Collection<Message> msgs, SendCallback sendCallback, long timeout) {
+        sendCallback.onSuccess(this.sendResult);
+    }
+
+    @Override
+    public void send(Collection<Message> msgs, MessageQueue mq, SendCallback sendCallback, long timeout) {
+        sendCallback.onSuccess(this.sendResult);
+    }
+}
@@ -0,0 +1,26 @@
+package org.springframework.rocket.benchmark;
+
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.springframework.rocket.client.RocketProducerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class StubRocketProducerFactory implements RocketProducerFactory {
+
+    private final MQProducer producer;
+
+    public StubRocketProducerFactory(MQProducer producer) {
+        this.producer = producer;
+    }
+
+    @Override
+    public Map<String, Object> getDefaultProperties() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public MQProducer create(String groupId, Map<String, Object> overrideProperties) {
+        return this.producer;
+    }
+}
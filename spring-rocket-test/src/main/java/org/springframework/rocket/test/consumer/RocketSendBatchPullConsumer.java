@@ -0,0 +1,26 @@
+package org.springframework.rocket.test.consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.rocket.annotation.RocketHandler;
+import org.springframework.rocket.annotation.RocketListener;
+import org.springframework.rocket.test.dto.PayloadReceive;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class RocketSendBatchPullConsumer {
+
+    public final static String KEY = "rocket-send-batch";
+    public final static String GROUP_ID = "GID_ROCKET_SEND_BATCH_PULL";
+
+
+    @RocketListener(topic = KEY, groupId = GROUP_ID, batch = true, containerFactory = "rocketPullListenerContainerFactory",
+            properties = {"pullBatchSize:32", "pollIntervalMillis:500", "commitBatchSize:128", "commitIntervalMillis:5000"})
+    @RocketHandler
+    public void onMessage(@Payload List<PayloadReceive> payloads) {
+        log.info("[{}]spring rocket poll [{}] payloads: {}", GROUP_ID, payloads.size(), payloads);
+    }
+}
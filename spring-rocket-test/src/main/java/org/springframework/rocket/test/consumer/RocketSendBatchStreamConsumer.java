@@ -0,0 +1,25 @@
+package org.springframework.rocket.test.consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.rocket.annotation.RocketHandler;
+import org.springframework.rocket.annotation.RocketListener;
+import org.springframework.rocket.test.dto.PayloadReceive;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class RocketSendBatchStreamConsumer {
+
+    public final static String KEY = "rocket-send-batch";
+    public final static String GROUP_ID = "GID_ROCKET_SEND_BATCH_STREAM";
+
+
+    @RocketListener(topic = KEY, groupId = GROUP_ID, batch = true, properties = {"consumeBatchSize:3"})
+    @RocketHandler
+    public void onMessage(Stream<Message<PayloadReceive>> messages) {
+        messages.limit(1).forEach(message -> log.info("[{}]spring rocket receive first of stream messages: {}", GROUP_ID, message));
+    }
+}
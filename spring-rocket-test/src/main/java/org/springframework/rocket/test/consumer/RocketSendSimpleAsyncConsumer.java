@@ -0,0 +1,25 @@
+package org.springframework.rocket.test.consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.rocket.annotation.RocketHandler;
+import org.springframework.rocket.annotation.RocketListener;
+import org.springframework.rocket.test.dto.PayloadReceive;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+public class RocketSendSimpleAsyncConsumer {
+
+    public final static String KEY = "rocket-send-simple-async";
+    public final static String GROUP_ID = "GID_ROCKET_SEND_SIMPLE_ASYNC";
+
+
+    @RocketListener(topic = KEY, groupId = GROUP_ID, properties = {"consumeBatchSize:8", "consumeParallelism:64"})
+    @RocketHandler
+    public CompletableFuture<Void> onMessage(@Payload(required = false) PayloadReceive payload) {
+        return CompletableFuture.runAsync(() -> log.info("[{}]spring rocket receive async payload: {}", GROUP_ID, payload));
+    }
+}
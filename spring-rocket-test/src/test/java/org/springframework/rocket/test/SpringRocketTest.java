@@ -12,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.rocket.core.BatchSendResult;
 import org.springframework.rocket.core.Delay;
 import org.springframework.rocket.core.DelayMode;
 import org.springframework.rocket.core.RocketTemplate;
@@ -25,6 +26,7 @@ import org.springframework.util.ObjectUtils;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -81,6 +83,19 @@ public class SpringRocketTest {
         Thread.sleep(5000);
     }
 
+    @SneakyThrows
+    @Test
+    public void sendAsyncListenerTest() {
+        String topic = "rocket-send-simple-async";
+
+        for (int i = 0; i < 16; i++) {
+            SendResult sendResult = rocketTemplate.send(topic, PayloadSend.create());
+            log.info("sync send simple to async listener: {}", sendResult);
+        }
+
+        Thread.sleep(5000);
+    }
+
 
     @SneakyThrows
     @Test
@@ -106,6 +121,41 @@ public class SpringRocketTest {
     }
 
 
+    @SneakyThrows
+    @Test
+    public void sendBatchSplitTest() {
+        String topic = "rocket-send-batch";
+
+        List<PayloadSend> payloads = IntStream.range(0, 1000).boxed().map(i -> PayloadSend.create()).toList();
+        BatchSendResult sendResult = (BatchSendResult) rocketTemplate.sendBatch(TopicTag.of(topic), payloads);
+        log.info("sync send batch split into {} sub-batches, last message in sub-batch {}",
+                sendResult.getSendResults().size(), sendResult.getBatchIndex(payloads.size() - 1));
+
+        sendResult = (BatchSendResult) rocketTemplate.sendBatchAsync(TopicTag.of(topic), payloads).get(10, TimeUnit.SECONDS);
+        log.info("async send batch split into {} sub-batches: {}", sendResult.getSendResults().size(), sendResult);
+
+        Thread.sleep(5000);
+    }
+
+
+    @SneakyThrows
+    @Test
+    public void sendBatchShardingTest() {
+        String topic = "rocket-send-sequential";
+
+        List<Message<PayloadSend>> messages = IntStream.range(0, 100).boxed().map(i -> {
+            Map<String, Object> headers = MapBuilder.builder()
+                    .put(RocketHeaders.SHARDING_KEY, "sharding-key-" + i % 5)
+                    .build();
+            return MessageBuilder.createMessage(PayloadSend.create(String.valueOf(i)), new MessageHeaders(headers));
+        }).toList();
+        BatchSendResult sendResult = (BatchSendResult) rocketTemplate.sendBatch(topic, messages);
+        log.info("sync send batch grouped by sharding key into {} sub-batches: {}", sendResult.getSendResults().size(), sendResult);
+
+        Thread.sleep(5000);
+    }
+
+
     @SneakyThrows
     @Test
     public void sendDelayTest() {
@@ -167,6 +217,31 @@ public class SpringRocketTest {
     }
 
 
+    @SneakyThrows
+    @Test
+    public void sendAsyncFutureTest() {
+        String topic = "rocket-send-simple";
+
+        rocketTemplate.sendAsync(topic, PayloadSend.create())
+                .whenComplete(SEND_CONSUMER.apply("async send simple future"));
+
+        rocketTemplate.sendAsync(new TopicTag(topic, "1"), PayloadSend.create())
+                .whenComplete(SEND_CONSUMER.apply("async send simple future with tags"));
+
+        List<CompletableFuture<SendResult>> futures = IntStream.range(0, 100).boxed()
+                .map(i -> rocketTemplate.sendAsync(topic, PayloadSend.create(String.valueOf(i))))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        log.info("async send simple futures completed, in-flight messages: {}", rocketTemplate.getInFlightMessages());
+
+        List<PayloadSend> payloads = IntStream.range(0, 20).boxed().map(i -> PayloadSend.create()).toList();
+        SendResult sendResult = rocketTemplate.sendBatchAsync(TopicTag.of("rocket-send-batch"), payloads).get(10, TimeUnit.SECONDS);
+        log.info("async send batch simple future: {}", sendResult);
+
+        Thread.sleep(5000);
+    }
+
+
     @SneakyThrows
     @Test
     public void sendBatchAsyncTest() {
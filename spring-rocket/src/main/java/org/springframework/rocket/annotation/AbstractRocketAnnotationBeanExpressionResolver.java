@@ -12,6 +12,9 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.expression.StandardBeanExpressionResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.StringReader;
@@ -105,6 +108,43 @@ public abstract class AbstractRocketAnnotationBeanExpressionResolver implements
         return null;
     }
 
+    protected <T extends Number> T resolveExpressionAsNumber(String value, String attribute, Class<T> type) {
+        Object resolved = resolveExpression(value);
+
+        if (resolved instanceof Number number) {
+            return NumberUtils.convertNumberToTargetClass(number, type);
+        }
+        else if (resolved instanceof String string) {
+            return StringUtils.hasText(string) ? NumberUtils.parseNumber(string.trim(), type) : null;
+        }
+        else if (resolved != null) {
+            throw new IllegalStateException(String.format(
+                    "The [%s] must resolve to a Number or a String that can be parsed as a %s. Resolved to [%s] for [%s]",
+                    attribute, type.getSimpleName(), resolved.getClass(), value));
+        }
+        return null;
+    }
+
+    protected DataSize resolveExpressionAsDataSize(String value, String attribute) {
+        Object resolved = resolveExpression(value);
+
+        if (resolved instanceof DataSize dataSize) {
+            return dataSize;
+        }
+        else if (resolved instanceof Number number) {
+            return DataSize.ofBytes(number.longValue());
+        }
+        else if (resolved instanceof String string) {
+            return StringUtils.hasText(string) ? DataSize.parse(string.trim()) : null;
+        }
+        else if (resolved != null) {
+            throw new IllegalStateException(String.format(
+                    "The [%s] must resolve to a DataSize, a Number or a String that can be parsed as a DataSize. Resolved to [%s] for [%s]",
+                    attribute, resolved.getClass(), value));
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     protected Properties resolveProperties(String[] propertyStrings) {
         Properties properties = new Properties();
@@ -77,6 +77,25 @@ public @interface RocketListener {
      */
     String concurrency() default "true";
 
+    /**
+     * Maximum number of messages this listener consumes per second, overriding the container
+     * factory's setting. The container suspends pulling once the budget is spent.
+     * <p>
+     * SpEL {@code #{...}} and property placeholders {@code ${...}} are supported.
+     * @return the message rate limit, not limited when empty.
+     */
+    String maxMessagesPerSecond() default "";
+
+    /**
+     * Maximum size of the message bodies this listener consumes per second, overriding the
+     * container factory's setting. A {@link org.springframework.util.unit.DataSize} such as
+     * {@code 512KB} or {@code 10MB}, a plain number is in bytes.
+     * <p>
+     * SpEL {@code #{...}} and property placeholders {@code ${...}} are supported.
+     * @return the byte rate limit, not limited when empty.
+     */
+    String maxBytesPerSecond() default "";
+
     String[] properties() default {};
 
 }
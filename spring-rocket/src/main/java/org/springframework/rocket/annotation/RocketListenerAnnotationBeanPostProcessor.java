@@ -36,6 +36,7 @@ import org.springframework.rocket.config.RocketSupportBeanNames;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.Validator;
 
 import java.lang.reflect.AnnotatedElement;
@@ -276,6 +277,16 @@ public class RocketListenerAnnotationBeanPostProcessor extends AbstractRocketAnn
             endpoint.setAutoStartup(resolveExpressionAsBoolean(autoStartup, "autoStartup"));
         }
 
+        String maxMessagesPerSecond = rocketListener.maxMessagesPerSecond();
+        if (StringUtils.hasText(maxMessagesPerSecond)) {
+            endpoint.setMaxMessagesPerSecond(resolveExpressionAsNumber(maxMessagesPerSecond, "maxMessagesPerSecond", Double.class));
+        }
+        String maxBytesPerSecond = rocketListener.maxBytesPerSecond();
+        if (StringUtils.hasText(maxBytesPerSecond)) {
+            DataSize maxBytes = resolveExpressionAsDataSize(maxBytesPerSecond, "maxBytesPerSecond");
+            endpoint.setMaxBytesPerSecond(maxBytes != null ? maxBytes.toBytes() : null);
+        }
+
         resolveRocketProperties(endpoint, rocketListener.properties());
         endpoint.setBatchListener(rocketListener.batch());
 //        endpoint.setAckMode(rocketListener.ackMode());
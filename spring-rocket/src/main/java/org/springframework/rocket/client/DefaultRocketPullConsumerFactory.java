@@ -51,7 +51,12 @@ public class DefaultRocketPullConsumerFactory implements RocketPullConsumerFacto
 
                 .acceptIfNotNull(consumerProperties.getPullBatchSize(), consumer::setPullBatchSize)
                 .acceptIfNotNull(consumerProperties.getPullThreads(), consumer::setPullThreadNums)
-                .acceptIfNotNull(consumerProperties.getPollTimeoutMillis(), consumer::setPollTimeoutMillis);
+                .acceptIfNotNull(consumerProperties.getPollTimeoutMillis(), consumer::setPollTimeoutMillis)
+                .acceptIfNotNull(consumerProperties.getAutoCommit(), consumer::setAutoCommit)
+                .acceptIfNotNull(consumerProperties.getAutoCommitIntervalMillis(), consumer::setAutoCommitIntervalMillis)
+                .acceptIfNotNull(consumerProperties.getPullThresholdForAll(), consumer::setPullThresholdForAll)
+                .acceptIfNotNull(consumerProperties.getPullThresholdForQueue(), consumer::setPullThresholdForQueue)
+                .acceptIfNotNull(consumerProperties.getConsumeMaxSpan(), consumer::setConsumeMaxSpan);
 
         return consumer;
     }
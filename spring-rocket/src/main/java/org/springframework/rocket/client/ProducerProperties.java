@@ -17,6 +17,10 @@ public class ProducerProperties extends ClientProperties {
     public static final String MAX_SIZE = "maxSize";
     public static final String COMPRESS_THRESHOLD = "compressThreshold";
     public static final String TRANSACTIONAL = "transactional";
+    /**
+     * number of producers behind a {@link org.springframework.rocket.core.RocketTemplate}, each with its own client instance
+     */
+    public static final String POOL_SIZE = "poolSize";
 
     private Integer sendTimeoutMillis;
     private Integer syncRetries;
@@ -25,6 +29,7 @@ public class ProducerProperties extends ClientProperties {
     private Integer maxSize;
     private Integer compressThreshold;
     private Boolean transactional;
+    private Integer poolSize;
 
 
     public ProducerProperties(Map<String, Object> properties) {
@@ -39,5 +44,6 @@ public class ProducerProperties extends ClientProperties {
         this.maxSize = PropertiesUtils.extractAsInteger(properties, MAX_SIZE);
         this.compressThreshold = PropertiesUtils.extractAsInteger(properties, COMPRESS_THRESHOLD);
         this.transactional = PropertiesUtils.extractAsBoolean(properties, TRANSACTIONAL);
+        this.poolSize = PropertiesUtils.extractAsInteger(properties, POOL_SIZE);
     }
 }
@@ -14,9 +14,62 @@ public class PullConsumerProperties extends ConsumerProperties {
     public static final String PULL_BATCH_SIZE = "pullBatchSize";
     public static final String PULL_THREADS = "pullThreads";
     public static final String POLL_TIMEOUT_MILLIS = "pollTimeoutMillis";
+    /**
+     * Whether the consumer commits the offsets of polled messages on its own. A pull listener
+     * container commits after the listener instead and switches it off unless set.
+     */
+    public static final String AUTO_COMMIT = "autoCommit";
+    public static final String AUTO_COMMIT_INTERVAL_MILLIS = "autoCommitIntervalMillis";
+    /**
+     * Maximum number of messages prefetched for all queues, and for each queue.
+     */
+    public static final String PULL_THRESHOLD_FOR_ALL = "pullThresholdForAll";
+    public static final String PULL_THRESHOLD_FOR_QUEUE = "pullThresholdForQueue";
+    /**
+     * Maximum offset span of the messages prefetched for a queue.
+     */
+    public static final String CONSUME_MAX_SPAN = "consumeMaxSpan";
+    /**
+     * How long a pull listener container waits before the next poll after a poll returned no message.
+     */
+    public static final String POLL_INTERVAL_MILLIS = "pollIntervalMillis";
+    /**
+     * Number of consumed messages after which a pull listener container commits, every poll when not set.
+     */
+    public static final String COMMIT_BATCH_SIZE = "commitBatchSize";
+    /**
+     * Maximum time a pull listener container keeps consumed messages uncommitted, bounds
+     * {@link #COMMIT_BATCH_SIZE} when messages come in slowly.
+     */
+    public static final String COMMIT_INTERVAL_MILLIS = "commitIntervalMillis";
+    /**
+     * Maximum number of polled messages of a non batch listener a pull listener container consumes
+     * in parallel on its consume executor, one by one on the poll thread when not set.
+     */
+    public static final String CONSUME_PARALLELISM = "consumeParallelism";
+    /**
+     * Number of times a pull listener container consumes a failed message again before it hands
+     * it to its dead letter handler, again until it succeeds when not set.
+     */
+    public static final String RETRIES = "retries";
+    /**
+     * Whether a pull listener container commits only when asked through its {@code commitAsync()}.
+     */
+    public static final String MANUAL_COMMIT = "manualCommit";
     private Integer pullBatchSize;
     private Integer pullThreads;
     private Long pollTimeoutMillis;
+    private Boolean autoCommit;
+    private Long autoCommitIntervalMillis;
+    private Long pullThresholdForAll;
+    private Integer pullThresholdForQueue;
+    private Integer consumeMaxSpan;
+    private Long pollIntervalMillis;
+    private Integer commitBatchSize;
+    private Long commitIntervalMillis;
+    private Integer consumeParallelism;
+    private Integer retries;
+    private Boolean manualCommit;
 
     public PullConsumerProperties(Map<String, Object> properties) {
         super(properties);
@@ -26,5 +79,16 @@ public class PullConsumerProperties extends ConsumerProperties {
         this.pullBatchSize = PropertiesUtils.extractAsInteger(properties, PULL_BATCH_SIZE);
         this.pullThreads = PropertiesUtils.extractAsInteger(properties, PULL_THREADS);
         this.pollTimeoutMillis = PropertiesUtils.extractAsLong(properties, POLL_TIMEOUT_MILLIS);
+        this.autoCommit = PropertiesUtils.extractAsBoolean(properties, AUTO_COMMIT);
+        this.autoCommitIntervalMillis = PropertiesUtils.extractAsLong(properties, AUTO_COMMIT_INTERVAL_MILLIS);
+        this.pullThresholdForAll = PropertiesUtils.extractAsLong(properties, PULL_THRESHOLD_FOR_ALL);
+        this.pullThresholdForQueue = PropertiesUtils.extractAsInteger(properties, PULL_THRESHOLD_FOR_QUEUE);
+        this.consumeMaxSpan = PropertiesUtils.extractAsInteger(properties, CONSUME_MAX_SPAN);
+        this.pollIntervalMillis = PropertiesUtils.extractAsLong(properties, POLL_INTERVAL_MILLIS);
+        this.commitBatchSize = PropertiesUtils.extractAsInteger(properties, COMMIT_BATCH_SIZE);
+        this.commitIntervalMillis = PropertiesUtils.extractAsLong(properties, COMMIT_INTERVAL_MILLIS);
+        this.consumeParallelism = PropertiesUtils.extractAsInteger(properties, CONSUME_PARALLELISM);
+        this.retries = PropertiesUtils.extractAsInteger(properties, RETRIES);
+        this.manualCommit = PropertiesUtils.extractAsBoolean(properties, MANUAL_COMMIT);
     }
 }
@@ -29,6 +29,46 @@ public class PushConsumerProperties extends ConsumerProperties {
 
     public static final String SUSPEND_CURRENT_QUEUE_TIME_MILLIS = "suspendCurrentQueueTimeMillis";
     public static final String RETRY_DELAY_LEVEL = "retryDelayLevel";
+    /**
+     * Maximum number of messages of a non batch listener consumed in parallel. Each message of a
+     * delivered batch is then handed to the container's consume executor, so raise
+     * {@link #CONSUME_BATCH_SIZE} along with it. An orderly listener keeps the order per
+     * sharding key, or per keys, and consumes distinct keys of a delivered batch in parallel, so
+     * its container does not start with a batch size of 1. For a listener completing
+     * asynchronously it bounds the messages not completed yet, without a consume executor.
+     */
+    public static final String CONSUME_PARALLELISM = "consumeParallelism";
+    /**
+     * Interval at which the container resizes the consume threads from {@link #MIN_CONSUME_THREADS}
+     * up to one below {@link #MAX_CONSUME_THREADS}, the thread count stays fixed when not set. The
+     * container does not start unless the maximum exceeds the minimum by more than one, which the
+     * client defaults of 20 and 20 do not.
+     */
+    public static final String CONSUME_THREADS_AUTOSCALE_INTERVAL_MILLIS = "consumeThreadsAutoscaleIntervalMillis";
+    /**
+     * Number of messages a batch listener receives at once, collected across deliveries and queues.
+     * Each delivery is acknowledged once the batch it went into was handled.
+     */
+    public static final String AGGREGATE_BATCH_SIZE = "aggregateBatchSize";
+    /**
+     * How long a collected batch waits for {@link #AGGREGATE_BATCH_SIZE} messages before it is
+     * handed to the listener as it is, 100 milliseconds by default.
+     */
+    public static final String AGGREGATE_WINDOW_MILLIS = "aggregateWindowMillis";
+    /**
+     * Identity of a message by which redeliveries of an already consumed message are acknowledged
+     * without reaching the listener: {@code MSG_ID}, {@code KEYS}, or a SpEL expression evaluated
+     * against the {@code MessageExt}. No deduplication when not set.
+     */
+    public static final String DEDUP_KEY = "dedupKey";
+    /**
+     * How long the identity of a consumed message is remembered, 10 minutes by default.
+     */
+    public static final String DEDUP_TTL_MILLIS = "dedupTtlMillis";
+    /**
+     * How many identities are remembered at most, 100000 by default.
+     */
+    public static final String DEDUP_CAPACITY = "dedupCapacity";
 
     private Integer pullBatchSize;
     private AllocateMessageQueueStrategy allocateMessageQueueStrategy;
@@ -42,6 +82,13 @@ public class PushConsumerProperties extends ConsumerProperties {
 
     private Long suspendCurrentQueueTimeMillis;
     private Integer retryDelayLevel;
+    private Integer consumeParallelism;
+    private Long consumeThreadsAutoscaleIntervalMillis;
+    private Integer aggregateBatchSize;
+    private Long aggregateWindowMillis;
+    private String dedupKey;
+    private Long dedupTtlMillis;
+    private Integer dedupCapacity;
 
 
     public PushConsumerProperties(Map<String, Object> properties) {
@@ -60,6 +107,13 @@ public class PushConsumerProperties extends ConsumerProperties {
 
         this.suspendCurrentQueueTimeMillis = PropertiesUtils.extractAsLong(properties, SUSPEND_CURRENT_QUEUE_TIME_MILLIS);
         this.retryDelayLevel = PropertiesUtils.extractAsInteger(properties, RETRY_DELAY_LEVEL);
+        this.consumeParallelism = PropertiesUtils.extractAsInteger(properties, CONSUME_PARALLELISM);
+        this.consumeThreadsAutoscaleIntervalMillis = PropertiesUtils.extractAsLong(properties, CONSUME_THREADS_AUTOSCALE_INTERVAL_MILLIS);
+        this.aggregateBatchSize = PropertiesUtils.extractAsInteger(properties, AGGREGATE_BATCH_SIZE);
+        this.aggregateWindowMillis = PropertiesUtils.extractAsLong(properties, AGGREGATE_WINDOW_MILLIS);
+        this.dedupKey = PropertiesUtils.extractAsString(properties, DEDUP_KEY);
+        this.dedupTtlMillis = PropertiesUtils.extractAsLong(properties, DEDUP_TTL_MILLIS);
+        this.dedupCapacity = PropertiesUtils.extractAsInteger(properties, DEDUP_CAPACITY);
     }
 
 
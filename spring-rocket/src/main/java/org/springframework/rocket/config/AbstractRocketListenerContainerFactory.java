@@ -7,21 +7,22 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
-import org.springframework.rocket.client.RocketPushConsumerFactory;
+import org.springframework.rocket.client.RocketConsumerFactory;
 import org.springframework.rocket.core.RocketTemplate;
 import org.springframework.rocket.listener.AbstractRocketMessageListenerContainer;
 import org.springframework.rocket.listener.ContainerProperties;
 import org.springframework.rocket.support.JavaUtils;
 import org.springframework.rocket.support.MessageConverter;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 @Getter
 @Setter
 @RequiredArgsConstructor
-public abstract class AbstractRocketListenerContainerFactory<C extends AbstractRocketMessageListenerContainer>
+public abstract class AbstractRocketListenerContainerFactory<C extends AbstractRocketMessageListenerContainer, F extends RocketConsumerFactory<?>>
         implements RocketListenerContainerFactory, ApplicationEventPublisherAware, ApplicationContextAware {
 
-    private final RocketPushConsumerFactory consumerFactory;
+    private final F consumerFactory;
 
     private final ContainerProperties containerProperties;
 
@@ -56,6 +57,65 @@ public abstract class AbstractRocketListenerContainerFactory<C extends AbstractR
 
     protected abstract C createContainerInstance(RocketListenerEndpoint endpoint);
 
+    /**
+     * Merge the properties of the endpoint with the defaults of this factory, the endpoint wins.
+     */
+    protected ContainerProperties createContainerProperties(RocketListenerEndpoint endpoint) {
+        ContainerProperties overrideContainerProperties = new ContainerProperties();
+
+        JavaUtils instance = JavaUtils.INSTANCE;
+        instance
+                .acceptIfHasText(endpoint.getTopic(), overrideContainerProperties::setTopic)
+                .acceptIfHasText(endpoint.getFilterExpressionType(), overrideContainerProperties::setFilterExpressionType)
+                .acceptIfHasText(endpoint.getFilterExpression(), overrideContainerProperties::setFilterExpression)
+                .acceptIfNotNull(endpoint.getBatchListener(), overrideContainerProperties::setBatchListener)
+                .acceptIfNotNull(endpoint.getMaxMessagesPerSecond(), overrideContainerProperties::setMaxMessagesPerSecond)
+                .acceptIfNotNull(endpoint.getMaxBytesPerSecond(), overrideContainerProperties::setMaxBytesPerSecond);
+        if (!ObjectUtils.isEmpty(endpoint.getConsumerProperties())) {
+            overrideContainerProperties.setRocketConsumerProperties(endpoint.getConsumerProperties());
+        }
+
+
+        if (!StringUtils.hasText(overrideContainerProperties.getGroupId())) {
+            instance.acceptIfHasText(this.getContainerProperties().getGroupId(), overrideContainerProperties::setGroupId);
+        }
+        if (!StringUtils.hasText(overrideContainerProperties.getTopic())) {
+            instance.acceptIfHasText(this.getContainerProperties().getTopic(), overrideContainerProperties::setTopic);
+        }
+        if (!StringUtils.hasText(overrideContainerProperties.getFilterExpressionType())) {
+            instance.acceptIfHasText(this.getContainerProperties().getFilterExpressionType(), overrideContainerProperties::setFilterExpressionType);
+        }
+        if (!StringUtils.hasText(overrideContainerProperties.getFilterExpression())) {
+            instance.acceptIfHasText(this.getContainerProperties().getFilterExpression(), overrideContainerProperties::setFilterExpression);
+        }
+        if (overrideContainerProperties.getBatchListener() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getBatchListener(), overrideContainerProperties::setBatchListener);
+        }
+        if (overrideContainerProperties.getMessageListener() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getMessageListener(), overrideContainerProperties::setMessageListener);
+        }
+        if (overrideContainerProperties.getMaxMessagesPerSecond() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getMaxMessagesPerSecond(), overrideContainerProperties::setMaxMessagesPerSecond);
+        }
+        if (overrideContainerProperties.getMaxBytesPerSecond() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getMaxBytesPerSecond(), overrideContainerProperties::setMaxBytesPerSecond);
+        }
+        if (overrideContainerProperties.getBackpressurePolicy() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getBackpressurePolicy(), overrideContainerProperties::setBackpressurePolicy);
+        }
+        if (overrideContainerProperties.getDeadLetterHandler() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getDeadLetterHandler(), overrideContainerProperties::setDeadLetterHandler);
+        }
+        if (overrideContainerProperties.getConsumeExecutor() == null) {
+            instance.acceptIfNotNull(this.getContainerProperties().getConsumeExecutor(), overrideContainerProperties::setConsumeExecutor);
+        }
+        if (overrideContainerProperties.getRocketConsumerProperties() != null && this.getContainerProperties().getRocketConsumerProperties() != null) {
+            this.getContainerProperties().getRocketConsumerProperties().forEach((k, v) -> overrideContainerProperties.getRocketConsumerProperties().putIfAbsent(k, v));
+        }
+
+        return overrideContainerProperties;
+    }
+
     private void configureEndpoint(AbstractRocketListenerEndpoint abstractEndpoint) {
         JavaUtils.INSTANCE.acceptIfNotNull(this.replyTemplate, abstractEndpoint::setReplyTemplate);
     }
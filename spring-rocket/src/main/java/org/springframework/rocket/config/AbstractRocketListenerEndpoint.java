@@ -38,6 +38,10 @@ public abstract class AbstractRocketListenerEndpoint implements RocketListenerEn
 
     private Boolean autoStartup;
 
+    private Double maxMessagesPerSecond;
+
+    private Long maxBytesPerSecond;
+
     private RocketTemplate replyTemplate;
 
     private BeanFactory beanFactory;
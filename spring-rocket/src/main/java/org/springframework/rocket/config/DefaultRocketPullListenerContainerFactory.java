@@ -0,0 +1,35 @@
+package org.springframework.rocket.config;
+
+import org.springframework.rocket.client.RocketPullConsumerFactory;
+import org.springframework.rocket.listener.ContainerProperties;
+import org.springframework.rocket.listener.DefaultRocketPullMessageListenerContainer;
+
+/**
+ * Creates {@link DefaultRocketPullMessageListenerContainer}s, name it in
+ * {@code @RocketListener(containerFactory = ...)} to consume through a pull consumer.
+ */
+public class DefaultRocketPullListenerContainerFactory
+        extends AbstractRocketListenerContainerFactory<DefaultRocketPullMessageListenerContainer, RocketPullConsumerFactory> {
+
+    public DefaultRocketPullListenerContainerFactory(RocketPullConsumerFactory consumerFactory, ContainerProperties containerProperties) {
+        super(consumerFactory, containerProperties);
+    }
+
+    public DefaultRocketPullListenerContainerFactory(RocketPullConsumerFactory consumerFactory) {
+        this(consumerFactory, new ContainerProperties());
+    }
+
+
+    @Override
+    protected DefaultRocketPullMessageListenerContainer createContainerInstance(RocketListenerEndpoint endpoint) {
+        return new DefaultRocketPullMessageListenerContainer(this.getConsumerFactory(), createContainerProperties(endpoint));
+    }
+
+    @Override
+    protected void initializeContainer(DefaultRocketPullMessageListenerContainer instance, RocketListenerEndpoint endpoint) {
+        super.initializeContainer(instance, endpoint);
+        if (endpoint.getConcurrency() != null) {
+            instance.setConcurrency(endpoint.getConcurrency());
+        }
+    }
+}
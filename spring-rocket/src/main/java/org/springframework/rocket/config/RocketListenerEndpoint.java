@@ -23,4 +23,16 @@ public interface RocketListenerEndpoint extends ListenerEndpoint<RocketMessageLi
      */
     Properties getConsumerProperties();
 
+    /**
+     * Return the maximum number of messages consumed per second, overriding the container factory.
+     * @return the message rate limit; may be null.
+     */
+    Double getMaxMessagesPerSecond();
+
+    /**
+     * Return the maximum size of the message bodies consumed per second, overriding the container factory.
+     * @return the byte rate limit; may be null.
+     */
+    Long getMaxBytesPerSecond();
+
 }
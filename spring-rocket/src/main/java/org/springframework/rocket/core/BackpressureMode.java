@@ -0,0 +1,17 @@
+package org.springframework.rocket.core;
+
+public enum BackpressureMode {
+    /**
+     * wait for in-flight sends to complete, at most for the send timeout, the send fails once it passed
+     */
+    BLOCK,
+    /**
+     * reject the send with a {@link org.springframework.rocket.RocketException}, without waiting: the future
+     * of an asynchronous send fails with it, a synchronous send throws it
+     */
+    FAIL_FAST,
+    /**
+     * drop the message and complete its future exceptionally, the caller is not blocked nor thrown at
+     */
+    SHED
+}
@@ -0,0 +1,84 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.producer.SendResult;
+import org.springframework.rocket.RocketException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Failure of a batch that was sent as several sub-batches, when at least one of them failed.
+ * <p>
+ * Sub-batches are stored independently, so the others may have been stored already: their
+ * results are in {@link #getSendResults()} and sending them again duplicates their messages.
+ * Only the messages of {@link #getFailedMessageIndexes()} need to be sent again. A sub-batch
+ * that was not sent because an earlier one of the same queue failed carries that failure.
+ */
+public class BatchSendException extends RocketException {
+
+    private final List<SendResult> sendResults;
+    private final List<Throwable> failures;
+    private final int[] batchIndexes;
+
+    /**
+     * @param sendResults result of every sub-batch, {@code null} for a failed one
+     * @param failures failure of every sub-batch, {@code null} for a stored one
+     * @param batchIndexes index of the sub-batch of every message of the sent list
+     */
+    public BatchSendException(List<SendResult> sendResults, List<Throwable> failures, int[] batchIndexes) {
+        super(message(failures), failures.stream().filter(Objects::nonNull).findFirst().orElse(null));
+        this.sendResults = Collections.unmodifiableList(sendResults);
+        this.failures = Collections.unmodifiableList(failures);
+        this.batchIndexes = batchIndexes;
+    }
+
+    /**
+     * @return result of every sub-batch in sending order, {@code null} for a failed one
+     */
+    public List<SendResult> getSendResults() {
+        return this.sendResults;
+    }
+
+    /**
+     * @return failure of every sub-batch in sending order, {@code null} for a stored one
+     */
+    public List<Throwable> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * @param messageIndex index of the message in the sent list
+     * @return index of the sub-batch the message was sent with
+     */
+    public int getBatchIndex(int messageIndex) {
+        return this.batchIndexes[messageIndex];
+    }
+
+    /**
+     * @param messageIndex index of the message in the sent list
+     * @return whether the sub-batch of the message was stored
+     */
+    public boolean isSent(int messageIndex) {
+        return this.sendResults.get(this.batchIndexes[messageIndex]) != null;
+    }
+
+    /**
+     * @return indexes in the sent list of the messages whose sub-batch failed
+     */
+    public List<Integer> getFailedMessageIndexes() {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < this.batchIndexes.length; i++) {
+            if (!isSent(i)) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
+    private static String message(List<Throwable> failures) {
+        long failed = failures.stream().filter(Objects::nonNull).count();
+        return failed + " of " + failures.size() + " sub-batches failed, the others were stored";
+    }
+}
@@ -0,0 +1,59 @@
+package org.springframework.rocket.core;
+
+import lombok.Getter;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a batch that was sent as several sub-batches.
+ * <p>
+ * The inherited fields describe the batch as a whole: the worst {@link SendStatus} of all
+ * sub-batches, the comma joined message ids in sub-batch order, and the queue and
+ * offset of the first sub-batch. {@link #getBatchIndex(int)} tells which sub-batch, and so
+ * which of {@link #getSendResults()}, a message of the sent list landed in.
+ */
+public class BatchSendResult extends SendResult {
+
+    @Getter
+    private final List<SendResult> sendResults;
+    private final int[] batchIndexes;
+
+    public BatchSendResult(List<SendResult> sendResults, int[] batchIndexes) {
+        this.sendResults = Collections.unmodifiableList(sendResults);
+        this.batchIndexes = batchIndexes;
+
+        SendResult first = sendResults.get(0);
+        setSendStatus(sendResults.stream().map(SendResult::getSendStatus)
+                .max(Enum::compareTo).orElse(SendStatus.SEND_OK));
+        setMsgId(join(sendResults.stream().map(SendResult::getMsgId).collect(Collectors.toList())));
+        setOffsetMsgId(join(sendResults.stream().map(SendResult::getOffsetMsgId).collect(Collectors.toList())));
+        setMessageQueue(first.getMessageQueue());
+        setQueueOffset(first.getQueueOffset());
+        setRegionId(first.getRegionId());
+        setTraceOn(first.isTraceOn());
+    }
+
+    /**
+     * @param messageIndex index of the message in the sent list
+     * @return index of the sub-batch the message was sent with
+     */
+    public int getBatchIndex(int messageIndex) {
+        return this.batchIndexes[messageIndex];
+    }
+
+    /**
+     * @param messageIndex index of the message in the sent list
+     * @return result of the sub-batch the message was sent with
+     */
+    public SendResult getSendResult(int messageIndex) {
+        return this.sendResults.get(this.batchIndexes[messageIndex]);
+    }
+
+    private static String join(List<String> ids) {
+        return ids.contains(null) ? null : String.join(",", ids);
+    }
+}
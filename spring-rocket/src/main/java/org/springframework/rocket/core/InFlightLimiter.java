@@ -0,0 +1,112 @@
+package org.springframework.rocket.core;
+
+import org.springframework.rocket.RocketException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of messages and bytes of asynchronous sends that have been handed to
+ * the producer but not yet completed. A single request larger than the byte limit is
+ * still admitted when nothing else is in flight, so it can never wait forever.
+ */
+final class InFlightLimiter {
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final BackpressureMode mode;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private volatile int inFlightMessages;
+    private volatile long inFlightBytes;
+    private final LongAdder shedMessages = new LongAdder();
+
+    InFlightLimiter(int maxMessages, long maxBytes, BackpressureMode mode) {
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.mode = mode;
+    }
+
+    /**
+     * Reserve room for a send.
+     * @param messages the number of messages sent
+     * @param bytes the size of the message bodies sent
+     * @param timeoutMillis how long {@link BackpressureMode#BLOCK} may wait
+     * @return {@code false} if the send was shed, {@code true} if it may proceed
+     * @throws RocketException if the limit is reached in {@link BackpressureMode#FAIL_FAST} mode,
+     * or no room was released within the timeout in {@link BackpressureMode#BLOCK} mode
+     */
+    boolean acquire(int messages, long bytes, long timeoutMillis) {
+        this.lock.lock();
+        try {
+            if (!hasRoom(messages, bytes)) {
+                switch (this.mode) {
+                    case SHED -> {
+                        this.shedMessages.add(messages);
+                        return false;
+                    }
+                    case FAIL_FAST -> throw new RocketException(exceededMessage());
+                    default -> awaitRoom(messages, bytes, timeoutMillis);
+                }
+            }
+            this.inFlightMessages += messages;
+            this.inFlightBytes += bytes;
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void release(int messages, long bytes) {
+        this.lock.lock();
+        try {
+            this.inFlightMessages -= messages;
+            this.inFlightBytes -= bytes;
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    int getInFlightMessages() {
+        return this.inFlightMessages;
+    }
+
+    long getInFlightBytes() {
+        return this.inFlightBytes;
+    }
+
+    long getShedMessages() {
+        return this.shedMessages.sum();
+    }
+
+    private boolean hasRoom(int messages, long bytes) {
+        if (this.inFlightMessages == 0) {
+            return true;
+        }
+        return messages <= this.maxMessages - this.inFlightMessages && bytes <= this.maxBytes - this.inFlightBytes;
+    }
+
+    private void awaitRoom(int messages, long bytes, long timeoutMillis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            while (!hasRoom(messages, bytes)) {
+                if (nanos <= 0) {
+                    throw new RocketException(exceededMessage() + ", no room released within " + timeoutMillis + "ms");
+                }
+                nanos = this.released.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RocketException("interrupted while waiting for in-flight sends", e);
+        }
+    }
+
+    private String exceededMessage() {
+        return String.format("in-flight limit reached: %d messages/%d bytes in flight, max %d messages/%d bytes",
+                this.inFlightMessages, this.inFlightBytes, this.maxMessages, this.maxBytes);
+    }
+}
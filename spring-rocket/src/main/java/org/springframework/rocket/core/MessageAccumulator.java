@@ -0,0 +1,343 @@
+package org.springframework.rocket.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.MessageQueueSelector;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects single messages per target {@link MessageQueue} and sends them as one batch once
+ * {@code batchMaxMessages} or {@code batchMaxBytes} is reached, or {@code lingerMillis} after
+ * the first message of the batch arrived. Every message keeps its own {@link SendCallback},
+ * which is completed with its share of the batch {@link SendResult}.
+ * <p>
+ * Messages with a sharding key go to the queue picked by the selector. Other messages stick to
+ * one queue per topic until that queue's batch is closed, then the next queue is used.
+ * At most one batch per queue is in flight, so messages sent to the same queue keep their order.
+ * <p>
+ * {@code batchMaxBytes} and the producer's max message size bound the estimated encoded size of a
+ * batch, a message that does not fit in an empty batch is not {@link #accepts(Message) accepted}.
+ */
+@Slf4j
+final class MessageAccumulator {
+
+    private final ProducerPool producers;
+    private final Function<String, List<MessageQueue>> queueResolver;
+    private final MessageQueueSelector messageQueueSelector;
+    private final int batchMaxMessages;
+    private final long batchMaxBytes;
+    private final long lingerMillis;
+    private volatile boolean closed;
+
+    private final Map<MessageQueue, QueueBuffer> buffers = new ConcurrentHashMap<>();
+    private final Map<String, MessageQueue> stickyQueues = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> stickyIndexes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lingerScheduler;
+
+    MessageAccumulator(ProducerPool producers, Function<String, List<MessageQueue>> queueResolver, MessageQueueSelector messageQueueSelector,
+                       int batchMaxMessages, long batchMaxBytes, long maxMessageSize, long lingerMillis) {
+        this.producers = producers;
+        this.queueResolver = queueResolver;
+        this.messageQueueSelector = messageQueueSelector;
+        this.batchMaxMessages = batchMaxMessages;
+        this.batchMaxBytes = Math.min(batchMaxBytes, maxMessageSize);
+        this.lingerMillis = lingerMillis;
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rocket-template-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether the message may be sent as part of a batch. The broker rejects delayed
+     * messages in a batch, all messages of a batch must share {@code waitStoreMsgOK}, and
+     * a message too large for a batch on its own would make the batch fail.
+     */
+    boolean accepts(Message message) {
+        if (!message.isWaitStoreMsgOK() || MessageBatchSplitter.estimateSize(message) > this.batchMaxBytes) {
+            return false;
+        }
+        return !StringUtils.hasText(message.getProperty(MessageConst.PROPERTY_DELAY_TIME_LEVEL))
+                && !StringUtils.hasText(message.getProperty(MessageConst.PROPERTY_TIMER_DELIVER_MS))
+                && !StringUtils.hasText(message.getProperty(MessageConst.PROPERTY_TIMER_DELAY_MS))
+                && !StringUtils.hasText(message.getProperty(MessageConst.PROPERTY_TIMER_DELAY_SEC));
+    }
+
+    /**
+     * @throws RocketException if the accumulator is closed
+     */
+    void append(Message message, Object shardingKey, SendCallback callback, long timeoutMillis) {
+        boolean sticky = ObjectUtils.isEmpty(shardingKey);
+        MessageQueue messageQueue = sticky ? stickyQueue(message.getTopic())
+                : this.messageQueueSelector.select(this.queueResolver.apply(message.getTopic()), message, shardingKey);
+        QueueBuffer buffer = this.buffers.computeIfAbsent(messageQueue, key -> new QueueBuffer());
+        long size = MessageBatchSplitter.estimateSize(message);
+
+        Batch lingering = null;
+        Batch toSend;
+        synchronized (buffer) {
+            // close() flushes every buffer under its lock once closed is set, so nothing is left behind
+            if (this.closed) {
+                throw new RocketException("message accumulator of rocket template is closed");
+            }
+            if (buffer.open != null && buffer.open.bytes + size > this.batchMaxBytes) {
+                close(buffer);
+            }
+            boolean created = buffer.open == null;
+            if (created) {
+                buffer.open = new Batch(message.getTopic(), messageQueue, timeoutMillis);
+            }
+            buffer.open.add(message, size, callback, sticky);
+            if (buffer.open.isFull()) {
+                close(buffer);
+            } else if (created) {
+                lingering = buffer.open;
+            }
+            toSend = buffer.next();
+        }
+        if (lingering != null) {
+            Batch batch = lingering;
+            try {
+                this.lingerScheduler.schedule(() -> expire(buffer, batch), this.lingerMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed meanwhile, the close flushed the batch
+            }
+        }
+        if (toSend != null) {
+            send(buffer, toSend);
+        }
+    }
+
+    /**
+     * Close every open batch and send it without waiting for the linger time.
+     */
+    void flush() {
+        this.buffers.values().forEach(buffer -> {
+            Batch toSend;
+            synchronized (buffer) {
+                if (buffer.open != null) {
+                    close(buffer);
+                }
+                toSend = buffer.next();
+            }
+            if (toSend != null) {
+                send(buffer, toSend);
+            }
+        });
+    }
+
+    /**
+     * Reject further messages, flush and wait, at most for the given time, until every batch has been sent.
+     */
+    void close(long timeoutMillis) {
+        this.closed = true;
+        flush();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (!isIdle() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.lingerScheduler.shutdownNow();
+    }
+
+    private boolean isIdle() {
+        for (QueueBuffer buffer : this.buffers.values()) {
+            synchronized (buffer) {
+                if (buffer.sending || !buffer.ready.isEmpty() || buffer.open != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private MessageQueue stickyQueue(String topic) {
+        MessageQueue messageQueue = this.stickyQueues.get(topic);
+        if (messageQueue != null) {
+            return messageQueue;
+        }
+        List<MessageQueue> messageQueues = this.queueResolver.apply(topic);
+        if (ObjectUtils.isEmpty(messageQueues)) {
+            throw new RocketException("no message queue found for topic: " + topic);
+        }
+        int index = this.stickyIndexes.computeIfAbsent(topic, key -> new AtomicInteger()).getAndIncrement();
+        messageQueue = messageQueues.get(Math.floorMod(index, messageQueues.size()));
+        MessageQueue existing = this.stickyQueues.putIfAbsent(topic, messageQueue);
+        return existing != null ? existing : messageQueue;
+    }
+
+    private void expire(QueueBuffer buffer, Batch batch) {
+        Batch toSend;
+        synchronized (buffer) {
+            if (buffer.open != batch) {
+                return;
+            }
+            close(buffer);
+            toSend = buffer.next();
+        }
+        if (toSend != null) {
+            send(buffer, toSend);
+        }
+    }
+
+    /**
+     * must hold the buffer lock
+     */
+    private void close(QueueBuffer buffer) {
+        Batch batch = buffer.open;
+        buffer.open = null;
+        buffer.ready.add(batch);
+        if (batch.sticky) {
+            this.stickyQueues.remove(batch.topic, batch.messageQueue);
+        }
+    }
+
+    private void send(QueueBuffer buffer, Batch batch) {
+        SendCallback callback = new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                completed(buffer);
+                batch.complete(sendResult);
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                completed(buffer);
+                batch.fail(e);
+            }
+        };
+        try {
+            this.producers.select(batch.messageQueue).sendAsync(callback, (producer, sendCallback) -> {
+                if (batch.messages.size() == 1) {
+                    producer.send(batch.messages.get(0), batch.messageQueue, sendCallback, batch.timeoutMillis);
+                } else {
+                    producer.send(batch.messages, batch.messageQueue, sendCallback, batch.timeoutMillis);
+                }
+            });
+        } catch (Exception e) {
+            callback.onException(e);
+        }
+    }
+
+    private void completed(QueueBuffer buffer) {
+        Batch toSend;
+        synchronized (buffer) {
+            buffer.sending = false;
+            toSend = buffer.next();
+        }
+        if (toSend != null) {
+            send(buffer, toSend);
+        }
+    }
+
+    private static final class QueueBuffer {
+        private final Deque<Batch> ready = new ArrayDeque<>();
+        private Batch open;
+        private boolean sending;
+
+        /**
+         * must hold the buffer lock
+         * @return the batch to send now, if no other batch of the queue is in flight
+         */
+        private Batch next() {
+            if (this.sending || this.ready.isEmpty()) {
+                return null;
+            }
+            this.sending = true;
+            return this.ready.poll();
+        }
+    }
+
+    private final class Batch {
+        private final String topic;
+        private final MessageQueue messageQueue;
+        private final long timeoutMillis;
+        private final List<Message> messages = new ArrayList<>();
+        private final List<SendCallback> callbacks = new ArrayList<>();
+        private long bytes;
+        private boolean sticky;
+
+        private Batch(String topic, MessageQueue messageQueue, long timeoutMillis) {
+            this.topic = topic;
+            this.messageQueue = messageQueue;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        private void add(Message message, long size, SendCallback callback, boolean sticky) {
+            this.messages.add(message);
+            this.callbacks.add(callback);
+            this.bytes += size;
+            this.sticky |= sticky;
+        }
+
+        private boolean isFull() {
+            return this.messages.size() >= MessageAccumulator.this.batchMaxMessages || this.bytes >= MessageAccumulator.this.batchMaxBytes;
+        }
+
+        private void complete(SendResult sendResult) {
+            int size = this.callbacks.size();
+            if (size == 1) {
+                notify(this.callbacks.get(0), sendResult, null);
+                return;
+            }
+            String[] msgIds = split(sendResult.getMsgId(), size);
+            String[] offsetMsgIds = split(sendResult.getOffsetMsgId(), size);
+            for (int i = 0; i < size; i++) {
+                SendResult result = new SendResult(sendResult.getSendStatus(),
+                        msgIds != null ? msgIds[i] : sendResult.getMsgId(),
+                        offsetMsgIds != null ? offsetMsgIds[i] : sendResult.getOffsetMsgId(),
+                        sendResult.getMessageQueue(), sendResult.getQueueOffset() + i);
+                result.setRegionId(sendResult.getRegionId());
+                result.setTransactionId(sendResult.getTransactionId());
+                notify(this.callbacks.get(i), result, null);
+            }
+        }
+
+        private void fail(Throwable e) {
+            this.callbacks.forEach(callback -> notify(callback, null, e));
+        }
+
+        private void notify(SendCallback callback, SendResult sendResult, Throwable e) {
+            try {
+                if (e == null) {
+                    callback.onSuccess(sendResult);
+                } else {
+                    callback.onException(e);
+                }
+            } catch (Exception ex) {
+                log.warn("send callback of accumulated message failed", ex);
+            }
+        }
+
+        private String[] split(String ids, int size) {
+            if (ids == null) {
+                return null;
+            }
+            String[] split = ids.split(",");
+            return split.length == size ? split : null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.common.message.Message;
+import org.springframework.rocket.RocketException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a batch into sub-batches the broker accepts, bounded by message count and encoded size.
+ * The encoded size is estimated the way {@code MessageBatch} encodes a message: the fixed
+ * fields, the body and the properties, plus a reserve for the unique id the producer adds.
+ */
+final class MessageBatchSplitter {
+
+    /**
+     * total size, magic code, body crc, flag, body length and properties length
+     */
+    private static final int FIXED_FIELDS_SIZE = 4 + 4 + 4 + 4 + 4 + 2;
+    /**
+     * unique message id property added by the producer when the batch is sent
+     */
+    private static final int UNIQUE_ID_RESERVE = 64;
+
+    private MessageBatchSplitter() {
+    }
+
+    /**
+     * @param messages the converted messages
+     * @param indexes indexes into {@code messages} to split, in sending order
+     * @return the sub-batches, each as indexes into {@code messages}
+     */
+    static List<int[]> split(List<Message> messages, int[] indexes, int maxMessages, long maxBytes) {
+        List<int[]> batches = new ArrayList<>();
+        int from = 0;
+        long bytes = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            long size = estimateSize(messages.get(indexes[i]));
+            if (size > maxBytes) {
+                throw new RocketException("message " + indexes[i] + " of the batch exceeds the max message size " + maxBytes + ", estimated size " + size);
+            }
+            if (i > from && (i - from >= maxMessages || bytes + size > maxBytes)) {
+                batches.add(Arrays.copyOfRange(indexes, from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += size;
+        }
+        if (from < indexes.length) {
+            batches.add(Arrays.copyOfRange(indexes, from, indexes.length));
+        }
+        return batches;
+    }
+
+    static long estimateSize(Message message) {
+        long size = FIXED_FIELDS_SIZE + UNIQUE_ID_RESERVE;
+        if (message.getBody() != null) {
+            size += message.getBody().length;
+        }
+        Map<String, String> properties = message.getProperties();
+        if (properties != null) {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                // name, value, name separator and property separator, encoded as UTF-8 like the producer does
+                size += utf8Length(entry.getKey()) + utf8Length(entry.getValue()) + 2;
+            }
+        }
+        return size;
+    }
+
+    static int utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
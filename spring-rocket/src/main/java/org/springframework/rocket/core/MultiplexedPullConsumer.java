@@ -0,0 +1,342 @@
+package org.springframework.rocket.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.DefaultLitePullConsumer;
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.client.exception.MQClientException;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.remoting.protocol.NamespaceUtil;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * One pull consumer subscribed to every topic received from, instead of one consumer per
+ * topic, so client threads and broker connections do not grow with the topics.
+ * <p>
+ * A receive takes the messages buffered for its topic and tag. When there are none, one of the
+ * receiving threads polls for all topics and files the messages into the buffer of each matching
+ * subscription, while the others wait on their buffers. A topic subscribed with several tags is
+ * subscribed once with all of them. The queues of a topic whose buffer holds {@code bufferCapacity}
+ * messages are paused until half of them are received, queues assigned by a rebalance meanwhile
+ * are paused too.
+ * <p>
+ * A subscription nobody received from for {@code idleMillis} while another subscription of its topic
+ * is received from is dropped together with the messages it buffered, so it neither keeps the topic
+ * paused nor holds back the offsets of the other subscriptions. A later receive subscribes it again.
+ * <p>
+ * The consumer does not commit on its own: the offset of a queue moves past a message once every
+ * buffer it was filed into handed it to a receive, and past all the earlier messages of the queue.
+ * Messages still buffered on shutdown are received again.
+ */
+@Slf4j
+final class MultiplexedPullConsumer {
+
+    private static final long WAIT_SLICE_MILLIS = 50;
+
+    private final LitePullConsumer consumer;
+    private final int bufferCapacity;
+    private final int receiveBatchSize;
+    private final long idleNanos;
+    private final Map<TopicTag, BlockingQueue<MessageExt>> buffers = new ConcurrentHashMap<>();
+    private final Map<String, Set<TopicTag>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<TopicTag, Long> lastReceiveNanos = new ConcurrentHashMap<>();
+    private final Set<String> pausedTopics = ConcurrentHashMap.newKeySet();
+    private final Map<MessageQueue, QueueOffsets> queueOffsets = new ConcurrentHashMap<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    /**
+     * @param consumer the consumer with auto commit off, started on the first subscription
+     * @param idleMillis time after which a subscription nobody receives from is dropped
+     */
+    MultiplexedPullConsumer(LitePullConsumer consumer, int bufferCapacity, long idleMillis) {
+        this.consumer = consumer;
+        this.bufferCapacity = bufferCapacity;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.receiveBatchSize = consumer instanceof DefaultLitePullConsumer defaultConsumer ? defaultConsumer.getPullBatchSize() : 10;
+    }
+
+    synchronized void subscribe(TopicTag topicTag) {
+        if (this.buffers.containsKey(topicTag)) {
+            return;
+        }
+        Set<TopicTag> topicTags = new LinkedHashSet<>(this.subscriptions.getOrDefault(topicTag.topic(), Set.of()));
+        topicTags.add(topicTag);
+        try {
+            this.consumer.subscribe(topicTag.topic(), subExpression(topicTags), this::pauseOnRebalance);
+            if (!this.consumer.isRunning()) {
+                this.consumer.start();
+            }
+        } catch (MQClientException e) {
+            throw new RocketException(e.getErrorMessage(), e);
+        }
+        this.lastReceiveNanos.put(topicTag, System.nanoTime());
+        // the buffer goes first, a poll meanwhile files into every subscription of the topic
+        this.buffers.put(topicTag, new LinkedBlockingQueue<>());
+        this.subscriptions.put(topicTag.topic(), Set.copyOf(topicTags));
+    }
+
+    List<MessageExt> receive(TopicTag topicTag, long timeoutMillis) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        BlockingQueue<MessageExt> buffer = buffer(topicTag);
+        try {
+            while (true) {
+                List<MessageExt> messages = drain(topicTag, buffer);
+                if (!messages.isEmpty()) {
+                    return messages;
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return messages;
+                }
+                if (this.pollLock.tryLock()) {
+                    try {
+                        if (buffer.isEmpty()) {
+                            dispatch(this.consumer.poll(remainingMillis));
+                            this.lastReceiveNanos.put(topicTag, System.nanoTime());
+                            dropIdleSubscriptions();
+                        }
+                    } finally {
+                        this.pollLock.unlock();
+                    }
+                } else {
+                    MessageExt message = buffer.poll(Math.min(remainingMillis, WAIT_SLICE_MILLIS), TimeUnit.MILLISECONDS);
+                    if (message != null) {
+                        List<MessageExt> received = new ArrayList<>();
+                        received.add(message);
+                        received.addAll(drain(topicTag, buffer));
+                        return received;
+                    }
+                }
+                buffer = buffer(topicTag);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return drain(topicTag, buffer);
+        }
+    }
+
+    void shutdown() {
+        this.consumer.shutdown();
+        this.buffers.clear();
+        this.subscriptions.clear();
+        this.lastReceiveNanos.clear();
+        this.queueOffsets.clear();
+    }
+
+    /**
+     * Record a receive of the subscription and return its buffer, subscribing again if it was dropped.
+     */
+    private BlockingQueue<MessageExt> buffer(TopicTag topicTag) {
+        this.lastReceiveNanos.put(topicTag, System.nanoTime());
+        BlockingQueue<MessageExt> buffer = this.buffers.get(topicTag);
+        if (buffer == null) {
+            subscribe(topicTag);
+            buffer = this.buffers.get(topicTag);
+        }
+        return buffer;
+    }
+
+    private List<MessageExt> drain(TopicTag topicTag, BlockingQueue<MessageExt> buffer) {
+        List<MessageExt> messages = new ArrayList<>();
+        buffer.drainTo(messages, this.receiveBatchSize);
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        commit(messages);
+        if (this.pausedTopics.contains(topicTag.topic())) {
+            resumeIfDrained(topicTag.topic());
+        }
+        return messages;
+    }
+
+    private void dispatch(List<MessageExt> messages) {
+        for (MessageExt message : messages) {
+            int filed = 0;
+            for (TopicTag topicTag : this.subscriptions.getOrDefault(message.getTopic(), Set.of())) {
+                if (matches(topicTag, message)) {
+                    BlockingQueue<MessageExt> buffer = this.buffers.get(topicTag);
+                    buffer.add(message);
+                    filed++;
+                    if (buffer.size() >= this.bufferCapacity) {
+                        pause(message.getTopic());
+                    }
+                }
+            }
+            this.queueOffsets.computeIfAbsent(messageQueue(message), key -> new QueueOffsets()).dispatched(message.getQueueOffset(), filed);
+        }
+    }
+
+    /**
+     * Drop the subscriptions nobody received from for the idle time while another subscription of
+     * the topic is received from, and commit what they buffered as if it was received.
+     */
+    private synchronized void dropIdleSubscriptions() {
+        long nowNanos = System.nanoTime();
+        for (Map.Entry<String, Set<TopicTag>> entry : this.subscriptions.entrySet()) {
+            Set<TopicTag> idle = entry.getValue().stream()
+                    .filter(topicTag -> nowNanos - this.lastReceiveNanos.getOrDefault(topicTag, nowNanos) > this.idleNanos)
+                    .collect(Collectors.toSet());
+            if (idle.isEmpty() || idle.size() == entry.getValue().size()) {
+                continue;
+            }
+            String topic = entry.getKey();
+            Set<TopicTag> topicTags = new LinkedHashSet<>(entry.getValue());
+            topicTags.removeAll(idle);
+            try {
+                this.consumer.subscribe(topic, subExpression(topicTags), this::pauseOnRebalance);
+            } catch (MQClientException e) {
+                log.warn("drop idle subscriptions {} failed", idle, e);
+                continue;
+            }
+            this.subscriptions.put(topic, Set.copyOf(topicTags));
+            List<MessageExt> dropped = new ArrayList<>();
+            for (TopicTag topicTag : idle) {
+                this.buffers.remove(topicTag).drainTo(dropped);
+                this.lastReceiveNanos.remove(topicTag);
+            }
+            log.warn("dropped subscriptions {} nobody received from, with {} buffered messages", idle, dropped.size());
+            if (!dropped.isEmpty()) {
+                commit(dropped);
+            }
+            if (this.pausedTopics.contains(topic)) {
+                resumeIfDrained(topic);
+            }
+        }
+    }
+
+    /**
+     * Commit the queues of the messages handed to a receive as far as no earlier message is buffered.
+     */
+    private void commit(List<MessageExt> messages) {
+        Map<MessageQueue, Long> offsets = new HashMap<>();
+        for (MessageExt message : messages) {
+            MessageQueue messageQueue = messageQueue(message);
+            QueueOffsets queueOffsets = this.queueOffsets.get(messageQueue);
+            if (queueOffsets != null) {
+                queueOffsets.received(message.getQueueOffset());
+                offsets.put(messageQueue, queueOffsets.committable());
+            }
+        }
+        try {
+            Map<MessageQueue, Long> assignedOffsets = new HashMap<>();
+            // polled messages carry the topic without namespace, commit the queue as assigned
+            for (MessageQueue assigned : this.consumer.assignment()) {
+                Long offset = offsets.get(new MessageQueue(NamespaceUtil.withoutNamespace(assigned.getTopic()), assigned.getBrokerName(), assigned.getQueueId()));
+                if (offset != null) {
+                    assignedOffsets.put(assigned, offset);
+                }
+            }
+            // the client persists the committed offsets on its own schedule and on shutdown
+            this.consumer.commit(assignedOffsets, false);
+        } catch (Exception e) {
+            log.warn("commit of the received messages failed", e);
+        }
+    }
+
+    private void pause(String topic) {
+        if (!this.pausedTopics.add(topic)) {
+            return;
+        }
+        this.consumer.pause(queues(topic));
+    }
+
+    /**
+     * Keep a paused topic paused when a rebalance assigns new queues of it.
+     */
+    private void pauseOnRebalance(String topic, Set<MessageQueue> all, Set<MessageQueue> assigned) {
+        if (this.pausedTopics.contains(NamespaceUtil.withoutNamespace(topic))) {
+            this.consumer.pause(assigned);
+        }
+    }
+
+    private void resumeIfDrained(String topic) {
+        boolean drained = this.subscriptions.getOrDefault(topic, Set.of()).stream()
+                .allMatch(topicTag -> this.buffers.get(topicTag).size() <= this.bufferCapacity / 2);
+        if (drained && this.pausedTopics.remove(topic)) {
+            this.consumer.resume(queues(topic));
+        }
+    }
+
+    private List<MessageQueue> queues(String topic) {
+        try {
+            return this.consumer.assignment().stream()
+                    .filter(messageQueue -> topic.equals(NamespaceUtil.withoutNamespace(messageQueue.getTopic())))
+                    .toList();
+        } catch (MQClientException e) {
+            log.warn("fetch assigned queues of topic {} failed", topic, e);
+            return List.of();
+        }
+    }
+
+    private static MessageQueue messageQueue(MessageExt message) {
+        return new MessageQueue(message.getTopic(), message.getBrokerName(), message.getQueueId());
+    }
+
+    private static boolean matches(TopicTag topicTag, MessageExt message) {
+        if (isAllTags(topicTag.tag())) {
+            return true;
+        }
+        return message.getTags() != null && tags(topicTag.tag()).contains(message.getTags());
+    }
+
+    private static String subExpression(Set<TopicTag> topicTags) {
+        if (topicTags.stream().anyMatch(topicTag -> isAllTags(topicTag.tag()))) {
+            return "*";
+        }
+        return topicTags.stream()
+                .flatMap(topicTag -> tags(topicTag.tag()).stream())
+                .distinct()
+                .collect(Collectors.joining(" || "));
+    }
+
+    private static boolean isAllTags(String tag) {
+        return !StringUtils.hasText(tag) || "*".equals(tag.trim());
+    }
+
+    private static Set<String> tags(String tag) {
+        return Arrays.stream(tag.split("\\|\\|"))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Messages of a queue still buffered, by offset with the number of buffers holding them
+     */
+    private static final class QueueOffsets {
+
+        private final TreeMap<Long, Integer> buffered = new TreeMap<>();
+        private long next;
+
+        synchronized void dispatched(long offset, int buffers) {
+            if (buffers > 0) {
+                this.buffered.put(offset, buffers);
+            }
+            this.next = Math.max(this.next, offset + 1);
+        }
+
+        synchronized void received(long offset) {
+            this.buffered.computeIfPresent(offset, (key, buffers) -> buffers > 1 ? buffers - 1 : null);
+        }
+
+        synchronized long committable() {
+            return this.buffered.isEmpty() ? this.next : this.buffered.firstKey();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.springframework.rocket.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.remoting.protocol.NamespaceUtil;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.StringUtils;
+
+import java.lang.ref.Cleaner;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Source of a receive stream: a fetcher thread polls a pull consumer without auto commit into a
+ * buffer of {@code prefetch} messages while the stream processes the previous ones, and blocks
+ * while the buffer is full.
+ * <p>
+ * A message counts as processed once the stream requests the next one, or the stream ended
+ * because no message came for the idle timeout. The fetcher commits the offsets of the processed
+ * messages between polls and once more on close, so the message being processed when the
+ * stream is closed early is received again. A stream that ends closes itself, one left after a
+ * short-circuiting operation such as {@code limit()} is closed once it is garbage collected, or
+ * at once when closed explicitly.
+ */
+@Slf4j
+final class PrefetchingReceiver {
+
+    private static final long CHECK_MILLIS = 100;
+
+    /**
+     * Closes the receivers of the streams that became unreachable without being closed
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final LitePullConsumer consumer;
+    private final String namespace;
+    private final Consumer<PrefetchingReceiver> closeCallback;
+    private final BlockingQueue<MessageExt> buffer;
+    private final long pollTimeoutMillis;
+    private final Long idleTimeoutMillis;
+    private final Thread fetcher;
+    private final Map<MessageQueue, Long> processedOffsets = new ConcurrentHashMap<>();
+    private MessageExt current;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    /**
+     * @param consumer the consumer subscribed and started, with auto commit off
+     * @param namespace namespace of the consumer, added back to the queues it commits
+     * @param idleTimeoutMillis how long the stream waits for a message before it ends, never ends when null
+     * @param closeCallback called once the receiver closed
+     */
+    PrefetchingReceiver(TopicTag topicTag, LitePullConsumer consumer, String namespace, int prefetch, long pollTimeoutMillis,
+                        Long idleTimeoutMillis, Consumer<PrefetchingReceiver> closeCallback) {
+        this.consumer = consumer;
+        this.namespace = namespace;
+        this.closeCallback = closeCallback;
+        this.buffer = new ArrayBlockingQueue<>(prefetch);
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.fetcher = new Thread(this::fetch, "rocket-template-prefetch-" + topicTag);
+        this.fetcher.setDaemon(true);
+        this.fetcher.start();
+    }
+
+    /**
+     * @return the stream of the received messages, to be consumed once
+     */
+    Stream<MessageExt> stream() {
+        Source source = new Source();
+        // the action holds the receiver only, the source becomes unreachable with the stream
+        Cleaner.Cleanable cleanable = CLEANER.register(source, this::close);
+        return StreamSupport.stream(source, false).onClose(cleanable::clean);
+    }
+
+    /**
+     * Stop fetching, commit the processed messages and shut the consumer down.
+     */
+    synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.fetcher.interrupt();
+        try {
+            this.fetcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            commit();
+        } catch (Exception e) {
+            log.warn("commit of the processed messages failed on close", e);
+        }
+        this.consumer.shutdown();
+        this.buffer.clear();
+        this.closeCallback.accept(this);
+    }
+
+    private boolean tryAdvance(Consumer<? super MessageExt> action) {
+        markProcessed();
+        MessageExt next = next();
+        if (next == null) {
+            close();
+            return false;
+        }
+        this.current = next;
+        action.accept(next);
+        return true;
+    }
+
+    private MessageExt next() {
+        long deadlineNanos = this.idleTimeoutMillis != null ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.idleTimeoutMillis) : Long.MAX_VALUE;
+        try {
+            while (!this.closed) {
+                long waitMillis = this.idleTimeoutMillis != null
+                        ? Math.min(CHECK_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())) : CHECK_MILLIS;
+                MessageExt message = this.buffer.poll(Math.max(0, waitMillis), TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    return message;
+                }
+                if (this.failure != null) {
+                    throw new RocketException("fetch messages failed", this.failure);
+                }
+                if (this.idleTimeoutMillis != null && System.nanoTime() - deadlineNanos >= 0) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private void markProcessed() {
+        MessageExt processed = this.current;
+        if (processed == null) {
+            return;
+        }
+        this.current = null;
+        MessageQueue messageQueue = new MessageQueue(processed.getTopic(), processed.getBrokerName(), processed.getQueueId());
+        this.processedOffsets.merge(messageQueue, processed.getQueueOffset() + 1, Math::max);
+    }
+
+    private void fetch() {
+        try {
+            while (!this.closed) {
+                commit();
+                List<MessageExt> messages = this.consumer.poll(this.pollTimeoutMillis);
+                for (MessageExt message : messages) {
+                    while (!this.buffer.offer(message, CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (this.closed) {
+                            return;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } catch (Exception e) {
+            this.failure = e;
+        }
+    }
+
+    private void commit() {
+        if (this.processedOffsets.isEmpty()) {
+            return;
+        }
+        Map<MessageQueue, Long> offsets = new HashMap<>();
+        for (MessageQueue messageQueue : this.processedOffsets.keySet()) {
+            Long offset = this.processedOffsets.remove(messageQueue);
+            if (offset != null) {
+                // polled messages carry the topic without namespace, committing does not add it back
+                offsets.put(StringUtils.hasText(this.namespace)
+                        ? new MessageQueue(NamespaceUtil.wrapNamespace(this.namespace, messageQueue.getTopic()), messageQueue.getBrokerName(), messageQueue.getQueueId())
+                        : messageQueue, offset);
+            }
+        }
+        this.consumer.commit(offsets, true);
+    }
+
+    private class Source implements Spliterator<MessageExt> {
+
+        @Override
+        public boolean tryAdvance(Consumer<? super MessageExt> action) {
+            return PrefetchingReceiver.this.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<MessageExt> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.springframework.rocket.core;
+
+/**
+ * Counters of one producer of the {@link RocketTemplate} pool. A batch, a oneway send and a
+ * request each count as one send.
+ *
+ * @param instanceName client instance name of the producer
+ * @param inFlight sends handed to the producer and not completed yet
+ * @param sent sends completed successfully
+ * @param failed sends completed with an exception
+ */
+public record ProducerMetrics(String instanceName, int inFlight, long sent, long failed) {
+}
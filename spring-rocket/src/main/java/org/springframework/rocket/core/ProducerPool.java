@@ -0,0 +1,207 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.ClientConfig;
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.client.producer.RequestCallback;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.common.message.Message;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Producers of the same group, each on its own client instance, so sends are spread over
+ * several callback executors and broker connections instead of one.
+ * <p>
+ * Sends without a target queue take any producer as the {@link ProducerSelection} says. Sends to a
+ * given queue always take the producer the queue hashes to, as messages of one queue handed to
+ * different producers may overtake each other.
+ */
+final class ProducerPool {
+
+    private final List<Member> members;
+    private final ProducerSelection selection;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ProducerPool(List<MQProducer> producers, ProducerSelection selection) {
+        Assert.notEmpty(producers, "producers must not be empty");
+        this.members = producers.stream().map(Member::new).toList();
+        this.selection = selection;
+    }
+
+    /**
+     * the producer to fetch routes and read settings from
+     */
+    MQProducer primary() {
+        return this.members.get(0).producer;
+    }
+
+    Member select() {
+        int size = this.members.size();
+        if (size == 1) {
+            return this.members.get(0);
+        }
+        int start = Math.floorMod(this.next.getAndIncrement(), size);
+        if (this.selection == ProducerSelection.ROUND_ROBIN) {
+            return this.members.get(start);
+        }
+        Member least = this.members.get(start);
+        for (int i = 1; i < size && least.inFlight.get() > 0; i++) {
+            Member member = this.members.get((start + i) % size);
+            if (member.inFlight.get() < least.inFlight.get()) {
+                least = member;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * @param key the message queue, or the sharding key when the producer selects the queue
+     */
+    Member select(Object key) {
+        if (key == null) {
+            return select();
+        }
+        return this.members.get(Math.floorMod(key.hashCode(), this.members.size()));
+    }
+
+    List<ProducerMetrics> metrics() {
+        return this.members.stream().map(Member::metrics).toList();
+    }
+
+    void start() throws Exception {
+        for (Member member : this.members) {
+            member.producer.start();
+        }
+    }
+
+    void shutdown() {
+        this.members.forEach(member -> member.producer.shutdown());
+    }
+
+    static final class Member {
+        private final MQProducer producer;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        private Member(MQProducer producer) {
+            this.producer = producer;
+        }
+
+        <T> T send(Send<T> send) throws Exception {
+            this.inFlight.incrementAndGet();
+            try {
+                T result = send.send(this.producer);
+                this.sent.increment();
+                return result;
+            } catch (Exception e) {
+                this.failed.increment();
+                throw e;
+            } finally {
+                this.inFlight.decrementAndGet();
+            }
+        }
+
+        void sendAsync(SendCallback callback, AsyncSend send) throws Exception {
+            Completion completion = new Completion();
+            SendCallback tracking = new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    completion.succeeded();
+                    callback.onSuccess(sendResult);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    completion.failed();
+                    callback.onException(e);
+                }
+            };
+            try {
+                send.send(this.producer, tracking);
+            } catch (Exception e) {
+                completion.failed();
+                throw e;
+            }
+        }
+
+        void requestAsync(RequestCallback callback, AsyncRequest request) throws Exception {
+            Completion completion = new Completion();
+            RequestCallback tracking = new RequestCallback() {
+                @Override
+                public void onSuccess(Message message) {
+                    completion.succeeded();
+                    callback.onSuccess(message);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    completion.failed();
+                    callback.onException(e);
+                }
+            };
+            try {
+                request.request(this.producer, tracking);
+            } catch (Exception e) {
+                completion.failed();
+                throw e;
+            }
+        }
+
+        private ProducerMetrics metrics() {
+            String instanceName = this.producer instanceof ClientConfig clientConfig ? clientConfig.getInstanceName() : null;
+            return new ProducerMetrics(instanceName, this.inFlight.get(), this.sent.sum(), this.failed.sum());
+        }
+
+        /**
+         * An async send in flight, counted once however often the client completes it
+         */
+        private final class Completion {
+            private final AtomicBoolean completed = new AtomicBoolean();
+
+            private Completion() {
+                Member.this.inFlight.incrementAndGet();
+            }
+
+            void succeeded() {
+                if (complete()) {
+                    Member.this.sent.increment();
+                }
+            }
+
+            void failed() {
+                if (complete()) {
+                    Member.this.failed.increment();
+                }
+            }
+
+            private boolean complete() {
+                if (!this.completed.compareAndSet(false, true)) {
+                    return false;
+                }
+                Member.this.inFlight.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Send<T> {
+        T send(MQProducer producer) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface AsyncSend {
+        void send(MQProducer producer, SendCallback callback) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface AsyncRequest {
+        void request(MQProducer producer, RequestCallback callback) throws Exception;
+    }
+}
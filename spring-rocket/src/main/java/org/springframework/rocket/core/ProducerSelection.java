@@ -0,0 +1,12 @@
+package org.springframework.rocket.core;
+
+public enum ProducerSelection {
+    /**
+     * take the producers of the pool in turn
+     */
+    ROUND_ROBIN,
+    /**
+     * take the producer with the fewest sends not completed yet
+     */
+    LEAST_IN_FLIGHT
+}
@@ -0,0 +1,88 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.springframework.rocket.RocketException;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Polls for a topic on its own thread for asynchronous receives, so the caller
+ * is not parked for the poll timeout.
+ * <p>
+ * Receives are served in order, each polling for what is left of its timeout, and complete
+ * with an empty list when it ran out while waiting for earlier ones. The futures complete on the
+ * poller thread, so their callbacks should not block.
+ */
+final class PullPoller {
+
+    private final LongFunction<List<MessageExt>> receiver;
+    private final BlockingQueue<Receive> receives = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param receiver receives the messages of the topic within the given millis
+     */
+    PullPoller(TopicTag topicTag, LongFunction<List<MessageExt>> receiver) {
+        this.receiver = receiver;
+        this.thread = new Thread(this::run, "rocket-template-poller-" + topicTag);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    CompletableFuture<List<MessageExt>> poll(long timeoutMillis) {
+        Receive receive = new Receive(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        this.receives.add(receive);
+        if (this.closed) {
+            failPending();
+        }
+        return receive.future;
+    }
+
+    void close() {
+        this.closed = true;
+        this.thread.interrupt();
+        failPending();
+    }
+
+    private void run() {
+        while (!this.closed) {
+            Receive receive;
+            try {
+                receive = this.receives.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(receive.deadlineNanos - System.nanoTime());
+            if (remainingMillis <= 0) {
+                receive.future.complete(List.of());
+                continue;
+            }
+            try {
+                receive.future.complete(this.receiver.apply(remainingMillis));
+            } catch (Exception e) {
+                receive.future.completeExceptionally(e);
+            }
+        }
+        failPending();
+    }
+
+    private void failPending() {
+        Receive receive;
+        while ((receive = this.receives.poll()) != null) {
+            receive.future.completeExceptionally(new RocketException("poller closed"));
+        }
+    }
+
+    private record Receive(long deadlineNanos, CompletableFuture<List<MessageExt>> future) {
+
+        private Receive(long deadlineNanos) {
+            this(deadlineNanos, new CompletableFuture<>());
+        }
+    }
+}
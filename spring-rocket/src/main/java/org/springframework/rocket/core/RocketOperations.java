@@ -5,6 +5,7 @@ import org.springframework.messaging.Message;
 
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 public interface RocketOperations {
@@ -30,6 +31,15 @@ public interface RocketOperations {
     <T extends Message<?>> SendResult sendBatch(String topic, List<T> messages, Long timeoutMillis);
 
 
+    /**
+     * async send spring message, the returned future completes with the send result
+     */
+    default CompletableFuture<SendResult> sendAsync(String topic, Message<?> message) {
+        return sendAsync(topic, message, (Long) null);
+    }
+    CompletableFuture<SendResult> sendAsync(String topic, Message<?> message, Long timeoutMillis);
+
+
     /**
      * async send spring message
      */
@@ -39,6 +49,15 @@ public interface RocketOperations {
     void sendAsync(String topic, Message<?> message, Long timeoutMillis, BiConsumer<SendResult, Throwable> sendConsumer);
 
 
+    /**
+     * batch async send spring messages, the returned future completes with the send result
+     */
+    default <T extends Message<?>> CompletableFuture<SendResult> sendBatchAsync(String topic, List<T> messages) {
+        return sendBatchAsync(topic, messages, (Long) null);
+    }
+    <T extends Message<?>> CompletableFuture<SendResult> sendBatchAsync(String topic, List<T> messages, Long timeoutMillis);
+
+
     /**
      * batch async send spring messages
      */
@@ -1,10 +1,12 @@
 package org.springframework.rocket.core;
 
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import org.apache.rocketmq.client.consumer.LitePullConsumer;
 import org.apache.rocketmq.client.exception.MQClientException;
+import org.apache.rocketmq.client.producer.DefaultMQProducer;
 import org.apache.rocketmq.client.producer.MQProducer;
 import org.apache.rocketmq.client.producer.MessageQueueSelector;
 import org.apache.rocketmq.client.producer.RequestCallback;
@@ -25,8 +27,10 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.rocket.RocketException;
 import org.springframework.rocket.client.ProducerProperties;
+import org.springframework.rocket.client.PullConsumerProperties;
 import org.springframework.rocket.client.RocketProducerFactory;
 import org.springframework.rocket.client.RocketPullConsumerFactory;
+import org.springframework.rocket.support.PropertiesUtils;
 import org.springframework.rocket.support.RocketHeaderUtils;
 import org.springframework.rocket.support.RocketHeaders;
 import org.springframework.rocket.support.RocketTransactionUtils;
@@ -35,36 +39,99 @@ import org.springframework.rocket.support.converter.MessagingMessageConverter;
 import org.springframework.rocket.transaction.RocketTransactionListener;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Setter
 public class RocketTemplate implements RocketOperations, RocketTransactionOperations, RocketReceivingOperations,
         ApplicationContextAware, SmartInitializingSingleton, InitializingBean, DisposableBean {
 
+    private static final int DEFAULT_BATCH_MAX_MESSAGES = 128;
+    private static final long DEFAULT_BATCH_MAX_BYTES = 32 * 1024;
+    private static final long DEFAULT_MAX_MESSAGE_SIZE = 4 * 1024 * 1024;
+    private static final long DEFAULT_ROUTE_REFRESH_MILLIS = 30 * 1000;
+    private static final int DEFAULT_PULL_BUFFER_CAPACITY = 1024;
+    private static final long DEFAULT_PULL_BUFFER_IDLE_MILLIS = 60 * 1000;
+
     protected MessagingMessageConverter messageConverter = new DefaultMessagingMessageConverter();
     protected MessageQueueSelector messageQueueSelector = new SelectMessageQueueByHash();
 
     private final RocketProducerFactory producerFactory;
-    private MQProducer producer;
+    @Setter(AccessLevel.NONE)
+    private ProducerPool producerPool;
+    private ProducerSelection producerSelection = ProducerSelection.ROUND_ROBIN;
     private Long sendTimeoutMillis = DEFAULT_SEND_TIMEOUT_MILLIS;
+    private Integer maxInFlightMessages;
+    private Long maxInFlightBytes;
+    private BackpressureMode backpressureMode = BackpressureMode.BLOCK;
+    @Setter(AccessLevel.NONE)
+    private InFlightLimiter inFlightLimiter;
+    /**
+     * Hands sub-batches chained after another one of their queue to the producer, as a
+     * {@link BackpressureMode#BLOCK blocking} in-flight limit must not wait on the send callback thread
+     */
+    @Setter(AccessLevel.NONE)
+    private ExecutorService chainedSendExecutor;
+    private Long lingerMillis;
+    private Integer batchMaxMessages = DEFAULT_BATCH_MAX_MESSAGES;
+    private Integer splitBatchMaxMessages;
+    private Long batchMaxBytes = DEFAULT_BATCH_MAX_BYTES;
+    @Setter(AccessLevel.NONE)
+    private MessageAccumulator accumulator;
+    private Long routeRefreshMillis = DEFAULT_ROUTE_REFRESH_MILLIS;
+    @Setter(AccessLevel.NONE)
+    private TopicRouteCache routeCache;
 
     private final Map<String, MQProducer> transactionalProducers = new ConcurrentHashMap<>();
     private ExecutorService transactionExecutor;
+    /**
+     * Register topics without producer properties on one transactional producer instead of a producer per topic
+     */
+    private boolean sharedTransactionalProducer;
+    @Setter(AccessLevel.NONE)
+    private volatile TransactionMQProducer routingTransactionProducer;
+    private final TopicRoutingTransactionListener transactionListenerRouter = new TopicRoutingTransactionListener();
 
     private RocketPullConsumerFactory pullConsumerFactory;
     private final Map<String, LitePullConsumer> pullConsumers = new ConcurrentHashMap<>();
+    private final Map<String, PullPoller> pullPollers = new ConcurrentHashMap<>();
+    /**
+     * Receivers of the open streams by group, reserved with an empty reference while the consumer starts
+     */
+    private final Map<String, AtomicReference<PrefetchingReceiver>> prefetchingReceivers = new ConcurrentHashMap<>();
+    /**
+     * Receive all topics through one pull consumer of the factory's group instead of a consumer per topic,
+     * which commits only the messages handed to a receive
+     */
+    private boolean sharedPullConsumer;
+    private int pullBufferCapacity = DEFAULT_PULL_BUFFER_CAPACITY;
+    private long pullBufferIdleMillis = DEFAULT_PULL_BUFFER_IDLE_MILLIS;
+    @Setter(AccessLevel.NONE)
+    private volatile MultiplexedPullConsumer multiplexedPullConsumer;
     private Long pollTimeoutMillis = DEFAULT_POLL_TIMEOUT_MILLIS;
 
     /**
@@ -85,6 +152,142 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         return timeoutMillis != null && timeoutMillis > 0 ? timeoutMillis : this.sendTimeoutMillis;
     }
 
+    /**
+     * How sends without a sharding key pick a producer when the pool holds more than one.
+     */
+    public void setProducerSelection(ProducerSelection producerSelection) {
+        Assert.notNull(producerSelection, "producer selection must not be null");
+        this.producerSelection = producerSelection;
+    }
+
+    public void setMaxInFlightMessages(Integer maxInFlightMessages) {
+        Assert.isTrue(maxInFlightMessages == null || maxInFlightMessages > 0, "max in-flight messages must be positive number");
+        this.maxInFlightMessages = maxInFlightMessages;
+    }
+
+    public void setMaxInFlightBytes(Long maxInFlightBytes) {
+        Assert.isTrue(maxInFlightBytes == null || maxInFlightBytes > 0, "max in-flight bytes must be positive number");
+        this.maxInFlightBytes = maxInFlightBytes;
+    }
+
+    public void setBackpressureMode(BackpressureMode backpressureMode) {
+        Assert.notNull(backpressureMode, "backpressure mode must not be null");
+        this.backpressureMode = backpressureMode;
+    }
+
+    /**
+     * Enable the accumulator: single messages sent by {@code send} and {@code sendAsync} wait up to
+     * this long to be sent together with other messages for the same queue. {@code null} or 0 disables it.
+     * <p>
+     * A linger batch is sent to the queue it was collected for, so like a send with a sharding key
+     * it is not retried on another broker when that queue's broker fails. The failure reaches
+     * every message of the batch and the topic's route is fetched again on its next send.
+     */
+    public void setLingerMillis(Long lingerMillis) {
+        Assert.isTrue(lingerMillis == null || lingerMillis >= 0, "linger must not be negative number");
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * Maximum number of messages of a linger batch.
+     */
+    public void setBatchMaxMessages(Integer batchMaxMessages) {
+        Assert.isTrue(batchMaxMessages != null && batchMaxMessages > 0, "batch max messages must be positive number");
+        this.batchMaxMessages = batchMaxMessages;
+    }
+
+    /**
+     * Maximum number of messages of a sub-batch when {@code sendBatch} splits a list. A list is
+     * only split by size, when it exceeds the producer's max message size, when not set.
+     * <p>
+     * A list sent in one piece is stored atomically and in order. Once split, its sub-batches are
+     * sent in parallel and stored independently, see {@link BatchSendException}.
+     */
+    public void setSplitBatchMaxMessages(Integer splitBatchMaxMessages) {
+        Assert.isTrue(splitBatchMaxMessages == null || splitBatchMaxMessages > 0, "split batch max messages must be positive number");
+        this.splitBatchMaxMessages = splitBatchMaxMessages;
+    }
+
+    /**
+     * Maximum estimated encoded size of a linger batch, at most the producer's max message size.
+     * Larger messages are sent on their own.
+     */
+    public void setBatchMaxBytes(Long batchMaxBytes) {
+        Assert.isTrue(batchMaxBytes != null && batchMaxBytes > 0, "batch max bytes must be positive number");
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    /**
+     * Interval to refresh the cached publish queues of the topics sent to with a sharding key.
+     * <p>
+     * A message with a sharding key is sent to the queue the {@link #messageQueueSelector} picks
+     * from these queues. The producer does not retry a send to a given queue on another broker,
+     * a synchronous one is not retried at all, so a broker failure fails the send and drops the
+     * topic's cached queues instead.
+     */
+    public void setRouteRefreshMillis(Long routeRefreshMillis) {
+        Assert.isTrue(routeRefreshMillis != null && routeRefreshMillis > 0, "route refresh interval must be positive number");
+        this.routeRefreshMillis = routeRefreshMillis;
+    }
+
+    /**
+     * number of messages sent asynchronously and not completed yet, only tracked when an in-flight limit is set
+     */
+    public int getInFlightMessages() {
+        return this.inFlightLimiter != null ? this.inFlightLimiter.getInFlightMessages() : 0;
+    }
+
+    /**
+     * body bytes sent asynchronously and not completed yet, only tracked when an in-flight limit is set
+     */
+    public long getInFlightBytes() {
+        return this.inFlightLimiter != null ? this.inFlightLimiter.getInFlightBytes() : 0;
+    }
+
+    /**
+     * number of messages dropped in {@link BackpressureMode#SHED} mode
+     */
+    public long getShedMessages() {
+        return this.inFlightLimiter != null ? this.inFlightLimiter.getShedMessages() : 0;
+    }
+
+    /**
+     * Send through the given producer alone instead of the producers of the factory, the template
+     * shuts it down on destroy. Set after the template was initialized, the route cache and the
+     * accumulator keep the producers they had.
+     * @param producer the producer, started
+     * @deprecated set the {@link ProducerProperties#POOL_SIZE pool size} of the producer factory instead
+     */
+    @Deprecated
+    public void setProducer(MQProducer producer) {
+        Assert.notNull(producer, "producer must not be null");
+        this.producerPool = new ProducerPool(List.of(producer), this.producerSelection);
+    }
+
+    /**
+     * counters of every producer of the pool, empty before the template is initialized
+     */
+    public List<ProducerMetrics> getProducerMetrics() {
+        return this.producerPool != null ? this.producerPool.metrics() : List.of();
+    }
+
+    /**
+     * Number of messages the shared pull consumer buffers per topic before it pauses the topic.
+     */
+    public void setPullBufferCapacity(int pullBufferCapacity) {
+        Assert.isTrue(pullBufferCapacity > 0, "pull buffer capacity must be positive number");
+        this.pullBufferCapacity = pullBufferCapacity;
+    }
+
+    /**
+     * Time after which the shared pull consumer drops the buffer of a topic and tag nobody receives
+     * from, while other tags of the topic are received from.
+     */
+    public void setPullBufferIdleMillis(long pullBufferIdleMillis) {
+        Assert.isTrue(pullBufferIdleMillis > 0, "pull buffer idle time must be positive number");
+        this.pullBufferIdleMillis = pullBufferIdleMillis;
+    }
+
     public void setPollTimeoutMillis(Long pollTimeoutMillis) {
         Assert.isTrue(pollTimeoutMillis != null && pollTimeoutMillis > 0, "poll timeout must be positive number");
         this.pollTimeoutMillis = pollTimeoutMillis;
@@ -117,13 +320,35 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
 
     @Override
     public void destroy() {
-        if (this.producer != null) {
-            this.producer.shutdown();
+        if (this.accumulator != null) {
+            this.accumulator.close(this.sendTimeoutMillis);
+        }
+        if (this.routeCache != null) {
+            this.routeCache.close();
+        }
+        if (this.chainedSendExecutor != null) {
+            this.chainedSendExecutor.shutdown();
+        }
+        if (this.producerPool != null) {
+            this.producerPool.shutdown();
         }
         if (!ObjectUtils.isEmpty(this.transactionalProducers)) {
-            this.transactionalProducers.values().forEach(MQProducer::shutdown);
+            this.transactionalProducers.values().stream().distinct().forEach(MQProducer::shutdown);
             this.transactionalProducers.clear();
         }
+        this.routingTransactionProducer = null;
+        if (!ObjectUtils.isEmpty(this.prefetchingReceivers)) {
+            this.prefetchingReceivers.values().stream().map(AtomicReference::get).filter(Objects::nonNull).forEach(PrefetchingReceiver::close);
+            this.prefetchingReceivers.clear();
+        }
+        if (!ObjectUtils.isEmpty(this.pullPollers)) {
+            this.pullPollers.values().forEach(PullPoller::close);
+            this.pullPollers.clear();
+        }
+        if (this.multiplexedPullConsumer != null) {
+            this.multiplexedPullConsumer.shutdown();
+            this.multiplexedPullConsumer = null;
+        }
         if (!ObjectUtils.isEmpty(this.pullConsumers)) {
             this.pullConsumers.values().forEach(LitePullConsumer::shutdown);
             this.pullConsumers.clear();
@@ -132,10 +357,57 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        this.producer = producerFactory.create();
-        if (this.producer != null) {
-            this.producer.start();
+        if (this.maxInFlightMessages != null || this.maxInFlightBytes != null) {
+            this.inFlightLimiter = new InFlightLimiter(
+                    this.maxInFlightMessages != null ? this.maxInFlightMessages : Integer.MAX_VALUE,
+                    this.maxInFlightBytes != null ? this.maxInFlightBytes : Long.MAX_VALUE,
+                    this.backpressureMode);
+            if (this.backpressureMode == BackpressureMode.BLOCK) {
+                this.chainedSendExecutor = Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "rocket-template-chained-send");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        if (this.producerPool == null) {
+            List<MQProducer> producers = createProducers();
+            if (!producers.isEmpty()) {
+                this.producerPool = new ProducerPool(producers, this.producerSelection);
+                this.producerPool.start();
+            }
         }
+        if (this.producerPool != null) {
+            this.routeCache = new TopicRouteCache(this.producerPool.primary(), this.routeRefreshMillis);
+            if (this.lingerMillis != null && this.lingerMillis > 0) {
+                this.accumulator = new MessageAccumulator(this.producerPool, this.routeCache::get, this.messageQueueSelector,
+                        this.batchMaxMessages, this.batchMaxBytes, maxMessageSize(), this.lingerMillis);
+            }
+        }
+    }
+
+    /**
+     * One producer, or {@link ProducerProperties#POOL_SIZE pool size} producers of the same group.
+     * Producers of a group need distinct instance names to get their own client instance, the
+     * first keeps the configured one and the others append their index to it.
+     */
+    private List<MQProducer> createProducers() {
+        MQProducer first = this.producerFactory.create();
+        if (first == null) {
+            return List.of();
+        }
+        ProducerProperties producerProperties = new ProducerProperties(this.producerFactory.getDefaultProperties());
+        Integer poolSize = producerProperties.getPoolSize();
+        List<MQProducer> producers = new ArrayList<>();
+        producers.add(first);
+        if (poolSize != null && poolSize > 1) {
+            String instanceName = producerProperties.getInstanceName();
+            String prefix = StringUtils.hasText(instanceName) ? instanceName : String.valueOf(ProcessHandle.current().pid());
+            for (int i = 1; i < poolSize; i++) {
+                producers.add(this.producerFactory.create(Map.of(ProducerProperties.INSTANCE_NAME, prefix + "-" + i)));
+            }
+        }
+        return producers;
     }
 
     protected final ExecutorService getRequiredTransactionExecutor() {
@@ -184,10 +456,22 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
 
         SendResult sendResult;
         Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
-        if (!ObjectUtils.isEmpty(shardingKey)) {
-            sendResult = this.producer.send(rocketMessage, this.messageQueueSelector, shardingKey, getSendTimeoutMillis(timeoutMillis));
+        if (this.accumulator != null && this.accumulator.accepts(rocketMessage)) {
+            long sendTimeoutMillis = getSendTimeoutMillis(timeoutMillis);
+            CompletableFuture<SendResult> future = doSendAsync(1, rocketMessage.getBody().length, sendTimeoutMillis,
+                    callback -> this.accumulator.append(rocketMessage, shardingKey, callback, sendTimeoutMillis));
+            sendResult = awaitSendResult(invalidateRouteOnFailure(topic, future), sendTimeoutMillis + this.lingerMillis);
+        } else if (!ObjectUtils.isEmpty(shardingKey)) {
+            MessageQueue messageQueue = selectMessageQueue(topic, rocketMessage, shardingKey);
+            try {
+                sendResult = this.producerPool.select(messageQueue)
+                        .send(producer -> producer.send(rocketMessage, messageQueue, getSendTimeoutMillis(timeoutMillis)));
+            } catch (Exception e) {
+                this.routeCache.invalidate(topic);
+                throw e;
+            }
         } else {
-            sendResult = this.producer.send(rocketMessage, getSendTimeoutMillis(timeoutMillis));
+            sendResult = this.producerPool.select().send(producer -> producer.send(rocketMessage, getSendTimeoutMillis(timeoutMillis)));
         }
         return sendResult;
     }
@@ -202,28 +486,88 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         }
         return sendBatch(topicTag.topic(), messages, timeoutMillis);
     }
+    /**
+     * Messages are grouped by the queue their own sharding key selects, and groups that exceed
+     * the producer's max message size, or {@link #setSplitBatchMaxMessages(Integer) split batch max
+     * messages} when set, are split. Every group or part is sent as its own sub-batch, see
+     * {@link BatchSendResult}. A list sent as several sub-batches is not atomic: when some of them
+     * fail, the others may be stored already, see {@link BatchSendException}.
+     */
     @SneakyThrows
     @Override
     public <T extends Message<?>> SendResult sendBatch(String topic, List<T> messages, Long timeoutMillis) {
-        List<org.apache.rocketmq.common.message.Message> rocketMessages = messages.stream()
-                .map(message ->  {
-                    Message<?> converted = this.messageConverter.convert(message.getPayload(), message.getHeaders());
-                    return this.messageConverter.fromMessage(converted, topic);
-                }).collect(Collectors.toList());
+        List<org.apache.rocketmq.common.message.Message> rocketMessages = toRocketMessages(topic, messages);
+        long sendTimeoutMillis = getSendTimeoutMillis(timeoutMillis);
+        List<SubBatch> batches = planBatch(topic, messages, rocketMessages);
+        if (batches.size() > 1) {
+            return awaitSendResult(doSendBatchAsync(rocketMessages, batches, sendTimeoutMillis),
+                    sendTimeoutMillis * batches.size());
+        }
 
         SendResult sendResult;
-        Object shardingKey = RocketHeaders.find(messages.get(0).getHeaders(), RocketHeaders.SHARDING_KEY);
-        if (!ObjectUtils.isEmpty(shardingKey)) {
-            MessageQueue messageQueue = this.messageQueueSelector.select(this.producer.fetchPublishMessageQueues(topic), null, shardingKey);
-            sendResult = this.producer.send(rocketMessages, messageQueue, getSendTimeoutMillis(timeoutMillis));
+        MessageQueue messageQueue = batches.get(0).messageQueue();
+        if (messageQueue != null) {
+            try {
+                sendResult = this.producerPool.select(messageQueue).send(producer -> producer.send(rocketMessages, messageQueue, sendTimeoutMillis));
+            } catch (Exception e) {
+                this.routeCache.invalidate(topic);
+                throw e;
+            }
         } else {
-            sendResult = this.producer.send(rocketMessages, getSendTimeoutMillis(timeoutMillis));
+            sendResult = this.producerPool.select().send(producer -> producer.send(rocketMessages, sendTimeoutMillis));
         }
-        return sendResult;
+        return new BatchSendResult(List.of(sendResult), new int[rocketMessages.size()]);
     }
     /**
      * --------------------    async send    --------------------
      */
+    public CompletableFuture<SendResult> sendAsync(TopicTag topicTag, Object payload) {
+        return sendAsync(topicTag, payload, (Long) null);
+    }
+    public CompletableFuture<SendResult> sendAsync(TopicTag topicTag, Object payload, Long timeoutMillis) {
+        return sendAsync(topicTag.topic(), payload, supplyHeaders(topicTag.tag()), timeoutMillis);
+    }
+    public CompletableFuture<SendResult> sendAsync(TopicTag topicTag, Object payload, String shardingKey, Delay delay) {
+        return sendAsync(topicTag, payload, shardingKey, delay, (Long) null);
+    }
+    public CompletableFuture<SendResult> sendAsync(TopicTag topicTag, Object payload, String shardingKey, Delay delay, Long timeoutMillis) {
+        return sendAsync(topicTag.topic(), payload, supplyHeaders(topicTag.tag(), shardingKey, delay), timeoutMillis);
+    }
+    public CompletableFuture<SendResult> sendAsync(String topic, Object payload) {
+        return sendAsync(topic, payload, (Long) null);
+    }
+    public CompletableFuture<SendResult> sendAsync(String topic, Object payload, Long timeoutMillis) {
+        return sendAsync(topic, payload, (Supplier<Map<String, Object>>) null, timeoutMillis);
+    }
+    public CompletableFuture<SendResult> sendAsync(String topic, Object payload, Supplier<Map<String, Object>> headerSupplier) {
+        return sendAsync(topic, payload, headerSupplier, (Long) null);
+    }
+    public CompletableFuture<SendResult> sendAsync(String topic, Object payload, Supplier<Map<String, Object>> headerSupplier, Long timeoutMillis) {
+        Message<?> message = buildMessage(payload, headerSupplier);
+        return sendAsync(topic, message, timeoutMillis);
+    }
+    @Override
+    public CompletableFuture<SendResult> sendAsync(String topic, Message<?> message, Long timeoutMillis) {
+        Message<?> converted = this.messageConverter.convert(message.getPayload(), message.getHeaders());
+        org.apache.rocketmq.common.message.Message rocketMessage = this.messageConverter.fromMessage(converted, topic);
+
+        long sendTimeoutMillis = getSendTimeoutMillis(timeoutMillis);
+        Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
+        boolean accumulate = this.accumulator != null && this.accumulator.accepts(rocketMessage);
+        CompletableFuture<SendResult> future = doSendAsync(1, rocketMessage.getBody().length, sendTimeoutMillis, callback -> {
+            if (accumulate) {
+                this.accumulator.append(rocketMessage, shardingKey, callback, sendTimeoutMillis);
+            } else if (!ObjectUtils.isEmpty(shardingKey)) {
+                MessageQueue messageQueue = selectMessageQueue(topic, rocketMessage, shardingKey);
+                this.producerPool.select(messageQueue).sendAsync(callback,
+                        (producer, sendCallback) -> producer.send(rocketMessage, messageQueue, sendCallback, sendTimeoutMillis));
+            } else {
+                this.producerPool.select().sendAsync(callback,
+                        (producer, sendCallback) -> producer.send(rocketMessage, sendCallback, sendTimeoutMillis));
+            }
+        });
+        return accumulate || !ObjectUtils.isEmpty(shardingKey) ? invalidateRouteOnFailure(topic, future) : future;
+    }
     public void sendAsync(TopicTag topicTag, Object payload, BiConsumer<SendResult, Throwable> sendConsumer) {
         sendAsync(topicTag, payload, null, sendConsumer);
     }
@@ -249,69 +593,257 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         Message<?> message = buildMessage(payload, headerSupplier);
         sendAsync(topic, message, timeoutMillis, sendConsumer);
     }
-    @SneakyThrows
     @Override
     public void sendAsync(String topic, Message<?> message, Long timeoutMillis, BiConsumer<SendResult, Throwable> sendConsumer) {
-        Message<?> converted = this.messageConverter.convert(message.getPayload(), message.getHeaders());
-        org.apache.rocketmq.common.message.Message rocketMessage = this.messageConverter.fromMessage(converted, topic);
-
-        SendCallback callback = new SendCallback() {
-            @Override
-            public void onSuccess(SendResult sendResult) {
-                sendConsumer.accept(sendResult, null);
-            }
-
-            @Override
-            public void onException(Throwable e) {
-                sendConsumer.accept(null, e);
-            }
-        };
-
-        Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
-        if (!ObjectUtils.isEmpty(shardingKey)) {
-            this.producer.send(rocketMessage, this.messageQueueSelector, shardingKey, callback, getSendTimeoutMillis(timeoutMillis));
-        } else {
-            this.producer.send(rocketMessage, callback, getSendTimeoutMillis(timeoutMillis));
-        }
+        sendAsync(topic, message, timeoutMillis).whenComplete(sendConsumer);
     }
-    public void sendBatchAsync(TopicTag topicTag, List<?> payloads, BiConsumer<SendResult, Throwable> sendConsumer) {
-        sendBatchAsync(topicTag, payloads, null, sendConsumer);
+    public CompletableFuture<SendResult> sendBatchAsync(TopicTag topicTag, List<?> payloads) {
+        return sendBatchAsync(topicTag, payloads, (Long) null);
     }
-    public void sendBatchAsync(TopicTag topicTag, List<?> payloads, Long timeoutMillis, BiConsumer<SendResult, Throwable> sendConsumer) {
+    public CompletableFuture<SendResult> sendBatchAsync(TopicTag topicTag, List<?> payloads, Long timeoutMillis) {
         List<Message<?>> messages = new ArrayList<>();
         for (Object payload : payloads) {
             Message<?> message = buildMessage(payload, supplyHeaders(topicTag.tag()));
             messages.add(message);
         }
-        sendBatchAsync(topicTag.topic(), messages, timeoutMillis, sendConsumer);
+        return sendBatchAsync(topicTag.topic(), messages, timeoutMillis);
+    }
+    /**
+     * Messages are grouped by the queue their own sharding key selects, and groups that exceed
+     * the producer's max message size, or {@link #setSplitBatchMaxMessages(Integer) split batch max
+     * messages} when set, are split. Every group or part is sent as its own sub-batch, see
+     * {@link BatchSendResult}. A list sent as several sub-batches is not atomic: when some of them
+     * fail, the others may be stored already, see {@link BatchSendException}.
+     */
+    @Override
+    public <T extends Message<?>> CompletableFuture<SendResult> sendBatchAsync(String topic, List<T> messages, Long timeoutMillis) {
+        List<org.apache.rocketmq.common.message.Message> rocketMessages = toRocketMessages(topic, messages);
+        List<SubBatch> batches;
+        try {
+            batches = planBatch(topic, messages, rocketMessages);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return doSendBatchAsync(rocketMessages, batches, getSendTimeoutMillis(timeoutMillis));
+    }
+    public void sendBatchAsync(TopicTag topicTag, List<?> payloads, BiConsumer<SendResult, Throwable> sendConsumer) {
+        sendBatchAsync(topicTag, payloads, null, sendConsumer);
+    }
+    public void sendBatchAsync(TopicTag topicTag, List<?> payloads, Long timeoutMillis, BiConsumer<SendResult, Throwable> sendConsumer) {
+        sendBatchAsync(topicTag, payloads, timeoutMillis).whenComplete(sendConsumer);
     }
-    @SneakyThrows
     @Override
     public <T extends Message<?>> void sendBatchAsync(String topic, List<T> messages, Long timeoutMillis, BiConsumer<SendResult, Throwable> sendConsumer) {
-        List<org.apache.rocketmq.common.message.Message> rocketMessages = messages.stream()
+        sendBatchAsync(topic, messages, timeoutMillis).whenComplete(sendConsumer);
+    }
+
+    /**
+     * Hand an asynchronous send to the producer once the in-flight limit, if any, admits it.
+     * The permits are given back before the returned future completes, so code chained to the
+     * future may send again without waiting on its own permits. A send the limit does not admit
+     * fails the returned future.
+     */
+    private CompletableFuture<SendResult> doSendAsync(int messages, long bytes, long timeoutMillis, AsyncSend asyncSend) {
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        InFlightLimiter limiter = this.inFlightLimiter;
+        try {
+            if (limiter != null && !limiter.acquire(messages, bytes, timeoutMillis)) {
+                future.completeExceptionally(new RocketException("send shed, in-flight limit of rocket template reached"));
+                return future;
+            }
+        } catch (RocketException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        SendCallback callback = new InFlightSendCallback(future, limiter, messages, bytes);
+        try {
+            asyncSend.send(callback);
+        } catch (Exception e) {
+            callback.onException(e);
+        }
+        return future;
+    }
+
+    /**
+     * Send the sub-batches in parallel. Sub-batches of the same queue are sent one after another
+     * to keep the order of their sharding keys, and a failed sub-batch stops the later ones.
+     * The returned future waits for all of them, and fails with a {@link BatchSendException}
+     * telling the stored ones apart when any failed.
+     */
+    private CompletableFuture<SendResult> doSendBatchAsync(List<org.apache.rocketmq.common.message.Message> rocketMessages,
+                                                           List<SubBatch> batches, long timeoutMillis) {
+        int[] batchIndexes = new int[rocketMessages.size()];
+        List<CompletableFuture<SendResult>> futures = new ArrayList<>(batches.size());
+        Map<MessageQueue, CompletableFuture<SendResult>> previousByQueue = new HashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            SubBatch batch = batches.get(i);
+            MessageQueue messageQueue = batch.messageQueue();
+            List<org.apache.rocketmq.common.message.Message> batchMessages = new ArrayList<>(batch.indexes().length);
+            for (int index : batch.indexes()) {
+                batchIndexes[index] = i;
+                batchMessages.add(rocketMessages.get(index));
+            }
+            CompletableFuture<SendResult> previous = messageQueue != null ? previousByQueue.get(messageQueue) : null;
+            CompletableFuture<SendResult> future;
+            if (previous == null) {
+                future = doSendBatchAsync(batchMessages, messageQueue, timeoutMillis);
+            } else if (this.chainedSendExecutor != null) {
+                future = previous.thenComposeAsync(sendResult -> doSendBatchAsync(batchMessages, messageQueue, timeoutMillis),
+                        this.chainedSendExecutor);
+            } else {
+                future = previous.thenCompose(sendResult -> doSendBatchAsync(batchMessages, messageQueue, timeoutMillis));
+            }
+            if (messageQueue != null) {
+                invalidateRouteOnFailure(batchMessages.get(0).getTopic(), future);
+                previousByQueue.put(messageQueue, future);
+            }
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> {
+                    if (e == null) {
+                        return new BatchSendResult(futures.stream().map(CompletableFuture::join).toList(), batchIndexes);
+                    }
+                    List<SendResult> sendResults = new ArrayList<>(futures.size());
+                    List<Throwable> failures = new ArrayList<>(futures.size());
+                    for (CompletableFuture<SendResult> future : futures) {
+                        try {
+                            sendResults.add(future.join());
+                            failures.add(null);
+                        } catch (CompletionException | CancellationException failure) {
+                            sendResults.add(null);
+                            failures.add(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                        }
+                    }
+                    throw new BatchSendException(sendResults, failures, batchIndexes);
+                });
+    }
+
+    private CompletableFuture<SendResult> doSendBatchAsync(List<org.apache.rocketmq.common.message.Message> rocketMessages,
+                                                           MessageQueue messageQueue, long timeoutMillis) {
+        long bytes = rocketMessages.stream().mapToLong(rocketMessage -> rocketMessage.getBody().length).sum();
+        return doSendAsync(rocketMessages.size(), bytes, timeoutMillis, callback -> this.producerPool.select(messageQueue)
+                .sendAsync(callback, (producer, sendCallback) -> {
+                    if (messageQueue != null) {
+                        producer.send(rocketMessages, messageQueue, sendCallback, timeoutMillis);
+                    } else {
+                        producer.send(rocketMessages, sendCallback, timeoutMillis);
+                    }
+                }));
+    }
+
+    private <T extends Message<?>> List<org.apache.rocketmq.common.message.Message> toRocketMessages(String topic, List<T> messages) {
+        Assert.notEmpty(messages, "messages must not be empty");
+        return messages.stream()
                 .map(message -> {
                     Message<?> converted = this.messageConverter.convert(message.getPayload(), message.getHeaders());
                     return this.messageConverter.fromMessage(converted, topic);
                 }).collect(Collectors.toList());
+    }
 
-        SendCallback callback = new SendCallback() {
-            @Override
-            public void onSuccess(SendResult sendResult) {
-                sendConsumer.accept(sendResult, null);
+    /**
+     * Group the messages by the queue their sharding key selects, messages without a sharding key
+     * form one group left to the producer, then split every group into sub-batches.
+     */
+    private <T extends Message<?>> List<SubBatch> planBatch(String topic, List<T> messages,
+                                                            List<org.apache.rocketmq.common.message.Message> rocketMessages) {
+        Map<MessageQueue, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Object shardingKey = RocketHeaders.find(messages.get(i).getHeaders(), RocketHeaders.SHARDING_KEY);
+            MessageQueue messageQueue = null;
+            if (!ObjectUtils.isEmpty(shardingKey)) {
+                messageQueue = selectMessageQueue(topic, rocketMessages.get(i), shardingKey);
             }
+            groups.computeIfAbsent(messageQueue, key -> new ArrayList<>()).add(i);
+        }
 
-            @Override
-            public void onException(Throwable e) {
-                sendConsumer.accept(null, e);
+        long maxBytes = maxMessageSize();
+        List<SubBatch> batches = new ArrayList<>();
+        groups.forEach((messageQueue, indexes) -> {
+            int[] groupIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+            int maxMessages = this.splitBatchMaxMessages != null ? this.splitBatchMaxMessages : Integer.MAX_VALUE;
+            MessageBatchSplitter.split(rocketMessages, groupIndexes, maxMessages, maxBytes)
+                    .forEach(batch -> batches.add(new SubBatch(messageQueue, batch)));
+        });
+        return batches;
+    }
+
+    private long maxMessageSize() {
+        return this.producerPool.primary() instanceof DefaultMQProducer defaultProducer
+                ? defaultProducer.getMaxMessageSize() : DEFAULT_MAX_MESSAGE_SIZE;
+    }
+
+    /**
+     * @param messageQueue the queue selected by sharding key, {@code null} to let the producer choose
+     * @param indexes indexes of the messages in the sent list
+     */
+    private record SubBatch(MessageQueue messageQueue, int[] indexes) {
+    }
+
+    @SneakyThrows
+    private SendResult awaitSendResult(CompletableFuture<SendResult> future, long timeoutMillis) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new RocketException("send not completed within " + timeoutMillis + "ms", e);
+        }
+    }
+
+    private MessageQueue selectMessageQueue(String topic, org.apache.rocketmq.common.message.Message rocketMessage, Object shardingKey) {
+        return this.messageQueueSelector.select(this.routeCache.get(topic), rocketMessage, shardingKey);
+    }
+
+    private CompletableFuture<SendResult> invalidateRouteOnFailure(String topic, CompletableFuture<SendResult> future) {
+        future.whenComplete((sendResult, e) -> {
+            if (e != null) {
+                this.routeCache.invalidate(topic);
             }
-        };
+        });
+        return future;
+    }
 
-        Object shardingKey = RocketHeaders.find(messages.get(0).getHeaders(), RocketHeaders.SHARDING_KEY);
-        if (!ObjectUtils.isEmpty(shardingKey)) {
-            MessageQueue messageQueue = this.messageQueueSelector.select(this.producer.fetchPublishMessageQueues(topic), null, shardingKey);
-            this.producer.send(rocketMessages, messageQueue, callback, getSendTimeoutMillis(timeoutMillis));
-        } else {
-            this.producer.send(rocketMessages, callback, getSendTimeoutMillis(timeoutMillis));
+    @FunctionalInterface
+    private interface AsyncSend {
+        void send(SendCallback callback) throws Exception;
+    }
+
+    private static final class InFlightSendCallback implements SendCallback {
+        private final CompletableFuture<SendResult> future;
+        private final InFlightLimiter limiter;
+        private final int messages;
+        private final long bytes;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private InFlightSendCallback(CompletableFuture<SendResult> future, InFlightLimiter limiter, int messages, long bytes) {
+            this.future = future;
+            this.limiter = limiter;
+            this.messages = messages;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void onSuccess(SendResult sendResult) {
+            if (release()) {
+                this.future.complete(sendResult);
+            }
+        }
+
+        @Override
+        public void onException(Throwable e) {
+            if (release()) {
+                this.future.completeExceptionally(e);
+            }
+        }
+
+        private boolean release() {
+            if (!this.completed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (this.limiter != null) {
+                this.limiter.release(this.messages, this.bytes);
+            }
+            return true;
         }
     }
     /**
@@ -338,9 +870,21 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
 
         Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
         if (!ObjectUtils.isEmpty(shardingKey)) {
-            this.producer.sendOneway(rocketMessage, this.messageQueueSelector, shardingKey);
+            MessageQueue messageQueue = selectMessageQueue(topic, rocketMessage, shardingKey);
+            try {
+                this.producerPool.select(messageQueue).send(producer -> {
+                    producer.sendOneway(rocketMessage, messageQueue);
+                    return null;
+                });
+            } catch (Exception e) {
+                this.routeCache.invalidate(topic);
+                throw e;
+            }
         } else {
-            this.producer.sendOneway(rocketMessage);
+            this.producerPool.select().send(producer -> {
+                producer.sendOneway(rocketMessage);
+                return null;
+            });
         }
     }
     /**
@@ -389,6 +933,14 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
     private MQProducer doRegisterTransactional(String topic, RocketTransactionListener transactionListener, Map<String, Object> producerProperties) {
         Assert.notNull(transactionListener, "transactionListener must not be null");
 
+        if (this.sharedTransactionalProducer && ObjectUtils.isEmpty(producerProperties)) {
+            return this.transactionalProducers.computeIfAbsent(topic, key -> {
+                MQProducer producer = getRoutingTransactionProducer();
+                this.transactionListenerRouter.register(topic,
+                        RocketTransactionUtils.toTransactionListener(transactionListener, this.messageConverter::toMessage));
+                return producer;
+            });
+        }
         Map<String, Object> transactionalProperties = producerProperties == null ? new HashMap<>(64) : producerProperties;
         transactionalProperties.put(ProducerProperties.TRANSACTIONAL, true);
         return this.transactionalProducers.computeIfAbsent(topic, key -> {
@@ -407,6 +959,28 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
             return producer;
         });
     }
+    private TransactionMQProducer getRoutingTransactionProducer() {
+        TransactionMQProducer producer = this.routingTransactionProducer;
+        if (producer == null) {
+            synchronized (this.transactionListenerRouter) {
+                producer = this.routingTransactionProducer;
+                if (producer == null) {
+                    MQProducer created = this.producerFactory.create(Map.of(ProducerProperties.TRANSACTIONAL, true));
+                    Assert.state(created instanceof TransactionMQProducer, "producer factory does not create transactional producers");
+                    producer = (TransactionMQProducer) created;
+                    producer.setTransactionListener(this.transactionListenerRouter);
+                    producer.setExecutorService(getRequiredTransactionExecutor());
+                    try {
+                        producer.start();
+                    } catch (MQClientException e) {
+                        throw new RocketException(e.getErrorMessage(), e);
+                    }
+                    this.routingTransactionProducer = producer;
+                }
+            }
+        }
+        return producer;
+    }
     /**
      * --------------------    receive    --------------------
      */
@@ -418,6 +992,9 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         return receive(topicTag, null);
     }
     public List<MessageExt> receive(TopicTag topicTag, Long timeoutMillis) {
+        if (this.sharedPullConsumer) {
+            return getMultiplexedPullConsumer().receive(topicTag, getPollTimeoutMillis(timeoutMillis));
+        }
         LitePullConsumer consumer = doSubscribe(topicTag);
         return consumer.poll(getPollTimeoutMillis(timeoutMillis));
     }
@@ -429,7 +1006,27 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         receiveAsync(topicTag, null, receiveConsumer);
     }
     public void receiveAsync(TopicTag topicTag, Long timeoutMillis, BiConsumer<List<MessageExt>, Throwable> receiveConsumer) {
-        throw new UnsupportedOperationException("RocketTemplate doesn't support receiveAsync");
+        receiveAsync(topicTag, timeoutMillis).whenComplete(receiveConsumer);
+    }
+    /**
+     * Poll on the poller thread of the topic instead of the caller's, the future completes there.
+     */
+    public CompletableFuture<List<MessageExt>> receiveAsync(TopicTag topicTag, Long timeoutMillis) {
+        PullPoller poller;
+        try {
+            poller = this.pullPollers.computeIfAbsent(topicTag.toString(), key -> {
+                if (this.sharedPullConsumer) {
+                    MultiplexedPullConsumer consumer = getMultiplexedPullConsumer();
+                    consumer.subscribe(topicTag);
+                    return new PullPoller(topicTag, millis -> consumer.receive(topicTag, millis));
+                }
+                LitePullConsumer consumer = doSubscribe(topicTag);
+                return new PullPoller(topicTag, consumer::poll);
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return poller.poll(getPollTimeoutMillis(timeoutMillis));
     }
     @Override
     public <T> List<T> receiveAndConvert(String topic, Type payloadType, Long timeoutMillis) {
@@ -450,12 +1047,99 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         receiveAndConvertAsync(topicTag, payloadType, null, receiveConsumer);
     }
     public <T> void receiveAndConvertAsync(TopicTag topicTag, Type payloadType, Long timeoutMillis, BiConsumer<List<T>, Throwable> receiveConsumer) {
-        receiveAsync(topicTag, timeoutMillis, (messageViews, throwable) -> receiveConsumer.accept(convert(messageViews, payloadType), throwable));
+        receiveAsync(topicTag, timeoutMillis).whenComplete((messages, throwable) -> {
+            if (throwable != null) {
+                receiveConsumer.accept(null, throwable);
+                return;
+            }
+            List<T> payloads;
+            try {
+                payloads = convert(messages, payloadType);
+            } catch (RuntimeException e) {
+                receiveConsumer.accept(null, e);
+                return;
+            }
+            receiveConsumer.accept(payloads, null);
+        });
+    }
+
+    /**
+     * Receive as a stream of the group {@code <factory group>_stream_<topic>}, apart from the
+     * consumers of {@link #receive(TopicTag)}, see {@link #receiveStream(TopicTag, String, int, Long)}.
+     */
+    public Stream<MessageExt> receiveStream(TopicTag topicTag, int prefetch, Long idleTimeoutMillis) {
+        return receiveStream(topicTag, streamGroupId(topicTag), prefetch, idleTimeoutMillis);
+    }
+    /**
+     * Receive as a stream fed by a consumer of its own, which prefetches up to {@code prefetch}
+     * messages while the stream processes the previous ones and commits only processed messages,
+     * a message counting as processed once the next one is requested. Close the stream to stop
+     * the consumer, it closes itself when it ends. A group has one open stream at a time, two
+     * would share its queues and each see part of the messages.
+     * @param groupId group of the consumer, which keeps the offsets between streams
+     * @param idleTimeoutMillis how long the stream waits for a message before it ends, never ends when null
+     */
+    public Stream<MessageExt> receiveStream(TopicTag topicTag, String groupId, int prefetch, Long idleTimeoutMillis) {
+        Assert.isTrue(prefetch > 0, "prefetch must be positive number");
+        Assert.hasText(groupId, "groupId must not be empty");
+        RocketPullConsumerFactory consumerFactory = getRequiredPullConsumerFactory();
+        String namespace = PropertiesUtils.extractAsString(consumerFactory.getDefaultProperties(), PullConsumerProperties.NAMESPACE);
+        AtomicReference<PrefetchingReceiver> reservation = new AtomicReference<>();
+        Assert.state(this.prefetchingReceivers.putIfAbsent(groupId, reservation) == null, "A stream of group " + groupId + " is open already");
+        PrefetchingReceiver prefetchingReceiver;
+        try {
+            LitePullConsumer consumer = consumerFactory.create(groupId, Map.of(PullConsumerProperties.AUTO_COMMIT, false));
+            try {
+                consumer.subscribe(topicTag.topic(), topicTag.tag());
+                consumer.start();
+            } catch (MQClientException e) {
+                consumer.shutdown();
+                throw new RocketException(e.getErrorMessage(), e);
+            }
+            prefetchingReceiver = new PrefetchingReceiver(topicTag, consumer, namespace, prefetch, this.pollTimeoutMillis, idleTimeoutMillis,
+                    receiver -> this.prefetchingReceivers.remove(groupId, reservation));
+        } catch (RuntimeException e) {
+            this.prefetchingReceivers.remove(groupId, reservation);
+            throw e;
+        }
+        reservation.set(prefetchingReceiver);
+        return prefetchingReceiver.stream();
+    }
+    public <T> Stream<T> receiveAndConvertStream(TopicTag topicTag, Type payloadType, int prefetch, Long idleTimeoutMillis) {
+        return receiveAndConvertStream(topicTag, streamGroupId(topicTag), payloadType, prefetch, idleTimeoutMillis);
+    }
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> receiveAndConvertStream(TopicTag topicTag, String groupId, Type payloadType, int prefetch, Long idleTimeoutMillis) {
+        return receiveStream(topicTag, groupId, prefetch, idleTimeoutMillis)
+                .map(rocketMessage -> (T) this.messageConverter.toMessage(rocketMessage, payloadType).getPayload());
+    }
+    private String streamGroupId(TopicTag topicTag) {
+        String groupId = getRequiredPullConsumerFactory().getGroupId(null, Map.of());
+        Assert.state(StringUtils.hasText(groupId), "No group of the pull consumer factory set, name the group of the stream");
+        return groupId + "_stream_" + topicTag.topic();
     }
 
     public void subscribe(TopicTag... topicTags) {
+        if (this.sharedPullConsumer) {
+            Arrays.stream(topicTags).forEach(getMultiplexedPullConsumer()::subscribe);
+            return;
+        }
         Arrays.stream(topicTags).forEach(this::doSubscribe);
     }
+    private MultiplexedPullConsumer getMultiplexedPullConsumer() {
+        MultiplexedPullConsumer consumer = this.multiplexedPullConsumer;
+        if (consumer == null) {
+            synchronized (this.pullConsumers) {
+                consumer = this.multiplexedPullConsumer;
+                if (consumer == null) {
+                    consumer = new MultiplexedPullConsumer(getRequiredPullConsumerFactory().create(Map.of(PullConsumerProperties.AUTO_COMMIT, false)),
+                            this.pullBufferCapacity, this.pullBufferIdleMillis);
+                    this.multiplexedPullConsumer = consumer;
+                }
+            }
+        }
+        return consumer;
+    }
     private LitePullConsumer doSubscribe(TopicTag topicTag) {
         return this.pullConsumers.computeIfAbsent(topicTag.toString(), key -> {
             LitePullConsumer consumer = getRequiredPullConsumerFactory().create();
@@ -513,9 +1197,10 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
         org.apache.rocketmq.common.message.Message replyMessage;
         Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
         if (!ObjectUtils.isEmpty(shardingKey)) {
-            replyMessage = this.producer.request(requestMessage, this.messageQueueSelector, shardingKey, getSendTimeoutMillis(timeoutMillis));
+            replyMessage = this.producerPool.select(shardingKey)
+                    .send(producer -> producer.request(requestMessage, this.messageQueueSelector, shardingKey, getSendTimeoutMillis(timeoutMillis)));
         } else {
-            replyMessage = this.producer.request(requestMessage, getSendTimeoutMillis(timeoutMillis));
+            replyMessage = this.producerPool.select().send(producer -> producer.request(requestMessage, getSendTimeoutMillis(timeoutMillis)));
         }
         return (T) this.messageConverter.toMessage(replyMessage, replyPayloadType).getPayload();
     }
@@ -568,9 +1253,11 @@ public class RocketTemplate implements RocketOperations, RocketTransactionOperat
 
         Object shardingKey = RocketHeaders.find(message.getHeaders(), RocketHeaders.SHARDING_KEY);
         if (!ObjectUtils.isEmpty(shardingKey)) {
-            this.producer.request(requestMessage, this.messageQueueSelector, shardingKey, requestCallback, getSendTimeoutMillis(timeoutMillis));
+            this.producerPool.select(shardingKey).requestAsync(requestCallback, (producer, callback) ->
+                    producer.request(requestMessage, this.messageQueueSelector, shardingKey, callback, getSendTimeoutMillis(timeoutMillis)));
         } else {
-            this.producer.request(requestMessage, requestCallback, getSendTimeoutMillis(timeoutMillis));
+            this.producerPool.select().requestAsync(requestCallback, (producer, callback) ->
+                    producer.request(requestMessage, callback, getSendTimeoutMillis(timeoutMillis)));
         }
     }
 
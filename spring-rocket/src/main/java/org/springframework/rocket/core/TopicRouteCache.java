@@ -0,0 +1,93 @@
+package org.springframework.rocket.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.ObjectUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish queues per topic, so that selecting a queue by sharding key does not copy the
+ * producer's route on every send. The cached lists are immutable and refreshed in the
+ * background; a topic is fetched again on its next send after {@link #invalidate(String)}.
+ * The refresh thread is started with the first cached topic, a template that never sends to a
+ * selected queue does not run one.
+ */
+@Slf4j
+final class TopicRouteCache {
+
+    private final MQProducer producer;
+    private final Map<String, List<MessageQueue>> routes = new ConcurrentHashMap<>();
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService refreshScheduler;
+    private boolean closed;
+
+    TopicRouteCache(MQProducer producer, long refreshIntervalMillis) {
+        this.producer = producer;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    List<MessageQueue> get(String topic) {
+        List<MessageQueue> messageQueues = this.routes.get(topic);
+        if (messageQueues == null) {
+            messageQueues = fetch(topic);
+            this.routes.put(topic, messageQueues);
+            startRefresh();
+        }
+        return messageQueues;
+    }
+
+    void invalidate(String topic) {
+        this.routes.remove(topic);
+    }
+
+    synchronized void close() {
+        this.closed = true;
+        if (this.refreshScheduler != null) {
+            this.refreshScheduler.shutdownNow();
+        }
+        this.routes.clear();
+    }
+
+    private synchronized void startRefresh() {
+        if (this.refreshScheduler != null || this.closed) {
+            return;
+        }
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rocket-template-route");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshScheduler.scheduleWithFixedDelay(this::refresh, this.refreshIntervalMillis, this.refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        for (String topic : this.routes.keySet()) {
+            try {
+                this.routes.put(topic, fetch(topic));
+            } catch (Exception e) {
+                log.warn("refresh route of topic {} failed, keep the cached one", topic, e);
+            }
+        }
+    }
+
+    private List<MessageQueue> fetch(String topic) {
+        List<MessageQueue> messageQueues;
+        try {
+            messageQueues = this.producer.fetchPublishMessageQueues(topic);
+        } catch (Exception e) {
+            throw new RocketException("fetch publish message queues of topic " + topic + " failed", e);
+        }
+        if (ObjectUtils.isEmpty(messageQueues)) {
+            throw new RocketException("no message queue found for topic: " + topic);
+        }
+        return List.copyOf(messageQueues);
+    }
+}
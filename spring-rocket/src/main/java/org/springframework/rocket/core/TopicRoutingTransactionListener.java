@@ -0,0 +1,56 @@
+package org.springframework.rocket.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.LocalTransactionState;
+import org.apache.rocketmq.client.producer.TransactionListener;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.remoting.protocol.NamespaceUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Listener of a transactional producer shared by several topics, hands every local transaction
+ * and check to the listener registered for the topic of the message.
+ * <p>
+ * Topics are looked up in an immutable map replaced on each registration, so the producer's
+ * threads read it without locking. The producer sets the namespace on the message topic, a topic
+ * not registered as it is is looked up again without the namespace. Messages of a topic without
+ * listener are left unknown, for the broker to check again later.
+ */
+@Slf4j
+final class TopicRoutingTransactionListener implements TransactionListener {
+
+    private volatile Map<String, TransactionListener> listeners = Map.of();
+
+    synchronized void register(String topic, TransactionListener listener) {
+        Map<String, TransactionListener> listeners = new HashMap<>(this.listeners);
+        listeners.put(topic, listener);
+        this.listeners = Map.copyOf(listeners);
+    }
+
+    @Override
+    public LocalTransactionState executeLocalTransaction(Message message, Object arg) {
+        TransactionListener listener = route(message.getTopic());
+        return listener != null ? listener.executeLocalTransaction(message, arg) : LocalTransactionState.UNKNOW;
+    }
+
+    @Override
+    public LocalTransactionState checkLocalTransaction(MessageExt message) {
+        TransactionListener listener = route(message.getTopic());
+        return listener != null ? listener.checkLocalTransaction(message) : LocalTransactionState.UNKNOW;
+    }
+
+    private TransactionListener route(String topic) {
+        Map<String, TransactionListener> listeners = this.listeners;
+        TransactionListener listener = topic != null ? listeners.get(topic) : null;
+        if (listener == null && topic != null) {
+            listener = listeners.get(NamespaceUtil.withoutNamespace(topic));
+        }
+        if (listener == null) {
+            log.warn("no transaction listener registered for topic {}", topic);
+        }
+        return listener;
+    }
+}
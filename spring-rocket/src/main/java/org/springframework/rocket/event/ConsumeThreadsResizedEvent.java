@@ -0,0 +1,52 @@
+package org.springframework.rocket.event;
+
+import lombok.Getter;
+import org.springframework.rocket.listener.MessageListenerContainer;
+
+import java.io.Serial;
+
+/**
+ * Published when the consume thread pool of a container was resized, with the measures the
+ * decision was based on.
+ */
+@Getter
+public class ConsumeThreadsResizedEvent extends RocketEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int previousThreads;
+    private final int threads;
+    private final String reason;
+    /**
+     * messages stored in the consumed queues after the last ones consumed
+     */
+    private final long backlog;
+    /**
+     * share of the pool's time spent in the listener since the previous decision
+     */
+    private final double utilization;
+    private final double averageLatencyMillis;
+    /**
+     * system load average per processor, negative when not available
+     */
+    private final double loadPerProcessor;
+
+    public ConsumeThreadsResizedEvent(MessageListenerContainer container, int previousThreads, int threads, String reason,
+                                      long backlog, double utilization, double averageLatencyMillis, double loadPerProcessor) {
+        super(container, container);
+        this.previousThreads = previousThreads;
+        this.threads = threads;
+        this.reason = reason;
+        this.backlog = backlog;
+        this.utilization = utilization;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.loadPerProcessor = loadPerProcessor;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsumeThreadsResizedEvent [groupId=" + getContainer().getGroupId() + ", previousThreads=" + this.previousThreads
+                + ", threads=" + this.threads + ", reason=" + this.reason + ", backlog=" + this.backlog + "]";
+    }
+}
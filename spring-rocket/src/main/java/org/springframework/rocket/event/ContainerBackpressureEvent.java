@@ -0,0 +1,35 @@
+package org.springframework.rocket.event;
+
+import lombok.Getter;
+import org.springframework.rocket.listener.MessageListenerContainer;
+
+import java.io.Serial;
+
+/**
+ * Published when a container pauses because its saturation signal crossed the pause threshold,
+ * and when it resumes after the signal dropped to the resume threshold.
+ */
+@Getter
+public class ContainerBackpressureEvent extends RocketEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * true when the container paused, false when it resumed
+     */
+    private final boolean paused;
+    private final double saturation;
+
+    public ContainerBackpressureEvent(MessageListenerContainer container, boolean paused, double saturation) {
+        super(container, container);
+        this.paused = paused;
+        this.saturation = saturation;
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerBackpressureEvent [groupId=" + getContainer().getGroupId() + ", paused=" + this.paused
+                + ", saturation=" + this.saturation + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package org.springframework.rocket.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.rocket.listener.MessageListenerContainer;
+
+import java.io.Serial;
+
+/**
+ * Base class of the events published by listener containers.
+ */
+public abstract class RocketEvent extends ApplicationEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient MessageListenerContainer container;
+
+    protected RocketEvent(Object source, MessageListenerContainer container) {
+        super(source);
+        this.container = container;
+    }
+
+    /**
+     * @return the container that published the event
+     */
+    public MessageListenerContainer getContainer() {
+        return this.container;
+    }
+}
@@ -0,0 +1,27 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.common.message.Message;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link RocketMessageListener} whose handling of a message may complete later. The container
+ * starts every message of a delivered batch before it waits for them, and reports the consume
+ * status once they all completed.
+ */
+public interface AsyncRocketMessageListener extends RocketMessageListener {
+
+    /**
+     * @param rocketMessage the message
+     * @return completes when the message is handled, exceptionally if it failed
+     */
+    CompletableFuture<Void> onMessageAsync(Message rocketMessage);
+
+    /**
+     * @return whether the listener completes asynchronously, the container calls
+     * {@link #onMessage(Message)} one message after another otherwise
+     */
+    default boolean isAsync() {
+        return true;
+    }
+}
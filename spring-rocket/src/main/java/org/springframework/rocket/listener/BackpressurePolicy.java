@@ -0,0 +1,38 @@
+package org.springframework.rocket.listener;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.Assert;
+
+/**
+ * Pauses a container while its {@link SaturationSignal} is high. The container stops pulling and
+ * holds back the messages already pulled once the saturation reaches {@link #pauseThreshold},
+ * and resumes only when it dropped to {@link #resumeThreshold}, so that it does not flap around
+ * a single threshold. Messages already pulled are held for at most half the consumer's consume
+ * timeout, past it the client would send them back and they would be consumed twice.
+ */
+@Getter
+@Setter
+public class BackpressurePolicy {
+
+    private final SaturationSignal signal;
+
+    private double pauseThreshold = 0.9;
+
+    private double resumeThreshold = 0.6;
+
+    /**
+     * Interval between two reads of the signal
+     */
+    private long checkIntervalMillis = 1000;
+
+    public BackpressurePolicy(SaturationSignal signal) {
+        Assert.notNull(signal, "signal must not be null");
+        this.signal = signal;
+    }
+
+    void validate() {
+        Assert.state(this.resumeThreshold < this.pauseThreshold, "resumeThreshold must be below pauseThreshold");
+        Assert.state(this.checkIntervalMillis > 0, "checkIntervalMillis must be positive");
+    }
+}
@@ -0,0 +1,128 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.common.message.MessageExt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collects the messages of several deliveries, from any queue, into one batch for a
+ * {@link BatchRocketMessageListener}.
+ * <p>
+ * A batch is handed to the listener once it holds {@code targetSize} messages, or when
+ * {@code windowMillis} passed since its first message. The consume thread of each delivery waits
+ * until the batch its messages went into was handled, by whichever contributing thread closed it,
+ * so every delivery is acknowledged only after the listener returned. A batch can only grow as
+ * large as the consume threads deliver, so {@code targetSize} should not exceed the consume
+ * threads times the consume batch size.
+ */
+final class BatchAggregator {
+
+    private final BatchRocketMessageListener listener;
+    private final int targetSize;
+    private final long windowMillis;
+    private Window window;
+
+    BatchAggregator(BatchRocketMessageListener listener, int targetSize, long windowMillis) {
+        this.listener = listener;
+        this.targetSize = targetSize;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Add the messages of a delivery and wait until the batch they went into was handled.
+     * @return index of the first message of the delivery that failed, -1 if none failed
+     */
+    int consume(List<MessageExt> messages) {
+        Window joined;
+        int offset;
+        boolean full = false;
+        synchronized (this) {
+            if (this.window == null) {
+                this.window = new Window(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.windowMillis));
+            }
+            joined = this.window;
+            offset = joined.messages.size();
+            joined.messages.addAll(messages);
+            if (joined.messages.size() >= this.targetSize) {
+                this.window = null;
+                full = true;
+            }
+        }
+        if (full) {
+            handle(joined);
+        }
+        int failedIndex = awaitHandled(joined);
+        if (failedIndex < 0 || failedIndex >= offset + messages.size()) {
+            return -1;
+        }
+        // the messages of the batch before the failed one are acknowledged, those after it are not
+        return Math.max(0, failedIndex - offset);
+    }
+
+    /**
+     * Wait in slices of the window, so whichever contributing thread is waiting when the window
+     * expires closes it, also one that joined after the deadline. A thread interrupted while the
+     * window is open fails the window, so the other contributors do not wait for it.
+     */
+    private int awaitHandled(Window joined) {
+        long sliceNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(this.windowMillis));
+        while (true) {
+            long remainingNanos = joined.deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0 && close(joined)) {
+                handle(joined);
+            }
+            try {
+                return joined.failedIndex.get(remainingNanos > 0 ? remainingNanos : sliceNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // expired, or handled by another thread: look again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (close(joined)) {
+                    joined.failedIndex.complete(0);
+                }
+                return 0;
+            } catch (ExecutionException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return whether the caller closed the window and has to handle it
+     */
+    private synchronized boolean close(Window expired) {
+        if (this.window != expired) {
+            return false;
+        }
+        this.window = null;
+        return true;
+    }
+
+    private void handle(Window closed) {
+        int failedIndex = 0;
+        try {
+            failedIndex = this.listener.consume(new ArrayList<>(closed.messages)).getFailedIndex();
+        } catch (Exception e) {
+            BatchListenerFailedException failedException = BatchListenerFailedException.find(e);
+            failedIndex = failedException != null ? failedException.getIndex() : 0;
+        } finally {
+            closed.failedIndex.complete(failedIndex);
+        }
+    }
+
+    private static final class Window {
+
+        private final long deadlineNanos;
+        private final List<MessageExt> messages = new ArrayList<>();
+        private final CompletableFuture<Integer> failedIndex = new CompletableFuture<>();
+
+        private Window(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.springframework.rocket.listener;
+
+import org.springframework.util.Assert;
+
+/**
+ * Outcome of a batch handed to {@link BatchRocketMessageListener#consume(java.util.List)}: either
+ * every message was consumed, or the messages before a failed one were. Like a
+ * {@link BatchListenerFailedException}, the failed message and the ones after it are consumed
+ * again, without an exception thrown for it. A broadcasting consumer drops them instead, the
+ * container logs a warning with their ids.
+ */
+public final class BatchConsumeResult {
+
+    private static final BatchConsumeResult CONSUMED = new BatchConsumeResult(-1);
+
+    private final int failedIndex;
+
+    private BatchConsumeResult(int failedIndex) {
+        this.failedIndex = failedIndex;
+    }
+
+    /**
+     * @return every message of the batch was consumed
+     */
+    public static BatchConsumeResult consumed() {
+        return CONSUMED;
+    }
+
+    /**
+     * @param index index of the first message of the batch not consumed
+     * @return the messages before {@code index} were consumed
+     */
+    public static BatchConsumeResult failedAt(int index) {
+        Assert.isTrue(index >= 0, "index must not be negative");
+        return new BatchConsumeResult(index);
+    }
+
+    public boolean isConsumed() {
+        return this.failedIndex < 0;
+    }
+
+    /**
+     * @return index of the first message not consumed, -1 when every message was
+     */
+    public int getFailedIndex() {
+        return this.failedIndex;
+    }
+
+    @Override
+    public String toString() {
+        return isConsumed() ? "BatchConsumeResult[consumed]" : "BatchConsumeResult[failedAt=" + this.failedIndex + "]";
+    }
+}
@@ -0,0 +1,46 @@
+package org.springframework.rocket.listener;
+
+import lombok.Getter;
+import org.springframework.rocket.RocketException;
+
+/**
+ * Thrown by a batch listener to tell which message of the batch failed. The messages before
+ * it are acknowledged and only the failed message and the ones after it are consumed again,
+ * instead of the whole batch. The exception is also found when wrapped by another one.
+ */
+@Getter
+public class BatchListenerFailedException extends RocketException {
+
+    /**
+     * index of the failed message in the batch passed to the listener
+     */
+    private final int index;
+
+    public BatchListenerFailedException(String message, int index) {
+        super(message);
+        this.index = index;
+    }
+
+    public BatchListenerFailedException(String message, Throwable cause, int index) {
+        super(message, cause);
+        this.index = index;
+    }
+
+    /**
+     * @param throwable an exception thrown by a listener
+     * @return the {@link BatchListenerFailedException} in the cause chain, or null
+     */
+    static BatchListenerFailedException find(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null) {
+            if (cause instanceof BatchListenerFailedException batchListenerFailedException) {
+                return batchListenerFailedException;
+            }
+            if (cause.getCause() == cause) {
+                return null;
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+}
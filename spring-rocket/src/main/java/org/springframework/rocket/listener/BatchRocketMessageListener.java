@@ -8,4 +8,34 @@ import java.util.List;
 public interface BatchRocketMessageListener extends MessageListener {
 
     void onMessage(List<Message> rocketMessages);
+
+    /**
+     * Consume a batch and tell how far it was consumed, the container calls this method. A listener
+     * acknowledging part of a batch overrides it, or implements {@link Partial}, instead of throwing
+     * a {@link BatchListenerFailedException}.
+     * @param rocketMessages the messages
+     * @return the outcome, {@link BatchConsumeResult#consumed()} once {@link #onMessage(List)} returned
+     */
+    default BatchConsumeResult consume(List<Message> rocketMessages) {
+        onMessage(rocketMessages);
+        return BatchConsumeResult.consumed();
+    }
+
+    /**
+     * A {@link BatchRocketMessageListener} returning the outcome of each batch.
+     */
+    @FunctionalInterface
+    interface Partial extends BatchRocketMessageListener {
+
+        @Override
+        BatchConsumeResult consume(List<Message> rocketMessages);
+
+        @Override
+        default void onMessage(List<Message> rocketMessages) {
+            BatchConsumeResult result = consume(rocketMessages);
+            if (!result.isConsumed()) {
+                throw new BatchListenerFailedException("batch failed at index " + result.getFailedIndex(), result.getFailedIndex());
+            }
+        }
+    }
 }
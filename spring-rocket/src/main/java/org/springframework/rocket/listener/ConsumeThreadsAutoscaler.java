@@ -0,0 +1,205 @@
+package org.springframework.rocket.listener;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.rocket.event.ConsumeThreadsResizedEvent;
+import org.springframework.util.Assert;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resizes the consume thread pool of a push consumer between its {@code consumeThreadMin} and
+ * {@code consumeThreadMax - 1} at a fixed interval, the client only accepts a core pool size below
+ * {@code consumeThreadMax}, so the two must differ by more than one. The consumer settings are
+ * left as configured.
+ * <p>
+ * Each interval it looks at the backlog, the messages stored after the ones consumed, the share of
+ * the pool's time spent in the listener, and the system load per processor. The pool grows by
+ * half when the backlog exceeds the pool size while the threads are busy and the load leaves room,
+ * and shrinks by a quarter when the threads are mostly idle or the processors are overloaded.
+ * Every decision is counted and kept in the getters, and a {@link ConsumeThreadsResizedEvent}
+ * is published for each resize.
+ */
+@Slf4j
+public class ConsumeThreadsAutoscaler {
+
+    private static final double SCALE_UP_UTILIZATION = 0.75;
+    private static final double SCALE_DOWN_UTILIZATION = 0.3;
+    private static final double MAX_LOAD_PER_PROCESSOR = 0.9;
+
+    private final MessageListenerContainer container;
+    @Getter
+    private final int minThreads;
+    @Getter
+    private final int maxThreads;
+    @Getter
+    private final long intervalMillis;
+
+    @Getter
+    private volatile int threads;
+    @Getter
+    private volatile long backlog;
+    @Getter
+    private volatile double utilization;
+    @Getter
+    private volatile double averageLatencyMillis;
+    @Getter
+    private volatile double loadPerProcessor = -1;
+
+    private final LongAdder scaleUps = new LongAdder();
+    private final LongAdder scaleDowns = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+
+    private final LongAdder consumedMessages = new LongAdder();
+    private final LongAdder consumeNanos = new LongAdder();
+    private final OperatingSystemMXBean operatingSystem;
+    private final Map<MessageQueue, Long> lags = new ConcurrentHashMap<>();
+    private DefaultMQPushConsumer consumer;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param container the container of the consumer, source of the published events
+     * @param consumer the consumer, not started yet
+     * @param intervalMillis interval between two decisions
+     */
+    ConsumeThreadsAutoscaler(MessageListenerContainer container, DefaultMQPushConsumer consumer, long intervalMillis) {
+        this(container, consumer, intervalMillis, ManagementFactory.getOperatingSystemMXBean());
+    }
+
+    ConsumeThreadsAutoscaler(MessageListenerContainer container, DefaultMQPushConsumer consumer, long intervalMillis,
+                             OperatingSystemMXBean operatingSystem) {
+        Assert.state(consumer.getConsumeThreadMax() - 1 > consumer.getConsumeThreadMin(),
+                () -> "Consume threads of group " + container.getGroupId() + " cannot be resized, consumeThreadMax "
+                        + consumer.getConsumeThreadMax() + " must exceed consumeThreadMin " + consumer.getConsumeThreadMin() + " by more than one");
+        this.container = container;
+        this.minThreads = consumer.getConsumeThreadMin();
+        this.maxThreads = consumer.getConsumeThreadMax() - 1;
+        this.intervalMillis = intervalMillis;
+        this.operatingSystem = operatingSystem;
+        this.threads = this.minThreads;
+    }
+
+    /**
+     * Record the time the listener took for a delivered batch, and the backlog of its queue: the
+     * client stamps each pulled message with the max offset of its queue.
+     */
+    void record(List<MessageExt> messages, long nanos) {
+        this.consumedMessages.add(messages.size());
+        this.consumeNanos.add(nanos);
+        if (messages.isEmpty()) {
+            return;
+        }
+        MessageExt last = messages.get(messages.size() - 1);
+        String maxOffset = last.getProperty(MessageConst.PROPERTY_MAX_OFFSET);
+        if (maxOffset != null) {
+            MessageQueue messageQueue = new MessageQueue(last.getTopic(), last.getBrokerName(), last.getQueueId());
+            this.lags.put(messageQueue, Math.max(0, Long.parseLong(maxOffset) - last.getQueueOffset() - 1));
+        }
+    }
+
+    void start(DefaultMQPushConsumer consumer, ApplicationEventPublisher applicationEventPublisher) {
+        this.consumer = consumer;
+        this.applicationEventPublisher = applicationEventPublisher;
+        String groupId = this.container.getGroupId();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rocket-consume-autoscaler-" + groupId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::scale, this.intervalMillis, this.intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    public long getScaleUps() {
+        return this.scaleUps.sum();
+    }
+
+    public long getScaleDowns() {
+        return this.scaleDowns.sum();
+    }
+
+    public long getHolds() {
+        return this.holds.sum();
+    }
+
+    void scale() {
+        try {
+            doScale();
+        } catch (Exception e) {
+            log.warn("scale consume threads of group {} failed", this.container.getGroupId(), e);
+        }
+    }
+
+    private void doScale() {
+        int current = this.threads;
+        long messages = this.consumedMessages.sumThenReset();
+        long nanos = this.consumeNanos.sumThenReset();
+
+        // only the queues delivered since the previous decision, an idle queue has no backlog
+        long backlog = 0;
+        for (MessageQueue messageQueue : this.lags.keySet()) {
+            Long lag = this.lags.remove(messageQueue);
+            backlog += lag != null ? lag : 0;
+        }
+        this.backlog = backlog;
+        this.utilization = (double) nanos / TimeUnit.MILLISECONDS.toNanos(this.intervalMillis) / current;
+        this.averageLatencyMillis = messages == 0 ? 0 : nanos / 1_000_000.0 / messages;
+        double systemLoad = this.operatingSystem.getSystemLoadAverage();
+        this.loadPerProcessor = systemLoad < 0 ? -1 : systemLoad / this.operatingSystem.getAvailableProcessors();
+
+        boolean overloaded = this.loadPerProcessor > MAX_LOAD_PER_PROCESSOR;
+        int target = current;
+        String reason;
+        if (overloaded) {
+            target = Math.max(this.minThreads, current - Math.max(1, current / 4));
+            reason = "processors overloaded";
+        } else if (this.backlog > current && this.utilization >= SCALE_UP_UTILIZATION) {
+            target = Math.min(this.maxThreads, current + Math.max(1, current / 2));
+            reason = "backlog with busy threads";
+        } else if (this.utilization < SCALE_DOWN_UTILIZATION) {
+            target = Math.max(this.minThreads, current - Math.max(1, current / 4));
+            reason = "idle threads";
+        } else {
+            reason = "steady";
+        }
+
+        if (target > current) {
+            this.scaleUps.increment();
+        } else if (target < current) {
+            this.scaleDowns.increment();
+        } else {
+            this.holds.increment();
+        }
+        log.debug("consume threads of group {}: {} -> {} ({}), backlog {}, utilization {}, latency {}ms, load {}",
+                this.container.getGroupId(), current, target, reason, this.backlog, this.utilization, this.averageLatencyMillis, this.loadPerProcessor);
+        if (target == current) {
+            return;
+        }
+        this.consumer.updateCorePoolSize(target);
+        this.threads = target;
+        if (this.applicationEventPublisher != null) {
+            this.applicationEventPublisher.publishEvent(new ConsumeThreadsResizedEvent(this.container, current, target, reason,
+                    this.backlog, this.utilization, this.averageLatencyMillis, this.loadPerProcessor));
+        }
+    }
+}
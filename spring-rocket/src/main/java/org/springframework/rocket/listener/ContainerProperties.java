@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.rocket.core.FilterExpressionType;
 
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 @Setter
 @Getter
@@ -21,6 +22,37 @@ public class ContainerProperties {
 
     private Object messageListener;
 
+    /**
+     * Executor of the messages consumed in parallel, see {@code consumeParallelism} of the consumer
+     * properties. When not set the container uses a virtual thread per message where the runtime
+     * supports it, a cached thread pool otherwise, and shuts it down on stop.
+     */
+    private Executor consumeExecutor;
+
+    /**
+     * Maximum number of messages consumed per second. The container suspends the consumer once
+     * the budget is spent instead of blocking the consume threads, until the overspent budget is
+     * paid back. Concurrent listeners still consume what was pulled before the suspension, orderly
+     * listeners put it back on their queue for the time of the debt.
+     */
+    private Double maxMessagesPerSecond;
+
+    /**
+     * Maximum size of the message bodies consumed per second, enforced like {@link #maxMessagesPerSecond}.
+     */
+    private Long maxBytesPerSecond;
+
+    /**
+     * Pauses the container while a saturation signal is high, not paused automatically when not set.
+     */
+    private BackpressurePolicy backpressurePolicy;
+
+    /**
+     * Takes the messages a pull listener container gave up on after {@code retries}, they are
+     * logged and skipped when not set.
+     */
+    private DeadLetterHandler deadLetterHandler;
+
     public void updateContainerProperties() {
 
     }
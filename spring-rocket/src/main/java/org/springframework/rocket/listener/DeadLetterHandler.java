@@ -0,0 +1,54 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.MixAll;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+
+/**
+ * Takes the messages a pull listener container gave up on, once they failed more than the
+ * {@code retries} of its consumer properties. The broker does it for a push consumer, a pull
+ * consumer has no way to send a message back.
+ */
+@FunctionalInterface
+public interface DeadLetterHandler {
+
+    /**
+     * @param groupId group of the container
+     * @param message the message that failed
+     * @param cause the last failure of the message
+     * @throws Exception when the message could not be taken, it is consumed again
+     */
+    void handle(String groupId, MessageExt message, Exception cause) throws Exception;
+
+    /**
+     * @param producer started producer that sends the messages
+     * @return handler that sends the messages to the dead letter topic of the group,
+     * {@code %DLQ%<groupId>}, where the broker puts the ones of a push consumer
+     */
+    static DeadLetterHandler deadLetterQueue(MQProducer producer) {
+        Assert.notNull(producer, "producer must not be null");
+        return (groupId, message, cause) -> {
+            Message deadLetter = new Message(MixAll.getDLQTopic(groupId), message.getBody());
+            MessageAccessor.setProperties(deadLetter, new HashMap<>(message.getProperties()));
+            MessageAccessor.clearProperty(deadLetter, MessageConst.PROPERTY_DELAY_TIME_LEVEL);
+            MessageAccessor.clearProperty(deadLetter, MessageConst.PROPERTY_MIN_OFFSET);
+            MessageAccessor.clearProperty(deadLetter, MessageConst.PROPERTY_MAX_OFFSET);
+            MessageAccessor.putProperty(deadLetter, MessageConst.PROPERTY_RETRY_TOPIC, message.getTopic());
+            MessageAccessor.putProperty(deadLetter, MessageConst.PROPERTY_ORIGIN_MESSAGE_ID, message.getMsgId());
+            SendResult sendResult = producer.send(deadLetter);
+            if (sendResult.getSendStatus() != SendStatus.SEND_OK) {
+                throw new RocketException("send message " + message.getMsgId() + " to " + deadLetter.getTopic()
+                        + " ended with " + sendResult.getSendStatus());
+            }
+        };
+    }
+}
@@ -1,30 +1,98 @@
 package org.springframework.rocket.listener;
 
+import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
 import org.apache.rocketmq.client.consumer.MQPushConsumer;
+import org.apache.rocketmq.client.consumer.MessageQueueListener;
 import org.apache.rocketmq.client.consumer.MessageSelector;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyStatus;
+import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
+import org.apache.rocketmq.client.consumer.listener.MessageListenerOrderly;
 import org.apache.rocketmq.common.filter.ExpressionType;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.remoting.protocol.heartbeat.MessageModel;
 import org.springframework.rocket.client.PushConsumerProperties;
 import org.springframework.rocket.client.RocketPushConsumerFactory;
+import org.springframework.rocket.event.ContainerBackpressureEvent;
 import org.springframework.rocket.support.PropertiesUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
+@Slf4j
 public class DefaultRocketMessageListenerContainer extends AbstractRocketMessageListenerContainer {
 
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+    /**
+     * the container was paused by {@link #pause()}
+     */
+    public static final String SUSPEND_REASON_PAUSE = "pause";
+    private static final long DEFAULT_AGGREGATE_WINDOW_MILLIS = 100;
+    private static final long DEFAULT_DEDUP_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int DEFAULT_DEDUP_CAPACITY = 100_000;
+    /**
+     * the rate limit of the container was exceeded
+     */
+    public static final String SUSPEND_REASON_RATE_LIMIT = "rateLimit";
+    /**
+     * the saturation signal of the {@link BackpressurePolicy} crossed the pause threshold
+     */
+    public static final String SUSPEND_REASON_BACKPRESSURE = "backpressure";
+
     private final RocketPushConsumerFactory consumerFactory;
     private final Lock lockOnPause = new ReentrantLock();
     private final Condition pausedCondition = this.lockOnPause.newCondition();
     private MQPushConsumer consumer;
+    private ExecutorService ownConsumeExecutor;
+    /**
+     * Resizes the consume threads when {@code consumeThreadsAutoscaleIntervalMillis} is set
+     */
+    @Getter
+    private ConsumeThreadsAutoscaler autoscaler;
+    /**
+     * Drops redelivered messages when {@code dedupKey} is set
+     */
+    @Getter
+    private MessageDeduplicator deduplicator;
     @Setter
     private Boolean concurrency;
+    /**
+     * The consumer pulls while no reason to suspend it is left
+     */
+    private final Set<String> suspendReasons = new HashSet<>();
+    /**
+     * Messages already pulled wait for the listener while paused or under backpressure
+     */
+    private volatile boolean dispatchHeld;
+    /**
+     * How long pulled messages wait at most while held, half the consume timeout: the client
+     * sends back messages held past the timeout, and they would be consumed twice
+     */
+    private long maxDispatchHoldNanos = Long.MAX_VALUE;
+    private TokenBucket messageRateLimit;
+    private TokenBucket byteRateLimit;
+    private ScheduledExecutorService scheduler;
 
     public DefaultRocketMessageListenerContainer(RocketPushConsumerFactory consumerFactory, ContainerProperties containerProperties) {
         super(containerProperties);
@@ -46,47 +114,272 @@ public class DefaultRocketMessageListenerContainer extends AbstractRocketMessage
                 && MessageModel.BROADCASTING.equals(defaultMQPushConsumer.getMessageModel())) {
             throw new IllegalStateException("messageModel BROADCASTING does not support ORDERLY message");
         }
+        if (this.consumer instanceof DefaultMQPushConsumer defaultMQPushConsumer) {
+            this.maxDispatchHoldNanos = TimeUnit.MINUTES.toNanos(defaultMQPushConsumer.getConsumeTimeout()) / 2;
+        }
+
+        Long autoscaleIntervalMillis = PropertiesUtils.extractAsLong(consumerProperties, PushConsumerProperties.CONSUME_THREADS_AUTOSCALE_INTERVAL_MILLIS);
+        if (autoscaleIntervalMillis != null && autoscaleIntervalMillis > 0) {
+            Assert.state(this.consumer instanceof DefaultMQPushConsumer, "Autoscaling consume threads requires a DefaultMQPushConsumer");
+            this.autoscaler = new ConsumeThreadsAutoscaler(this, (DefaultMQPushConsumer) this.consumer, autoscaleIntervalMillis);
+        }
+
+        Double maxMessagesPerSecond = this.containerProperties.getMaxMessagesPerSecond();
+        Long maxBytesPerSecond = this.containerProperties.getMaxBytesPerSecond();
+        this.messageRateLimit = maxMessagesPerSecond != null && maxMessagesPerSecond > 0 ? new TokenBucket(maxMessagesPerSecond) : null;
+        this.byteRateLimit = maxBytesPerSecond != null && maxBytesPerSecond > 0 ? new TokenBucket(maxBytesPerSecond) : null;
+        BackpressurePolicy backpressurePolicy = this.containerProperties.getBackpressurePolicy();
+        if (backpressurePolicy != null) {
+            backpressurePolicy.validate();
+        }
+        if (this.messageRateLimit != null || this.byteRateLimit != null || backpressurePolicy != null) {
+            String groupId = getGroupId();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rocket-container-" + groupId);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
 
         subscribeTopic();
         registerMessageListener(consumerProperties);
 
         this.consumer.start();
+        if (this.autoscaler != null) {
+            this.autoscaler.start((DefaultMQPushConsumer) this.consumer, this.applicationEventPublisher);
+        }
+        if (backpressurePolicy != null) {
+            this.scheduler.scheduleWithFixedDelay(() -> checkSaturation(backpressurePolicy),
+                    backpressurePolicy.getCheckIntervalMillis(), backpressurePolicy.getCheckIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
         setRunning(true);
     }
 
     @Override
     protected void doStop() {
         setRunning(false);
+        // let the listeners waiting at the gate finish, the consumer waits for them on shutdown
+        signalDispatch();
+        if (this.autoscaler != null) {
+            this.autoscaler.stop();
+        }
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
         if (this.consumer != null) {
             this.consumer.shutdown();
         }
+        synchronized (this.suspendReasons) {
+            this.suspendReasons.clear();
+            this.dispatchHeld = false;
+        }
+        if (this.ownConsumeExecutor != null) {
+            this.ownConsumeExecutor.shutdown();
+            this.ownConsumeExecutor = null;
+        }
     }
 
 
     @Override
     protected void doPause() {
         setPaused(true);
-        if (this.consumer != null) {
-            this.consumer.suspend();
-        }
+        suspend(SUSPEND_REASON_PAUSE);
     }
 
     @Override
     protected void doResume() {
-        if (this.consumer != null) {
-            this.consumer.resume();
-        }
         setPaused(false);
+        resume(SUSPEND_REASON_PAUSE);
+    }
+
+    /**
+     * Stop pulling messages for the given reason, until it is resumed for every reason.
+     * @param reason why the consumer is suspended
+     * @return whether the consumer was not suspended for this reason yet
+     */
+    public boolean suspend(String reason) {
+        synchronized (this.suspendReasons) {
+            boolean added = this.suspendReasons.add(reason);
+            if (added && this.suspendReasons.size() == 1 && this.consumer != null) {
+                this.consumer.suspend();
+            }
+            this.dispatchHeld = holdsDispatch();
+            return added;
+        }
+    }
+
+    /**
+     * Resume pulling messages for the given reason, the consumer pulls again once no reason is left.
+     * @param reason the reason the consumer was suspended for
+     * @return whether the consumer was suspended for this reason
+     */
+    public boolean resume(String reason) {
+        synchronized (this.suspendReasons) {
+            boolean removed = this.suspendReasons.remove(reason);
+            if (removed && this.suspendReasons.isEmpty() && this.consumer != null) {
+                this.consumer.resume();
+            }
+            this.dispatchHeld = holdsDispatch();
+            if (!this.dispatchHeld) {
+                signalDispatch();
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * @return the reasons the consumer is currently suspended for
+     */
+    public Set<String> getSuspendReasons() {
+        synchronized (this.suspendReasons) {
+            return Set.copyOf(this.suspendReasons);
+        }
+    }
+
+    /**
+     * A rate limit only stops pulling, a pause or backpressure also holds back what was pulled.
+     */
+    private boolean holdsDispatch() {
+        return this.suspendReasons.contains(SUSPEND_REASON_PAUSE) || this.suspendReasons.contains(SUSPEND_REASON_BACKPRESSURE);
+    }
+
+    private void signalDispatch() {
         this.lockOnPause.lock();
         try {
             // signal the lock's condition to continue.
-            this.pausedCondition.signal();
+            this.pausedCondition.signalAll();
         }
         finally {
             this.lockOnPause.unlock();
         }
     }
 
+    /**
+     * The gate in front of the listener: wait while the dispatch is held and the container runs,
+     * at most {@link #maxDispatchHoldNanos}. The batch is consumed then, the consumer stopped
+     * pulling when the dispatch was held so no other batch follows it.
+     */
+    private void awaitDispatch() {
+        if (!this.dispatchHeld) {
+            return;
+        }
+        long remainingNanos = this.maxDispatchHoldNanos;
+        this.lockOnPause.lock();
+        try {
+            while (this.dispatchHeld && isRunning()) {
+                if (remainingNanos <= 0) {
+                    log.warn("group {} held a delivered batch for half the consume timeout, consume it before it is sent back", getGroupId());
+                    return;
+                }
+                remainingNanos = this.pausedCondition.awaitNanos(remainingNanos);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            this.lockOnPause.unlock();
+        }
+    }
+
+    private <S> S dispatch(List<MessageExt> messages, Supplier<S> listener) {
+        awaitDispatch();
+        chargeRateLimit(messages);
+        long start = System.nanoTime();
+        try {
+            return listener.get();
+        } finally {
+            afterConsume(messages, System.nanoTime() - start);
+        }
+    }
+
+    private void checkSaturation(BackpressurePolicy policy) {
+        double saturation;
+        try {
+            saturation = policy.getSignal().getSaturation();
+        } catch (Exception e) {
+            log.warn("read saturation of group {} failed", getGroupId(), e);
+            return;
+        }
+        boolean changed = false;
+        boolean paused = false;
+        if (saturation >= policy.getPauseThreshold()) {
+            changed = suspend(SUSPEND_REASON_BACKPRESSURE);
+            paused = true;
+        } else if (saturation <= policy.getResumeThreshold()) {
+            changed = resume(SUSPEND_REASON_BACKPRESSURE);
+        }
+        if (changed) {
+            log.info("{} group {} at saturation {}", paused ? "pause" : "resume", getGroupId(), saturation);
+            if (this.applicationEventPublisher != null) {
+                this.applicationEventPublisher.publishEvent(new ContainerBackpressureEvent(this, paused, saturation));
+            }
+        }
+    }
+
+    /**
+     * Record a consumed batch, once it completed.
+     */
+    private void afterConsume(List<MessageExt> messages, long nanos) {
+        if (this.autoscaler != null) {
+            this.autoscaler.record(messages, nanos);
+        }
+    }
+
+    /**
+     * Charge the tokens of a batch that reaches the listener. When the limits run into debt,
+     * pulling is suspended and a resume is scheduled for when the debt is paid, the consume
+     * thread is never held.
+     */
+    private void chargeRateLimit(List<MessageExt> messages) {
+        if (this.messageRateLimit == null && this.byteRateLimit == null) {
+            return;
+        }
+        long waitMillis = 0;
+        if (this.messageRateLimit != null) {
+            waitMillis = this.messageRateLimit.take(messages.size());
+        }
+        if (this.byteRateLimit != null) {
+            long bytes = 0;
+            for (MessageExt message : messages) {
+                bytes += message.getBody() == null ? 0 : message.getBody().length;
+            }
+            waitMillis = Math.max(waitMillis, this.byteRateLimit.take(bytes));
+        }
+        if (waitMillis > 0 && suspend(SUSPEND_REASON_RATE_LIMIT)) {
+            scheduleRateLimitResume(waitMillis);
+        }
+    }
+
+    /**
+     * @return how long the limits stay in debt, in milliseconds, 0 if not in debt
+     */
+    private long rateLimitDebtMillis() {
+        return Math.max(
+                this.messageRateLimit != null ? this.messageRateLimit.take(0) : 0,
+                this.byteRateLimit != null ? this.byteRateLimit.take(0) : 0);
+    }
+
+    /**
+     * Batches delivered before the suspension are still consumed and charged, so the resume waits
+     * for the debt they added as well.
+     */
+    private void scheduleRateLimitResume(long waitMillis) {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            long debtMillis = rateLimitDebtMillis();
+            if (debtMillis > 0) {
+                scheduleRateLimitResume(debtMillis);
+            } else {
+                resume(SUSPEND_REASON_RATE_LIMIT);
+            }
+        }, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
     @SneakyThrows
     private void subscribeTopic() {
         String topic = this.containerProperties.getTopic();
@@ -99,17 +392,110 @@ public class DefaultRocketMessageListenerContainer extends AbstractRocketMessage
         }
     }
 
+    /**
+     * A broadcasting consumer does not consume failed messages again, it drops them: those after
+     * the ack index, or all of them for {@link ConsumeConcurrentlyStatus#RECONSUME_LATER}.
+     */
+    private void warnDropped(List<MessageExt> messages, ConsumeConcurrentlyContext context, ConsumeConcurrentlyStatus status) {
+        int firstDropped = status == ConsumeConcurrentlyStatus.RECONSUME_LATER ? 0 : Math.max(0, context.getAckIndex() + 1);
+        if (firstDropped < messages.size()) {
+            log.warn("group {} consumes in BROADCASTING mode, {} failed messages are dropped: {}", getGroupId(), messages.size() - firstDropped,
+                    messages.subList(firstDropped, messages.size()).stream().map(MessageExt::getMsgId).toList());
+        }
+    }
+
     private void registerMessageListener(Map<String, Object> consumerProperties) {
         MessageListener messageListener = (MessageListener) containerProperties.getMessageListener();
+        String dedupKey = PropertiesUtils.extractAsString(consumerProperties, PushConsumerProperties.DEDUP_KEY);
+        if (StringUtils.hasText(dedupKey)) {
+            Long dedupTtlMillis = PropertiesUtils.extractAsLong(consumerProperties, PushConsumerProperties.DEDUP_TTL_MILLIS);
+            Integer dedupCapacity = PropertiesUtils.extractAsInteger(consumerProperties, PushConsumerProperties.DEDUP_CAPACITY);
+            this.deduplicator = new MessageDeduplicator(dedupKey, dedupTtlMillis != null ? dedupTtlMillis : DEFAULT_DEDUP_TTL_MILLIS,
+                    dedupCapacity != null ? dedupCapacity : DEFAULT_DEDUP_CAPACITY);
+            messageListener = this.deduplicator.decorate(messageListener);
+        }
+        Integer parallelism = PropertiesUtils.extractAsInteger(consumerProperties, PushConsumerProperties.CONSUME_PARALLELISM);
+        boolean parallel = parallelism != null && parallelism > 0 && messageListener instanceof RocketMessageListener;
+        Integer aggregateBatchSize = PropertiesUtils.extractAsInteger(consumerProperties, PushConsumerProperties.AGGREGATE_BATCH_SIZE);
+        Long aggregateWindowMillis = PropertiesUtils.extractAsLong(consumerProperties, PushConsumerProperties.AGGREGATE_WINDOW_MILLIS);
+        boolean aggregated = aggregateBatchSize != null && aggregateBatchSize > 0 && messageListener instanceof BatchRocketMessageListener;
+        if (aggregated && aggregateWindowMillis == null) {
+            aggregateWindowMillis = DEFAULT_AGGREGATE_WINDOW_MILLIS;
+        }
         if (Boolean.TRUE.equals(this.concurrency)) {
-            this.consumer.registerMessageListener(RocketMessageListenerFactory.createConcurrently(messageListener,
-                    PropertiesUtils.extractAsInteger(consumerProperties, PushConsumerProperties.RETRY_DELAY_LEVEL)));
+            Integer retryDelayLevel = PropertiesUtils.extractAsInteger(consumerProperties, PushConsumerProperties.RETRY_DELAY_LEVEL);
+            MessageListenerConcurrently listener;
+            if (aggregated) {
+                listener = RocketMessageListenerFactory.createConcurrently((BatchRocketMessageListener) messageListener, retryDelayLevel,
+                        aggregateBatchSize, aggregateWindowMillis);
+            } else if (messageListener instanceof AsyncRocketMessageListener asyncListener && asyncListener.isAsync()) {
+                listener = RocketMessageListenerFactory.createConcurrently(asyncListener, retryDelayLevel,
+                        parallelism != null && parallelism > 0 ? parallelism : Integer.MAX_VALUE);
+            } else if (parallel) {
+                listener = RocketMessageListenerFactory.createConcurrently((RocketMessageListener) messageListener, retryDelayLevel, consumeExecutor(), parallelism);
+            } else {
+                listener = RocketMessageListenerFactory.createConcurrently(messageListener, retryDelayLevel);
+            }
+            MessageListenerConcurrently delegate = listener;
+            boolean broadcasting = this.consumer instanceof DefaultMQPushConsumer defaultMQPushConsumer
+                    && MessageModel.BROADCASTING.equals(defaultMQPushConsumer.getMessageModel());
+            this.consumer.registerMessageListener((MessageListenerConcurrently) (messages, context) -> {
+                ConsumeConcurrentlyStatus status = dispatch(messages, () -> delegate.consumeMessage(messages, context));
+                if (broadcasting) {
+                    warnDropped(messages, context, status);
+                }
+                return status;
+            });
         } else {
-            this.consumer.registerMessageListener(RocketMessageListenerFactory.createOrderly(messageListener,
-                    PropertiesUtils.extractAsLong(consumerProperties, PushConsumerProperties.SUSPEND_CURRENT_QUEUE_TIME_MILLIS)));
+            Long suspendCurrentQueueTimeMillis = PropertiesUtils.extractAsLong(consumerProperties, PushConsumerProperties.SUSPEND_CURRENT_QUEUE_TIME_MILLIS);
+            MessageListenerOrderly listener;
+            if (aggregated) {
+                listener = RocketMessageListenerFactory.createOrderly((BatchRocketMessageListener) messageListener, suspendCurrentQueueTimeMillis,
+                        aggregateBatchSize, aggregateWindowMillis);
+            } else if (parallel) {
+                // parallelism spans the keys of one delivered batch, nothing runs in parallel with batches of one message
+                Assert.state(!(this.consumer instanceof DefaultMQPushConsumer defaultMQPushConsumer) || defaultMQPushConsumer.getConsumeMessageBatchMaxSize() > 1,
+                        "consumeParallelism of an orderly listener requires consumeBatchSize above 1, group " + getGroupId());
+                listener = RocketMessageListenerFactory.createOrderly((RocketMessageListener) messageListener, suspendCurrentQueueTimeMillis, consumeExecutor(), parallelism);
+                if (listener instanceof MessageQueueListener queueListener && this.consumer instanceof DefaultMQPushConsumer defaultMQPushConsumer) {
+                    MessageQueueListener configured = defaultMQPushConsumer.getMessageQueueListener();
+                    defaultMQPushConsumer.setMessageQueueListener(configured == null ? queueListener : (topic, mqAll, mqDivided) -> {
+                        configured.messageQueueChanged(topic, mqAll, mqDivided);
+                        queueListener.messageQueueChanged(topic, mqAll, mqDivided);
+                    });
+                }
+            } else {
+                listener = RocketMessageListenerFactory.createOrderly(messageListener, suspendCurrentQueueTimeMillis);
+            }
+            MessageListenerOrderly delegate = listener;
+            boolean rateLimited = this.messageRateLimit != null || this.byteRateLimit != null;
+            this.consumer.registerMessageListener((MessageListenerOrderly) (messages, context) -> {
+                // an orderly queue is suspended locally, so batches pulled over the limit go back to it
+                // for the time of the debt instead of holding the consume thread
+                long debtMillis = rateLimited ? rateLimitDebtMillis() : 0;
+                if (debtMillis > 0) {
+                    context.setSuspendCurrentQueueTimeMillis(debtMillis);
+                    return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
+                }
+                return dispatch(messages, () -> delegate.consumeMessage(messages, context));
+            });
         }
     }
 
+    private Executor consumeExecutor() {
+        Executor executor = this.containerProperties.getConsumeExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            this.ownConsumeExecutor = (ExecutorService) ReflectionUtils.invokeMethod(NEW_VIRTUAL_THREAD_EXECUTOR, null);
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rocket-consume-" + getGroupId() + "-");
+            threadFactory.setDaemon(true);
+            this.ownConsumeExecutor = Executors.newCachedThreadPool(threadFactory);
+        }
+        return this.ownConsumeExecutor;
+    }
 
     private void configure(Map<String, Object> consumerProperties) {
         // consumer
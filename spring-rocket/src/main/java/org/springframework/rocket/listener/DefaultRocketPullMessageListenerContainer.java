@@ -0,0 +1,463 @@
+package org.springframework.rocket.listener;
+
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.client.consumer.MessageSelector;
+import org.apache.rocketmq.common.filter.ExpressionType;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.remoting.protocol.NamespaceUtil;
+import org.springframework.rocket.RocketException;
+import org.springframework.rocket.client.PullConsumerProperties;
+import org.springframework.rocket.client.RocketPullConsumerFactory;
+import org.springframework.rocket.support.PropertiesUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener container driven by a {@link LitePullConsumer}, polled by a dedicated thread.
+ * <p>
+ * Each poll returns up to {@code pullBatchSize} messages, the consumer prefetches within
+ * {@code pullThresholdForAll}, {@code pullThresholdForQueue} and {@code consumeMaxSpan}, and
+ * {@code pollIntervalMillis} spaces the polls. A batch listener receives the polled messages at
+ * once. Other listeners get them one by one on the poll thread, or on the consume executor with
+ * {@code consumeParallelism} set, a fixed pool of that many threads unless the container
+ * properties name one.
+ * <p>
+ * Unless {@code autoCommit} is set, the container commits the offsets of the consumed messages
+ * itself through {@link LitePullConsumer#commit(Map, boolean)}: after every poll, or once
+ * {@code commitBatchSize} messages were consumed or {@code commitIntervalMillis} passed. With
+ * {@code manualCommit} set it commits only when asked through {@link #commitAsync()}. When a
+ * message fails, the offsets before it are committed and its queue is sought back to it, so the
+ * failed message and the later ones of its queue are polled again. Once a message failed more
+ * than {@code retries} times, it goes to the {@link DeadLetterHandler} of the container
+ * properties and its queue continues after it.
+ * <p>
+ * The consumer has no rate limit, backpressure or orderly consumption, a container asked for
+ * one of them fails to start.
+ */
+@Slf4j
+public class DefaultRocketPullMessageListenerContainer extends AbstractRocketMessageListenerContainer {
+
+    private static final long FAILURE_BACKOFF_MILLIS = 1000;
+    private static final long PAUSED_CHECK_MILLIS = 100;
+
+    private final RocketPullConsumerFactory consumerFactory;
+    private LitePullConsumer consumer;
+    private Thread pollThread;
+    private Executor consumeExecutor;
+    private ExecutorService ownConsumeExecutor;
+
+    private boolean autoCommit;
+    private long pollIntervalMillis;
+    private int commitBatchSize;
+    private long commitIntervalMillis;
+    private int consumeParallelism;
+    private int retries;
+    private boolean manualCommit;
+    private String namespace;
+    @Setter
+    private Boolean concurrency;
+
+    /**
+     * Next offset to commit per queue, only accessed by the poll thread
+     */
+    private final Map<MessageQueue, Long> pendingOffsets = new HashMap<>();
+    private int pendingMessages;
+    private long lastCommitNanos;
+    /**
+     * Failures of the message a queue was sought back to, only accessed by the poll thread
+     */
+    private final Map<MessageQueue, Attempts> failedAttempts = new HashMap<>();
+    private final Queue<CompletableFuture<Void>> commitRequests = new ConcurrentLinkedQueue<>();
+
+    public DefaultRocketPullMessageListenerContainer(RocketPullConsumerFactory consumerFactory, ContainerProperties containerProperties) {
+        super(containerProperties);
+        this.consumerFactory = consumerFactory;
+    }
+
+
+    /**
+     * Ask the poll thread to commit the offsets of the messages consumed so far, once the messages
+     * of its current poll were consumed. Not to be waited for by a listener, the poll thread only
+     * commits after the listener returned.
+     * @return completed once committed, exceptionally when the commit failed or the container stopped
+     */
+    public CompletableFuture<Void> commitAsync() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        this.commitRequests.add(future);
+        if (!isRunning() && this.commitRequests.remove(future)) {
+            future.completeExceptionally(new IllegalStateException("container of group " + getGroupId() + " is not running"));
+        }
+        return future;
+    }
+
+    @SneakyThrows
+    @Override
+    protected void doStart() {
+        Assert.state(this.containerProperties.getMaxMessagesPerSecond() == null && this.containerProperties.getMaxBytesPerSecond() == null,
+                "Pull listener container of group " + getGroupId() + " has no rate limit, space the polls with 'pollIntervalMillis' instead");
+        Assert.state(this.containerProperties.getBackpressurePolicy() == null,
+                "Pull listener container of group " + getGroupId() + " has no backpressure policy, it polls only once the listener returned");
+        Assert.state(!Boolean.FALSE.equals(this.concurrency),
+                "Pull listener container of group " + getGroupId() + " has no orderly consumption, use a push listener container");
+        Map<String, Object> consumerProperties = PropertiesUtils.asMap(this.containerProperties.getRocketConsumerProperties());
+        this.autoCommit = Boolean.TRUE.equals(PropertiesUtils.extractAsBoolean(consumerProperties, PullConsumerProperties.AUTO_COMMIT));
+        consumerProperties.put(PullConsumerProperties.AUTO_COMMIT, this.autoCommit);
+        Long pollInterval = PropertiesUtils.extractAsLong(consumerProperties, PullConsumerProperties.POLL_INTERVAL_MILLIS);
+        Integer commitBatch = PropertiesUtils.extractAsInteger(consumerProperties, PullConsumerProperties.COMMIT_BATCH_SIZE);
+        Long commitInterval = PropertiesUtils.extractAsLong(consumerProperties, PullConsumerProperties.COMMIT_INTERVAL_MILLIS);
+        Integer parallelism = PropertiesUtils.extractAsInteger(consumerProperties, PullConsumerProperties.CONSUME_PARALLELISM);
+        Integer retries = PropertiesUtils.extractAsInteger(consumerProperties, PullConsumerProperties.RETRIES);
+        this.pollIntervalMillis = pollInterval != null ? Math.max(0, pollInterval) : 0;
+        this.commitBatchSize = commitBatch != null ? Math.max(0, commitBatch) : 0;
+        this.commitIntervalMillis = commitInterval != null ? Math.max(0, commitInterval) : 0;
+        this.consumeParallelism = parallelism != null ? Math.max(0, parallelism) : 0;
+        this.retries = retries != null ? Math.max(0, retries) : -1;
+        this.manualCommit = Boolean.TRUE.equals(PropertiesUtils.extractAsBoolean(consumerProperties, PullConsumerProperties.MANUAL_COMMIT));
+        this.namespace = PropertiesUtils.extractAsString(consumerProperties, PullConsumerProperties.NAMESPACE);
+
+        Assert.state(this.consumerFactory != null, "No 'consumerFactory' set");
+        this.consumer = this.consumerFactory.create(this.getGroupId(), consumerProperties);
+        Assert.state(this.consumer != null, "Unable to create a consumer");
+        subscribeTopic();
+        if (this.consumeParallelism > 0 && this.containerProperties.getMessageListener() instanceof RocketMessageListener) {
+            this.consumeExecutor = consumeExecutor();
+        }
+
+        this.consumer.start();
+        this.lastCommitNanos = System.nanoTime();
+        setRunning(true);
+        this.pollThread = new Thread(this::pollLoop, "rocket-pull-" + getGroupId());
+        this.pollThread.start();
+    }
+
+    @Override
+    protected void doStop() {
+        setRunning(false);
+        if (this.pollThread != null) {
+            try {
+                // the poll thread commits what was consumed before it exits
+                this.pollThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.pollThread = null;
+        }
+        failCommitRequests(new IllegalStateException("container of group " + getGroupId() + " stopped"));
+        if (this.consumer != null) {
+            this.consumer.shutdown();
+        }
+        if (this.ownConsumeExecutor != null) {
+            this.ownConsumeExecutor.shutdown();
+            this.ownConsumeExecutor = null;
+        }
+        this.consumeExecutor = null;
+    }
+
+    @Override
+    protected void doPause() {
+        setPaused(true);
+    }
+
+    @Override
+    protected void doResume() {
+        setPaused(false);
+    }
+
+    @SneakyThrows
+    private void subscribeTopic() {
+        String topic = this.containerProperties.getTopic();
+        String filterExpression = this.containerProperties.getFilterExpression();
+
+        if (ExpressionType.isTagType(this.containerProperties.getFilterExpressionType())) {
+            this.consumer.subscribe(topic, filterExpression);
+        } else {
+            this.consumer.subscribe(topic, MessageSelector.bySql(filterExpression));
+        }
+    }
+
+    private Executor consumeExecutor() {
+        Executor executor = this.containerProperties.getConsumeExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rocket-pull-consume-" + getGroupId() + "-");
+        threadFactory.setDaemon(true);
+        this.ownConsumeExecutor = Executors.newFixedThreadPool(this.consumeParallelism, threadFactory);
+        return this.ownConsumeExecutor;
+    }
+
+    private void pollLoop() {
+        long lastPollNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(this.pollIntervalMillis);
+        while (isRunning()) {
+            try {
+                if (isPaused()) {
+                    commit(false);
+                    TimeUnit.MILLISECONDS.sleep(PAUSED_CHECK_MILLIS);
+                    continue;
+                }
+                long waitMillis = this.pollIntervalMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastPollNanos);
+                if (waitMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(waitMillis);
+                }
+                lastPollNanos = System.nanoTime();
+                List<MessageExt> messages = this.consumer.poll();
+                if (!messages.isEmpty()) {
+                    consume(messages);
+                }
+                commit(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("poll of group {} failed", getGroupId(), e);
+                sleepQuietly(FAILURE_BACKOFF_MILLIS);
+            }
+        }
+        try {
+            commit(true);
+        } catch (Exception e) {
+            log.error("commit of group {} failed on stop", getGroupId(), e);
+        }
+    }
+
+    private void consume(List<MessageExt> messages) {
+        Map<MessageQueue, Failure> failures;
+        Object listener = this.containerProperties.getMessageListener();
+        if (listener instanceof BatchRocketMessageListener batchListener) {
+            failures = consumeBatch(batchListener, messages);
+        } else if (this.consumeExecutor != null) {
+            failures = consumeInParallel((RocketMessageListener) listener, messages);
+        } else {
+            failures = consumeInOrder((RocketMessageListener) listener, messages);
+        }
+
+        Map<MessageQueue, Long> failedOffsets = new HashMap<>(failures.size());
+        boolean retrying = false;
+        for (Map.Entry<MessageQueue, Failure> entry : failures.entrySet()) {
+            long offset = failedOffset(entry.getKey(), entry.getValue());
+            retrying |= offset == entry.getValue().message().getQueueOffset();
+            failedOffsets.put(entry.getKey(), offset);
+        }
+        for (MessageExt message : messages) {
+            MessageQueue messageQueue = messageQueue(message);
+            Long failedOffset = failedOffsets.get(messageQueue);
+            if (failedOffset != null) {
+                this.pendingOffsets.put(messageQueue, failedOffset);
+            } else {
+                this.pendingOffsets.merge(messageQueue, message.getQueueOffset() + 1, Math::max);
+                this.pendingMessages++;
+                this.failedAttempts.remove(messageQueue);
+            }
+        }
+        if (failedOffsets.isEmpty()) {
+            return;
+        }
+        commit(true);
+        failedOffsets.forEach((messageQueue, offset) -> {
+            try {
+                this.consumer.seek(messageQueue, offset);
+            } catch (Exception e) {
+                log.warn("seek {} of group {} back to {} failed, the queue continues after it", messageQueue, getGroupId(), offset, e);
+            }
+        });
+        if (retrying) {
+            sleepQuietly(FAILURE_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * @return offset the queue of the failed message is sought back to, the one after the message
+     * once it was handed to the dead letter handler
+     */
+    private long failedOffset(MessageQueue messageQueue, Failure failure) {
+        MessageExt message = failure.message();
+        long offset = message.getQueueOffset();
+        if (this.retries < 0 || failure.cause() == null) {
+            return offset;
+        }
+        Attempts attempts = this.failedAttempts.get(messageQueue);
+        int failed = attempts != null && attempts.offset() == offset ? attempts.failed() + 1 : 1;
+        this.failedAttempts.put(messageQueue, new Attempts(offset, failed));
+        if (failed <= this.retries) {
+            return offset;
+        }
+        DeadLetterHandler deadLetterHandler = this.containerProperties.getDeadLetterHandler();
+        if (deadLetterHandler == null) {
+            log.error("message {} of group {} failed {} times, skipped without dead letter handler", message.getMsgId(), getGroupId(), failed);
+        } else {
+            try {
+                deadLetterHandler.handle(getGroupId(), message, failure.cause());
+                log.warn("message {} of group {} failed {} times, handed to the dead letter handler", message.getMsgId(), getGroupId(), failed);
+            } catch (Exception e) {
+                log.error("dead letter handler of group {} failed for message {}, it is consumed again", getGroupId(), message.getMsgId(), e);
+                return offset;
+            }
+        }
+        this.failedAttempts.remove(messageQueue);
+        return offset + 1;
+    }
+
+    private Map<MessageQueue, Failure> consumeBatch(BatchRocketMessageListener listener, List<MessageExt> messages) {
+        int failedIndex;
+        Exception cause;
+        try {
+            BatchConsumeResult result = listener.consume(new ArrayList<>(messages));
+            if (result.isConsumed()) {
+                return Map.of();
+            }
+            failedIndex = result.getFailedIndex();
+            log.warn("consume {} messages of group {} failed at index {}", messages.size(), getGroupId(), failedIndex);
+            cause = new RocketException("consume " + messages.size() + " messages failed at index " + failedIndex);
+        } catch (Exception e) {
+            BatchListenerFailedException failedException = BatchListenerFailedException.find(e);
+            failedIndex = failedException != null ? failedException.getIndex() : 0;
+            log.error("consume {} messages of group {} failed at index {}", messages.size(), getGroupId(), failedIndex, e);
+            cause = e;
+        }
+        if (failedIndex < 0 || failedIndex >= messages.size()) {
+            failedIndex = 0;
+        }
+        Map<MessageQueue, Failure> failures = new HashMap<>();
+        failures.put(messageQueue(messages.get(failedIndex)), new Failure(messages.get(failedIndex), cause));
+        // the later messages were not consumed, they do not count as failed
+        for (MessageExt message : messages.subList(failedIndex + 1, messages.size())) {
+            failures.merge(messageQueue(message), new Failure(message, null), Failure::first);
+        }
+        return failures;
+    }
+
+    private Map<MessageQueue, Failure> consumeInOrder(RocketMessageListener listener, List<MessageExt> messages) {
+        Map<MessageQueue, Failure> failures = new HashMap<>();
+        for (MessageExt message : messages) {
+            MessageQueue messageQueue = messageQueue(message);
+            if (failures.containsKey(messageQueue)) {
+                // polled again after the seek
+                continue;
+            }
+            try {
+                listener.onMessage(message);
+            } catch (Exception e) {
+                log.error("consume message {} of group {} failed", message.getMsgId(), getGroupId(), e);
+                failures.put(messageQueue, new Failure(message, e));
+            }
+        }
+        return failures;
+    }
+
+    private Map<MessageQueue, Failure> consumeInParallel(RocketMessageListener listener, List<MessageExt> messages) {
+        Map<MessageQueue, Failure> failures = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(this.consumeParallelism);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(messages.size());
+        for (MessageExt message : messages) {
+            permits.acquireUninterruptibly();
+            Runnable task = () -> {
+                try {
+                    listener.onMessage(message);
+                } catch (Exception e) {
+                    log.error("consume message {} of group {} failed", message.getMsgId(), getGroupId(), e);
+                    failures.merge(messageQueue(message), new Failure(message, e), Failure::first);
+                }
+            };
+            try {
+                futures.add(CompletableFuture.runAsync(task, this.consumeExecutor).whenComplete((result, ex) -> permits.release()));
+            } catch (RuntimeException e) {
+                permits.release();
+                // rejected by the executor, not a failure of the message
+                failures.merge(messageQueue(message), new Failure(message, null), Failure::first);
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return failures;
+    }
+
+    /**
+     * Commit the pending offsets once due, at once when forced or asked through {@link #commitAsync()}.
+     * With {@code manualCommit} set only when asked.
+     */
+    private void commit(boolean force) {
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (CompletableFuture<Void> request; (request = this.commitRequests.poll()) != null; ) {
+            requests.add(request);
+        }
+        try {
+            if (!this.autoCommit && !this.pendingOffsets.isEmpty() && (!requests.isEmpty() || !this.manualCommit && isDue(force))) {
+                doCommit();
+            }
+        } catch (RuntimeException e) {
+            requests.forEach(request -> request.completeExceptionally(e));
+            throw e;
+        }
+        requests.forEach(request -> request.complete(null));
+    }
+
+    private boolean isDue(boolean force) {
+        return force
+                || this.commitBatchSize == 0 && this.commitIntervalMillis == 0
+                || this.commitBatchSize > 0 && this.pendingMessages >= this.commitBatchSize
+                || this.commitIntervalMillis > 0 && System.nanoTime() - this.lastCommitNanos >= TimeUnit.MILLISECONDS.toNanos(this.commitIntervalMillis);
+    }
+
+    private void doCommit() {
+        Map<MessageQueue, Long> offsets = new HashMap<>(this.pendingOffsets.size());
+        // polled messages carry the topic without namespace, committing does not add it back
+        this.pendingOffsets.forEach((messageQueue, offset) -> offsets.put(StringUtils.hasText(this.namespace)
+                ? new MessageQueue(NamespaceUtil.wrapNamespace(this.namespace, messageQueue.getTopic()), messageQueue.getBrokerName(), messageQueue.getQueueId())
+                : messageQueue, offset));
+        this.consumer.commit(offsets, true);
+        this.pendingOffsets.clear();
+        this.pendingMessages = 0;
+        this.lastCommitNanos = System.nanoTime();
+    }
+
+    private void failCommitRequests(Exception cause) {
+        for (CompletableFuture<Void> request; (request = this.commitRequests.poll()) != null; ) {
+            request.completeExceptionally(cause);
+        }
+    }
+
+    private static MessageQueue messageQueue(Message message) {
+        MessageExt messageExt = (MessageExt) message;
+        return new MessageQueue(messageExt.getTopic(), messageExt.getBrokerName(), messageExt.getQueueId());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param cause failure of the message, {@code null} when it was not consumed
+     */
+    private record Failure(MessageExt message, Exception cause) {
+
+        static Failure first(Failure failure, Failure other) {
+            return failure.message().getQueueOffset() <= other.message().getQueueOffset() ? failure : other;
+        }
+    }
+
+    private record Attempts(long offset, int failed) {
+    }
+}
@@ -0,0 +1,78 @@
+package org.springframework.rocket.listener;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of string keys with linear probing, indexed by a 64-bit hash the caller
+ * computed. The hash is compared first and the key only when the hashes match, so two keys with
+ * the same hash are told apart at the cost of one string comparison.
+ * Not thread safe.
+ */
+final class HashedKeySet {
+
+    private final long[] hashes;
+    /**
+     * the key of each slot, null for a free slot
+     */
+    private final String[] keys;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+
+    /**
+     * @param maxSize number of keys the set holds at most, the table is kept at most half full
+     */
+    HashedKeySet(int maxSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.hashes = new long[capacity];
+        this.keys = new String[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = maxSize;
+    }
+
+    boolean contains(long hash, String key) {
+        for (int i = index(hash); this.keys[i] != null; i = (i + 1) & this.mask) {
+            if (this.hashes[i] == hash && this.keys[i].equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the key was present, or the set is full
+     */
+    boolean add(long hash, String key) {
+        int i = index(hash);
+        for (; this.keys[i] != null; i = (i + 1) & this.mask) {
+            if (this.hashes[i] == hash && this.keys[i].equals(key)) {
+                return false;
+            }
+        }
+        if (this.size >= this.maxSize) {
+            return false;
+        }
+        this.hashes[i] = hash;
+        this.keys[i] = key;
+        this.size++;
+        return true;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isFull() {
+        return this.size >= this.maxSize;
+    }
+
+    void clear() {
+        Arrays.fill(this.keys, null);
+        this.size = 0;
+    }
+
+    private int index(long hash) {
+        long mixed = hash * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & this.mask;
+    }
+}
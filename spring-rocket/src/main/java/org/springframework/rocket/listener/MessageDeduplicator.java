@@ -0,0 +1,271 @@
+package org.springframework.rocket.listener;
+
+import lombok.Getter;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageClientIDSetter;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.rocket.RocketException;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Drops messages that were already consumed successfully, before they are converted and handed to
+ * the listener; the dropped messages are acknowledged.
+ * <p>
+ * A message is identified by its unique message id ({@link #KEY_MSG_ID}), by its keys
+ * ({@link #KEY_KEYS}), or by a SpEL expression evaluated against the {@link MessageExt}, such as
+ * {@code getUserProperty('orderId')}. The identities are kept with their 64-bit hashes in two
+ * generations of hash sets: a generation is retired once it holds half of {@code capacity}
+ * identities or is half of {@code ttlMillis} old, so an identity is remembered for between half
+ * and the whole ttl. A lookup compares the hashes and confirms a match on the identity itself, so
+ * a hash collision never drops a message that was not consumed.
+ * <p>
+ * An identity is only recorded once its message was consumed successfully, so a failed message is
+ * still consumed again; duplicates delivered while the first copy is still in the listener are not
+ * detected.
+ */
+public class MessageDeduplicator {
+
+    public static final String KEY_MSG_ID = "MSG_ID";
+    public static final String KEY_KEYS = "KEYS";
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private final Function<MessageExt, String> identity;
+    private final long generationNanos;
+    private HashedKeySet current;
+    private HashedKeySet previous;
+    private long rotatedNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    @Getter
+    private final String key;
+
+    /**
+     * @param key {@link #KEY_MSG_ID}, {@link #KEY_KEYS} or a SpEL expression evaluated against the message
+     * @param ttlMillis how long an identity is remembered at most
+     * @param capacity how many identities are remembered at most
+     */
+    public MessageDeduplicator(String key, long ttlMillis, int capacity) {
+        Assert.hasText(key, "key must not be empty");
+        Assert.isTrue(ttlMillis > 0, "ttlMillis must be positive");
+        Assert.isTrue(capacity > 1, "capacity must be greater than 1");
+        this.key = key;
+        this.identity = identity(key);
+        this.generationNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis) / 2;
+        this.current = new HashedKeySet(capacity / 2);
+        this.previous = new HashedKeySet(capacity / 2);
+        this.rotatedNanos = System.nanoTime();
+    }
+
+    /**
+     * @return number of messages dropped as duplicates
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return number of messages handed to the listener
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return whether the message was consumed already, counting it as a hit or a miss
+     */
+    public boolean isDuplicate(Message message) {
+        String identity = identity(message);
+        boolean duplicate = identity != null && contains(hash64(identity), identity);
+        (duplicate ? this.hits : this.misses).increment();
+        return duplicate;
+    }
+
+    /**
+     * Remember the message as consumed.
+     */
+    public void consumed(Message message) {
+        String identity = identity(message);
+        if (identity != null) {
+            add(hash64(identity), identity);
+        }
+    }
+
+    /**
+     * @param listener a {@link RocketMessageListener} or a {@link BatchRocketMessageListener}
+     * @return the listener, handed only the messages not consumed yet
+     */
+    MessageListener decorate(MessageListener listener) {
+        if (listener instanceof RocketMessageListener rocketMessageListener) {
+            return new DeduplicatingListener(rocketMessageListener);
+        }
+        if (listener instanceof BatchRocketMessageListener batchRocketMessageListener) {
+            return new DeduplicatingBatchListener(batchRocketMessageListener);
+        }
+        throw new IllegalArgumentException("listener must be instance of RocketMessageListener or BatchRocketMessageListener");
+    }
+
+    private synchronized boolean contains(long hash, String identity) {
+        rotateIfExpired();
+        return this.current.contains(hash, identity) || this.previous.contains(hash, identity);
+    }
+
+    private synchronized void add(long hash, String identity) {
+        rotateIfExpired();
+        if (this.current.isFull()) {
+            rotate();
+        }
+        this.current.add(hash, identity);
+    }
+
+    private void rotateIfExpired() {
+        long elapsedNanos = System.nanoTime() - this.rotatedNanos;
+        if (elapsedNanos >= this.generationNanos) {
+            if (elapsedNanos >= 2 * this.generationNanos) {
+                this.current.clear();
+            }
+            rotate();
+        }
+    }
+
+    private void rotate() {
+        HashedKeySet retired = this.previous;
+        retired.clear();
+        this.previous = this.current;
+        this.current = retired;
+        this.rotatedNanos = System.nanoTime();
+    }
+
+    private String identity(Message message) {
+        return message instanceof MessageExt messageExt ? this.identity.apply(messageExt) : null;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Function<MessageExt, String> identity(String key) {
+        if (KEY_MSG_ID.equals(key)) {
+            return message -> {
+                String uniqueId = MessageClientIDSetter.getUniqID(message);
+                return uniqueId != null ? uniqueId : message.getMsgId();
+            };
+        }
+        if (KEY_KEYS.equals(key)) {
+            return Message::getKeys;
+        }
+        Expression expression = PARSER.parseExpression(key);
+        SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().withInstanceMethods().build();
+        return message -> {
+            try {
+                Object value = expression.getValue(context, message);
+                return value == null ? null : value.toString();
+            } catch (Exception e) {
+                throw new RocketException("evaluate deduplication key " + key + " failed", e);
+            }
+        };
+    }
+
+    private final class DeduplicatingListener implements AsyncRocketMessageListener {
+
+        private final RocketMessageListener delegate;
+
+        private DeduplicatingListener(RocketMessageListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onMessage(Message rocketMessage) {
+            if (isDuplicate(rocketMessage)) {
+                return;
+            }
+            this.delegate.onMessage(rocketMessage);
+            consumed(rocketMessage);
+        }
+
+        @Override
+        public CompletableFuture<Void> onMessageAsync(Message rocketMessage) {
+            if (isDuplicate(rocketMessage)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (this.delegate instanceof AsyncRocketMessageListener asyncListener) {
+                return asyncListener.onMessageAsync(rocketMessage).thenRun(() -> consumed(rocketMessage));
+            }
+            this.delegate.onMessage(rocketMessage);
+            consumed(rocketMessage);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isAsync() {
+            return this.delegate instanceof AsyncRocketMessageListener asyncListener && asyncListener.isAsync();
+        }
+    }
+
+    private final class DeduplicatingBatchListener implements BatchRocketMessageListener.Partial {
+
+        private final BatchRocketMessageListener delegate;
+
+        private DeduplicatingBatchListener(BatchRocketMessageListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public BatchConsumeResult consume(List<Message> rocketMessages) {
+            List<Message> fresh = new ArrayList<>(rocketMessages.size());
+            List<Integer> indexes = new ArrayList<>(rocketMessages.size());
+            for (int i = 0; i < rocketMessages.size(); i++) {
+                if (!isDuplicate(rocketMessages.get(i))) {
+                    fresh.add(rocketMessages.get(i));
+                    indexes.add(i);
+                }
+            }
+            if (fresh.isEmpty()) {
+                return BatchConsumeResult.consumed();
+            }
+            BatchConsumeResult result;
+            try {
+                result = this.delegate.consume(fresh);
+            } catch (RuntimeException e) {
+                BatchListenerFailedException failedException = BatchListenerFailedException.find(e);
+                if (failedException == null || failedException.getIndex() < 0 || failedException.getIndex() >= indexes.size()) {
+                    throw e;
+                }
+                int failedIndex = failedException.getIndex();
+                fresh.subList(0, failedIndex).forEach(MessageDeduplicator.this::consumed);
+                // point at the failed message in the batch the container delivered
+                throw new BatchListenerFailedException(failedException.getMessage(), e, indexes.get(failedIndex));
+            }
+            if (result.isConsumed()) {
+                fresh.forEach(MessageDeduplicator.this::consumed);
+                return result;
+            }
+            int failedIndex = result.getFailedIndex();
+            if (failedIndex >= indexes.size()) {
+                return BatchConsumeResult.failedAt(0);
+            }
+            fresh.subList(0, failedIndex).forEach(MessageDeduplicator.this::consumed);
+            return BatchConsumeResult.failedAt(indexes.get(failedIndex));
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package org.springframework.rocket.listener;
 
+import org.apache.rocketmq.client.consumer.MessageQueueListener;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
 import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyContext;
 import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyStatus;
 import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
 import org.apache.rocketmq.client.consumer.listener.MessageListenerOrderly;
 import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.springframework.rocket.support.RocketHeaders;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 public abstract class RocketMessageListenerFactory {
 
     public static MessageListenerConcurrently createConcurrently(MessageListener listener, Integer delayLevelWhenNextConsume) {
         if (listener instanceof RocketMessageListener rocketMessageListener) {
             return (messages, context) -> {
-                for (MessageExt message : messages) {
+                for (int i = 0; i < messages.size(); i++) {
                     try {
-                        rocketMessageListener.onMessage(message);
+                        rocketMessageListener.onMessage(messages.get(i));
                     } catch (Exception e) {
-                        Optional.ofNullable(delayLevelWhenNextConsume).ifPresent(context::setDelayLevelWhenNextConsume);
-                        return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+                        return consumeFailed(context, delayLevelWhenNextConsume, i, messages.size());
                     }
                 }
 
@@ -29,10 +41,14 @@ public abstract class RocketMessageListenerFactory {
         else if (listener instanceof BatchRocketMessageListener batchRocketMessageListener) {
             return (messages, context) -> {
                 try {
-                    batchRocketMessageListener.onMessage(new ArrayList<>(messages));
+                    BatchConsumeResult result = batchRocketMessageListener.consume(new ArrayList<>(messages));
+                    if (!result.isConsumed()) {
+                        return consumeFailed(context, delayLevelWhenNextConsume, result.getFailedIndex(), messages.size());
+                    }
                 } catch (Exception e) {
-                    Optional.ofNullable(delayLevelWhenNextConsume).ifPresent(context::setDelayLevelWhenNextConsume);
-                    return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+                    BatchListenerFailedException failedException = BatchListenerFailedException.find(e);
+                    return consumeFailed(context, delayLevelWhenNextConsume,
+                            failedException != null ? failedException.getIndex() : 0, messages.size());
                 }
 
                 return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
@@ -41,6 +57,149 @@ public abstract class RocketMessageListenerFactory {
         throw new IllegalArgumentException("listener must be instance of RocketMessageListener or BatchRocketMessageListener");
     }
 
+    /**
+     * Consume the messages of each delivered batch in parallel, one task per message on the
+     * given executor. At most {@code parallelism} messages of the container are in the listener
+     * at any time. The batch status is reported once every message completed: the messages
+     * before the first failed one are acknowledged, the rest are consumed again later.
+     * @param listener the message listener
+     * @param delayLevelWhenNextConsume delay level of the messages consumed again, may be null
+     * @param executor runs the listener for each message
+     * @param parallelism maximum number of messages in the listener at the same time
+     */
+    public static MessageListenerConcurrently createConcurrently(RocketMessageListener listener, Integer delayLevelWhenNextConsume,
+                                                                 Executor executor, int parallelism) {
+        Semaphore permits = new Semaphore(parallelism);
+        return (messages, context) -> {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(messages.size());
+            for (MessageExt message : messages) {
+                futures.add(consumeAsync(listener, message, executor, permits));
+            }
+            int failedIndex = -1;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).join();
+                } catch (Exception e) {
+                    if (failedIndex < 0) {
+                        failedIndex = i;
+                    }
+                }
+            }
+            if (failedIndex < 0) {
+                return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+            }
+            return consumeFailed(context, delayLevelWhenNextConsume, failedIndex, messages.size());
+        };
+    }
+
+    /**
+     * Start every message of each delivered batch on the consume thread and report the batch status
+     * once all of them completed, so a listener that completes asynchronously keeps many messages
+     * in flight with few consume threads. Starting stops at a message that failed right away, the
+     * messages started before it are still awaited so none of them is in flight once the batch
+     * is reported and consumed again.
+     * @param listener the message listener
+     * @param delayLevelWhenNextConsume delay level of the messages consumed again, may be null
+     * @param maxInFlight maximum number of messages of the container not completed yet; the consume
+     *                    threads wait for a message to complete when it is reached
+     */
+    public static MessageListenerConcurrently createConcurrently(AsyncRocketMessageListener listener, Integer delayLevelWhenNextConsume,
+                                                                 int maxInFlight) {
+        Semaphore permits = new Semaphore(maxInFlight);
+        return (messages, context) -> {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(messages.size());
+            for (MessageExt message : messages) {
+                CompletableFuture<Void> future = startAsync(listener, message, permits);
+                futures.add(future);
+                if (future.isCompletedExceptionally()) {
+                    break;
+                }
+            }
+            int failedIndex = -1;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).join();
+                } catch (Exception e) {
+                    if (failedIndex < 0) {
+                        failedIndex = i;
+                    }
+                }
+            }
+            if (failedIndex < 0) {
+                return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+            }
+            return consumeFailed(context, delayLevelWhenNextConsume, failedIndex, messages.size());
+        };
+    }
+
+    private static CompletableFuture<Void> startAsync(AsyncRocketMessageListener listener, MessageExt message, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> future;
+        try {
+            future = listener.onMessageAsync(message);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> permits.release());
+    }
+
+    /**
+     * Acknowledge the messages before the failed one, the failed message and the ones after it
+     * are consumed again.
+     */
+    private static ConsumeConcurrentlyStatus consumeFailed(ConsumeConcurrentlyContext context, Integer delayLevelWhenNextConsume,
+                                                           int failedIndex, int size) {
+        Optional.ofNullable(delayLevelWhenNextConsume).ifPresent(context::setDelayLevelWhenNextConsume);
+        if (failedIndex <= 0 || failedIndex >= size) {
+            return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+        }
+        context.setAckIndex(failedIndex - 1);
+        return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+    }
+
+    /**
+     * Hand the messages of several deliveries to the listener as one batch of {@code targetSize}
+     * messages, or of what arrived within {@code windowMillis}. Each delivery is acknowledged once
+     * the batch it went into was handled, up to the message a {@link BatchListenerFailedException}
+     * points at.
+     * @see BatchAggregator
+     */
+    public static MessageListenerConcurrently createConcurrently(BatchRocketMessageListener listener, Integer delayLevelWhenNextConsume,
+                                                                 int targetSize, long windowMillis) {
+        BatchAggregator aggregator = new BatchAggregator(listener, targetSize, windowMillis);
+        return (messages, context) -> {
+            int failedIndex = aggregator.consume(messages);
+            return failedIndex < 0 ? ConsumeConcurrentlyStatus.CONSUME_SUCCESS
+                    : consumeFailed(context, delayLevelWhenNextConsume, failedIndex, messages.size());
+        };
+    }
+
+    private static CompletableFuture<Void> consumeAsync(RocketMessageListener listener, MessageExt message,
+                                                        Executor executor, Semaphore permits) {
+        return runAsync(() -> listener.onMessage(message), executor, permits);
+    }
+
+    private static CompletableFuture<Void> runAsync(Runnable task, Executor executor, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.runAsync(task, executor)
+                    .whenComplete((result, ex) -> permits.release());
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
 
     public static MessageListenerOrderly createOrderly(MessageListener listener, Long suspendCurrentQueueTimeMillis) {
         if (listener instanceof RocketMessageListener rocketMessageListener) {
@@ -60,7 +219,10 @@ public abstract class RocketMessageListenerFactory {
         else if (listener instanceof BatchRocketMessageListener batchRocketMessageListener) {
             return (messages, context) -> {
                 try {
-                    batchRocketMessageListener.onMessage(new ArrayList<>(messages));
+                    if (!batchRocketMessageListener.consume(new ArrayList<>(messages)).isConsumed()) {
+                        Optional.ofNullable(suspendCurrentQueueTimeMillis).ifPresent(context::setSuspendCurrentQueueTimeMillis);
+                        return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
+                    }
                 } catch (Exception e) {
                     Optional.ofNullable(suspendCurrentQueueTimeMillis).ifPresent(context::setSuspendCurrentQueueTimeMillis);
                     return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
@@ -71,4 +233,110 @@ public abstract class RocketMessageListenerFactory {
         }
         throw new IllegalArgumentException("listener must be instance of RocketMessageListener or BatchRocketMessageListener");
     }
+
+    /**
+     * Consume the messages of each delivered batch in order per key, and in parallel across keys.
+     * The key of a message is its {@link RocketHeaders#SHARDING_KEY} property, or its keys when
+     * there is none; messages without either share one key. The messages of a key are consumed
+     * one after another on the given executor, at most {@code parallelism} keys of the container
+     * at the same time, and a key stops at its first failed message. The batch status is reported
+     * once every key completed, so the queue offset never passes a message still being consumed.
+     * <p>
+     * Parallelism only spans the keys of one delivered batch, so it is capped by the consume batch
+     * size, which has to be raised above its default of 1. If any message failed the whole batch
+     * is suspended and delivered again; the messages consumed before are remembered per queue and
+     * skipped on that redelivery. They are consumed again, at least once, when the queue moves to
+     * another consumer in the meantime. The returned listener is also a {@link MessageQueueListener}
+     * that forgets the queues rebalanced away, to be set on the consumer.
+     * @param listener the message listener
+     * @param suspendCurrentQueueTimeMillis how long the queue is suspended after a failure, may be null
+     * @param executor runs the messages of each key
+     * @param parallelism maximum number of keys in the listener at the same time
+     */
+    public static MessageListenerOrderly createOrderly(RocketMessageListener listener, Long suspendCurrentQueueTimeMillis,
+                                                       Executor executor, int parallelism) {
+        return new KeyParallelOrderlyListener(listener, suspendCurrentQueueTimeMillis, executor, parallelism);
+    }
+
+    /**
+     * Like {@link #createConcurrently(BatchRocketMessageListener, Integer, int, long)}, a delivery
+     * with a failed message suspends its queue and is consumed again as a whole.
+     */
+    public static MessageListenerOrderly createOrderly(BatchRocketMessageListener listener, Long suspendCurrentQueueTimeMillis,
+                                                       int targetSize, long windowMillis) {
+        BatchAggregator aggregator = new BatchAggregator(listener, targetSize, windowMillis);
+        return (messages, context) -> {
+            if (aggregator.consume(messages) < 0) {
+                return ConsumeOrderlyStatus.SUCCESS;
+            }
+            Optional.ofNullable(suspendCurrentQueueTimeMillis).ifPresent(context::setSuspendCurrentQueueTimeMillis);
+            return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
+        };
+    }
+
+    private static String orderKey(MessageExt message) {
+        String shardingKey = message.getProperty(RocketHeaders.SHARDING_KEY);
+        return shardingKey != null ? shardingKey : message.getKeys();
+    }
+
+    private static final class KeyParallelOrderlyListener implements MessageListenerOrderly, MessageQueueListener {
+
+        private final RocketMessageListener listener;
+        private final Long suspendCurrentQueueTimeMillis;
+        private final Executor executor;
+        private final Semaphore permits;
+        /**
+         * Offsets consumed of the batch suspended on each queue, skipped when it is delivered again
+         */
+        private final Map<MessageQueue, Set<Long>> consumedOffsets = new ConcurrentHashMap<>();
+
+        private KeyParallelOrderlyListener(RocketMessageListener listener, Long suspendCurrentQueueTimeMillis, Executor executor, int parallelism) {
+            this.listener = listener;
+            this.suspendCurrentQueueTimeMillis = suspendCurrentQueueTimeMillis;
+            this.executor = executor;
+            this.permits = new Semaphore(parallelism);
+        }
+
+        @Override
+        public ConsumeOrderlyStatus consumeMessage(List<MessageExt> messages, ConsumeOrderlyContext context) {
+            Set<Long> consumed = this.consumedOffsets.remove(context.getMessageQueue());
+            Set<Long> completed = consumed != null ? consumed : ConcurrentHashMap.newKeySet();
+            Map<String, List<MessageExt>> messagesByKey = new LinkedHashMap<>();
+            for (MessageExt message : messages) {
+                if (!completed.contains(message.getQueueOffset())) {
+                    messagesByKey.computeIfAbsent(orderKey(message), key -> new ArrayList<>()).add(message);
+                }
+            }
+            List<CompletableFuture<Void>> futures = new ArrayList<>(messagesByKey.size());
+            for (List<MessageExt> keyMessages : messagesByKey.values()) {
+                futures.add(runAsync(() -> keyMessages.forEach(message -> {
+                    this.listener.onMessage(message);
+                    completed.add(message.getQueueOffset());
+                }), this.executor, this.permits));
+            }
+            boolean failed = false;
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                } catch (Exception e) {
+                    failed = true;
+                }
+            }
+            if (failed) {
+                this.consumedOffsets.put(context.getMessageQueue(), completed);
+                Optional.ofNullable(this.suspendCurrentQueueTimeMillis).ifPresent(context::setSuspendCurrentQueueTimeMillis);
+                return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
+            }
+            return ConsumeOrderlyStatus.SUCCESS;
+        }
+
+        /**
+         * A queue rebalanced away is consumed from its committed offset by its next owner, so what
+         * this consumer remembered of it no longer applies.
+         */
+        @Override
+        public void messageQueueChanged(String topic, Set<MessageQueue> mqAll, Set<MessageQueue> mqDivided) {
+            this.consumedOffsets.keySet().removeIf(messageQueue -> messageQueue.getTopic().equals(topic) && !mqDivided.contains(messageQueue));
+        }
+    }
 }
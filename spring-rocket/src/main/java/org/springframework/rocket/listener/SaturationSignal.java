@@ -0,0 +1,59 @@
+package org.springframework.rocket.listener;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How saturated the systems a listener depends on are, from {@code 0} (idle) to {@code 1} (full).
+ * Polled by the container to pause the consumer before they are overloaded.
+ * @see BackpressurePolicy
+ */
+@FunctionalInterface
+public interface SaturationSignal {
+
+    double getSaturation();
+
+    /**
+     * @param executor the executor the listener hands work to, with a bounded queue or a
+     *                 {@link SynchronousQueue}
+     * @return the share of the executor's queue in use, or of its threads in use when it hands
+     * work over without queueing
+     * @throws IllegalArgumentException for an unbounded queue, which never fills up; use
+     * {@link #queueDepth(ThreadPoolExecutor, int)} instead
+     */
+    static SaturationSignal queueDepth(ThreadPoolExecutor executor) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (queue instanceof SynchronousQueue) {
+            return () -> (double) executor.getActiveCount() / executor.getMaximumPoolSize();
+        }
+        Assert.isTrue(queue.remainingCapacity() != Integer.MAX_VALUE,
+                "the queue of the executor is unbounded, give the depth at which it is saturated");
+        return () -> {
+            int size = queue.size();
+            int capacity = size + queue.remainingCapacity();
+            return capacity <= 0 ? 1 : (double) size / capacity;
+        };
+    }
+
+    /**
+     * @param executor the executor the listener hands work to
+     * @param saturatedDepth number of queued tasks at which the executor counts as saturated
+     * @return the queued tasks as a share of {@code saturatedDepth}, at most 1
+     */
+    static SaturationSignal queueDepth(ThreadPoolExecutor executor, int saturatedDepth) {
+        Assert.isTrue(saturatedDepth > 0, "saturatedDepth must be positive");
+        return () -> Math.min(1, (double) executor.getQueue().size() / saturatedDepth);
+    }
+
+    /**
+     * @param healthy whether a downstream system is healthy, such as the state of a health indicator
+     * @return full saturation while the supplier reports unhealthy, none otherwise
+     */
+    static SaturationSignal healthy(BooleanSupplier healthy) {
+        return () -> healthy.getAsBoolean() ? 0 : 1;
+    }
+}
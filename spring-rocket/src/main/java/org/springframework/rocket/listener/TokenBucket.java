@@ -0,0 +1,34 @@
+package org.springframework.rocket.listener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that refills at a fixed rate up to one second of tokens. Tokens are taken for
+ * the batches handed to the listener, so the balance may go below zero; the debt tells how long
+ * the container stays suspended before it may consume again.
+ */
+final class TokenBucket {
+
+    private final double permitsPerSecond;
+    private double tokens;
+    private long refilledNanos;
+
+    TokenBucket(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.tokens = permitsPerSecond;
+        this.refilledNanos = System.nanoTime();
+    }
+
+    /**
+     * Take the given number of tokens.
+     * @return how long to wait until the balance is back to zero, in milliseconds, 0 if not in debt
+     */
+    synchronized long take(double permits) {
+        long now = System.nanoTime();
+        this.tokens = Math.min(this.permitsPerSecond,
+                this.tokens + (now - this.refilledNanos) * this.permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        this.refilledNanos = now;
+        this.tokens -= permits;
+        return this.tokens >= 0 ? 0 : (long) Math.ceil(-this.tokens * 1000 / this.permitsPerSecond);
+    }
+}
@@ -32,6 +32,7 @@ import org.springframework.rocket.support.RocketHeaders;
 import org.springframework.rocket.support.converter.DefaultMessagingMessageConverter;
 import org.springframework.rocket.support.converter.MessagingMessageConverter;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -42,16 +43,26 @@ import java.lang.reflect.WildcardType;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Getter
 public abstract class AbstractRocketMessageListenerAdapter {
     private static final SpelExpressionParser PARSER = new SpelExpressionParser();
     private static final ParserContext PARSER_CONTEXT = new TemplateParserContext("!{", "}");
+    /**
+     * {@link ReactiveResults} is only loaded when Reactor is present
+     */
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono",
+            AbstractRocketMessageListenerAdapter.class.getClassLoader());
     private final Object bean;
     private final Type inferredType;
     private final StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
@@ -64,6 +75,11 @@ public abstract class AbstractRocketMessageListenerAdapter {
     private boolean isRocketMessages;
     private boolean isSpringMessageList;
     private boolean isSpringMessage;
+    /**
+     * batch parameter is a {@link Stream} or an {@link Iterator}, whose elements are converted on demand
+     */
+    private boolean isStreamBatch;
+    private boolean isIteratorBatch;
 
     private MessagingMessageConverter messageConverter = new DefaultMessagingMessageConverter();
     private boolean converterSet;
@@ -73,6 +89,10 @@ public abstract class AbstractRocketMessageListenerAdapter {
     @Setter
     private RocketTemplate replyTemplate;
     private boolean messageReturnType;
+    /**
+     * the method returns a {@link CompletionStage} or a reactive type
+     */
+    private boolean asyncReturnType;
 
     public AbstractRocketMessageListenerAdapter(Object bean, Method method) {
         this.bean = bean;
@@ -130,6 +150,27 @@ public abstract class AbstractRocketMessageListenerAdapter {
         }
     }
 
+    /**
+     * @param result the result of the listener method, may be null
+     * @return completes with the eventual value of a {@link CompletionStage} or reactive result,
+     * null if the result is not asynchronous
+     */
+    protected CompletableFuture<Object> toFuture(Object result) {
+        Object value = result instanceof InvocationResult invocationResult ? invocationResult.result() : result;
+        CompletableFuture<Object> future = null;
+        if (value instanceof CompletionStage<?> completionStage) {
+            future = completionStage.toCompletableFuture().thenApply(Function.identity());
+        }
+        else if (value != null && this.asyncReturnType && REACTOR_PRESENT) {
+            future = ReactiveResults.toFuture(value);
+        }
+        if (future != null && result instanceof InvocationResult invocationResult) {
+            return future.thenApply(completed -> completed == null ? null
+                    : new InvocationResult(completed, invocationResult.sendTo(), invocationResult.messageReturnType()));
+        }
+        return future;
+    }
+
     /**
      * Handle the given result object returned from the listener method, sending a
      * response message to the SendTo topic.
@@ -288,17 +329,22 @@ public abstract class AbstractRocketMessageListenerAdapter {
             }
         }
 
+        Assert.state(!(this.headerFound && (this.isStreamBatch || this.isIteratorBatch)),
+                () -> "@Header or @Headers parameters are not supported with a Stream or Iterator batch, method " + method);
         this.messageReturnType = returnTypeMessageOrCollectionOf(method);
+        this.asyncReturnType = CompletionStage.class.isAssignableFrom(method.getReturnType())
+                || (REACTOR_PRESENT && ReactiveResults.isReactiveType(method.getReturnType()));
         return genericParameterType;
     }
 
     /**
      * Determines if a type is one that holds multiple messages.
      * @param type the type to check
-     * @return true if the type is a {@link List} or a {@link MessageBatch}, false otherwise
+     * @return true if the type is a {@link List}, a {@link Stream}, an {@link Iterator} or a {@link MessageBatch}, false otherwise
      */
     protected boolean isMultipleMessageType(Type type) {
-        return parameterIsType(type, List.class) || parameterIsType(type, MessageBatch.class);
+        return parameterIsType(type, List.class) || parameterIsType(type, Stream.class) || parameterIsType(type, Iterator.class)
+                || parameterIsType(type, MessageBatch.class);
     }
 
     private Type extractGenericParameterTypFromMethodParameter(MethodParameter methodParameter) {
@@ -307,9 +353,11 @@ public abstract class AbstractRocketMessageListenerAdapter {
             if (parameterizedType.getRawType().equals(org.springframework.messaging.Message.class)) {
                 genericParameterType = ((ParameterizedType) genericParameterType).getActualTypeArguments()[0];
             }
-            else if (parameterizedType.getRawType().equals(List.class)
+            else if (isElementContainer(parameterizedType.getRawType())
                     && parameterizedType.getActualTypeArguments().length == 1) {
 
+                this.isStreamBatch = parameterizedType.getRawType().equals(Stream.class);
+                this.isIteratorBatch = parameterizedType.getRawType().equals(Iterator.class);
                 Type paramType = parameterizedType.getActualTypeArguments()[0];
                 this.isRocketMessageList = paramType instanceof ParameterizedType
                         && ((ParameterizedType) paramType).getRawType().equals(Message.class);
@@ -336,6 +384,10 @@ public abstract class AbstractRocketMessageListenerAdapter {
         return genericParameterType;
     }
 
+    private boolean isElementContainer(Type rawType) {
+        return rawType.equals(List.class) || rawType.equals(Stream.class) || rawType.equals(Iterator.class);
+    }
+
     protected boolean parameterIsType(Type parameterType, Type type) {
         if (parameterType instanceof ParameterizedType parameterizedType) {
             Type rawType = parameterizedType.getRawType();
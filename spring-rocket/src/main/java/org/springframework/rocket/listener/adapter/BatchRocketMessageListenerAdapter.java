@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.common.message.Message;
 import org.apache.rocketmq.common.message.MessageBatch;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.rocket.listener.BatchConsumeResult;
 import org.springframework.rocket.listener.BatchRocketMessageListener;
 
 import java.lang.reflect.Method;
@@ -11,9 +12,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 @Slf4j
-public class BatchRocketMessageListenerAdapter extends AbstractRocketMessageListenerAdapter implements BatchRocketMessageListener {
+public class BatchRocketMessageListenerAdapter extends AbstractRocketMessageListenerAdapter implements BatchRocketMessageListener.Partial {
 
     // errorHandler
 
@@ -22,13 +26,23 @@ public class BatchRocketMessageListenerAdapter extends AbstractRocketMessageList
     }
 
 
+    /**
+     * Invoke the listener method with the batch. A method returning a {@link BatchConsumeResult},
+     * or a future of one, acknowledges the batch up to the message it points at.
+     */
     @Override
-    public void onMessage(List<Message> rocketMessages) {
+    public BatchConsumeResult consume(List<Message> rocketMessages) {
         Object data = null;
         org.springframework.messaging.Message<?> springMessage = null;
 
+        // Stream<Message> rocketMessages, Stream<Message<?>> springMessages, Stream<PayloadReceive> payloads,
+        // or the Iterator of them
+        if (isStreamBatch() || isIteratorBatch()) {
+            Stream<?> elements = toLazyElements(rocketMessages);
+            data = isIteratorBatch() ? elements.iterator() : elements;
+        }
         // List<Message> rocketMessages
-        if (isRocketMessageList() && !isHeaderFound()) {
+        else if (isRocketMessageList() && !isHeaderFound()) {
             data = rocketMessages;
         }
         // List<Message> rocketMessages, @Headers Map<String, Object> headers
@@ -68,7 +82,21 @@ public class BatchRocketMessageListenerAdapter extends AbstractRocketMessageList
         if (log.isDebugEnabled()) {
             log.debug("Processing [{}]", springMessage);
         }
-        invokeHandler(springMessage, data);
+        Object result = invokeHandler(springMessage, data);
+        CompletableFuture<Object> future = toFuture(result);
+        if (future != null) {
+            // the batch is acknowledged once the listener completed it
+            try {
+                result = future.join();
+            }
+            catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+        if (result instanceof InvocationResult invocationResult) {
+            result = invocationResult.result();
+        }
+        return result instanceof BatchConsumeResult batchConsumeResult ? batchConsumeResult : BatchConsumeResult.consumed();
 //        Object result = invokeHandler(springMessage, data);
 //        if (result != null) {
 //            handleResult(result, rocketMessages, springMessage);
@@ -92,6 +120,20 @@ public class BatchRocketMessageListenerAdapter extends AbstractRocketMessageList
         return payloads;
     }
 
+    /**
+     * Elements are converted only when the listener pulls them, so a listener that filters the
+     * batch or stops early does not pay for the elements it skips.
+     */
+    protected Stream<?> toLazyElements(List<Message> rocketMessages) {
+        if (isRocketMessageList() || (getType() instanceof Class<?> elementType && Message.class.isAssignableFrom(elementType))) {
+            return rocketMessages.stream();
+        }
+        if (isSpringMessageList()) {
+            return rocketMessages.stream().map(this::toMessagingMessage);
+        }
+        return rocketMessages.stream().map(rocketMessage -> toMessagingMessage(rocketMessage).getPayload());
+    }
+
     protected List<org.springframework.messaging.Message<?>> toSpringMessages(List<Message> rocketMessages) {
         List<org.springframework.messaging.Message<?>> springMessages = new ArrayList<>(rocketMessages.size());
         for (Message rocketMessage : rocketMessages) {
@@ -2,12 +2,16 @@ package org.springframework.rocket.listener.adapter;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.common.message.Message;
-import org.springframework.rocket.listener.RocketMessageListener;
+import org.springframework.rocket.listener.AsyncRocketMessageListener;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
-public class DefaultRocketMessageListenerAdapter extends AbstractRocketMessageListenerAdapter implements RocketMessageListener {
+public class DefaultRocketMessageListenerAdapter extends AbstractRocketMessageListenerAdapter implements AsyncRocketMessageListener {
+
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
 
     // errorHandler
 
@@ -17,6 +21,20 @@ public class DefaultRocketMessageListenerAdapter extends AbstractRocketMessageLi
 
     @Override
     public void onMessage(Message rocketMessage) {
+        try {
+            onMessageAsync(rocketMessage).join();
+        }
+        catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    /**
+     * Invoke the listener method; a {@link java.util.concurrent.CompletionStage} or reactive result
+     * completes the returned future, and is replied, once it completes.
+     */
+    @Override
+    public CompletableFuture<Void> onMessageAsync(Message rocketMessage) {
         Object data = rocketMessage;
         org.springframework.messaging.Message<?> springMessage = null;
         if (isSpringMessage() || isHeaderFound()) {
@@ -30,8 +48,23 @@ public class DefaultRocketMessageListenerAdapter extends AbstractRocketMessageLi
             log.debug("Processing [{}]", springMessage);
         }
         Object result = invokeHandler(springMessage, data);
-        if (result != null) {
-            handleResult(result, rocketMessage, springMessage);
+        CompletableFuture<Object> future = toFuture(result);
+        if (future == null) {
+            if (result != null) {
+                handleResult(result, rocketMessage, springMessage);
+            }
+            return COMPLETED;
         }
+        org.springframework.messaging.Message<?> source = springMessage;
+        return future.thenAccept(completed -> {
+            if (completed != null) {
+                handleResult(completed, rocketMessage, source);
+            }
+        });
+    }
+
+    @Override
+    public boolean isAsync() {
+        return isAsyncReturnType();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package org.springframework.rocket.listener.adapter;
+
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapts the reactive return values of listener methods. Refers to Reactor, so callers check
+ * that it is present before they use this class.
+ */
+final class ReactiveResults {
+
+    private ReactiveResults() {
+    }
+
+    static boolean isReactiveType(Class<?> type) {
+        return ReactiveAdapterRegistry.getSharedInstance().getAdapter(type) != null;
+    }
+
+    /**
+     * @return the single value, or the list of values of a multi-value publisher; null if the result is not reactive
+     */
+    static CompletableFuture<Object> toFuture(Object result) {
+        ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(result.getClass());
+        if (adapter == null) {
+            return null;
+        }
+        if (adapter.isMultiValue()) {
+            return Flux.from(adapter.toPublisher(result)).collectList()
+                    .filter(list -> !list.isEmpty()).<Object>map(list -> list).toFuture();
+        }
+        return Mono.from(adapter.toPublisher(result)).<Object>map(value -> value).toFuture();
+    }
+}
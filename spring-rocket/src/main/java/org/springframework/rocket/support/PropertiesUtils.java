@@ -12,7 +12,10 @@ import java.util.stream.Collectors;
 public class PropertiesUtils {
 
     public static String extractAsString(Function<String, Object> valueFunction, String attribute) {
-        Object value = valueFunction.apply(attribute);
+        return asString(valueFunction.apply(attribute));
+    }
+
+    public static String asString(Object value) {
         return value == null ? null : String.valueOf(value);
     }
 
@@ -24,7 +27,13 @@ public class PropertiesUtils {
     }
 
     public static Boolean extractAsBoolean(Function<String, Object> valueFunction, String attribute) {
-        Object value = valueFunction.apply(attribute);
+        return asBoolean(valueFunction.apply(attribute), attribute);
+    }
+
+    /**
+     * @param attribute the attribute the value resolved for, only used in the error message
+     */
+    public static Boolean asBoolean(Object value, String attribute) {
         if (value == null) {
             return null;
         }
@@ -49,7 +58,13 @@ public class PropertiesUtils {
     }
 
     public static Integer extractAsInteger(Function<String, Object> valueFunction, String attribute) {
-        Object value = valueFunction.apply(attribute);
+        return asInteger(valueFunction.apply(attribute), attribute);
+    }
+
+    /**
+     * @param attribute the attribute the value resolved for, only used in the error message
+     */
+    public static Integer asInteger(Object value, String attribute) {
         if (value == null) {
             return null;
         }
@@ -75,7 +90,13 @@ public class PropertiesUtils {
 
 
     public static Long extractAsLong(Function<String, Object> valueFunction, String attribute) {
-        Object value = valueFunction.apply(attribute);
+        return asLong(valueFunction.apply(attribute), attribute);
+    }
+
+    /**
+     * @param attribute the attribute the value resolved for, only used in the error message
+     */
+    public static Long asLong(Object value, String attribute) {
         if (value == null) {
             return null;
         }
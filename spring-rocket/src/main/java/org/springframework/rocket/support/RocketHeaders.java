@@ -78,7 +78,10 @@ public abstract class RocketHeaders {
 
 
     public static String replacePrefix(String key) {
-        return StringUtils.hasText(key) ? key.replaceFirst("^" + PREFIX, "") : null;
+        if (!StringUtils.hasText(key)) {
+            return null;
+        }
+        return key.startsWith(PREFIX) ? key.substring(PREFIX.length()) : key;
     }
 
 
@@ -3,16 +3,22 @@ package org.springframework.rocket.support.converter;
 import lombok.Setter;
 import org.apache.rocketmq.common.message.Message;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.MessageConversionException;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.converter.SimpleMessageConverter;
 import org.springframework.messaging.converter.SmartMessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
 import org.springframework.messaging.core.MessagePostProcessor;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.rocket.support.header.DefaultRocketHeaderMapper;
 import org.springframework.rocket.support.header.RocketHeaderMapper;
+import org.springframework.rocket.support.header.RocketMessageHeaders;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
 
 import java.io.ByteArrayOutputStream;
@@ -20,17 +26,42 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Setter
 public class DefaultMessagingMessageConverter implements MessagingMessageConverter {
 
     public static final String CONVERSION_HINT_HEADER = "conversionHint";
 
+    private static final boolean JACKSON_PRESENT = ClassUtils.isPresent("com.fasterxml.jackson.databind.ObjectMapper",
+            DefaultMessagingMessageConverter.class.getClassLoader());
+
+    /**
+     * Converters that read a {@code String} by decoding the text or not at all, by name as Jackson is optional
+     */
+    private static final Set<String> DEFAULT_STRING_CONVERTERS = Set.of(SimpleMessageConverter.class.getName(),
+            StringMessageConverter.class.getName(), ByteArrayMessageConverter.class.getName(),
+            "org.springframework.messaging.converter.MappingJackson2MessageConverter");
+
     private RocketHeaderMapper headerMapper = new DefaultRocketHeaderMapper();
     private MessageConverter messagingConverter = new SimpleMessageConverter();
+    /**
+     * Whether received messages get {@link RocketMessageHeaders}, which map the headers on access,
+     * instead of headers mapped up front.
+     */
+    private boolean lazyHeaders = true;
+    private final Map<Type, PayloadConversion> payloadConversions = new ConcurrentHashMap<>();
+
+    public void setMessagingConverter(MessageConverter messagingConverter) {
+        this.messagingConverter = messagingConverter;
+        this.payloadConversions.clear();
+    }
 
 
     @Override
@@ -82,35 +113,104 @@ public class DefaultMessagingMessageConverter implements MessagingMessageConvert
 
     @Override
     public org.springframework.messaging.Message<?> toMessage(Message rocketMessage, Type payloadType) {
-        Map<String, Object> headers = new HashMap<>(64);
-        this.headerMapper.toSpringHeaders(rocketMessage, headers);
-        headers.putIfAbsent(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN);
-
-        org.springframework.messaging.Message<?> message = MessageBuilder.createMessage(extractAndConvertValue(rocketMessage, payloadType), new MessageHeaders(headers));
-        if (payloadType != null && !Objects.equals(payloadType, byte[].class)) {
-            Class<?> clazz;
-            if (payloadType instanceof Class) {
-                clazz = (Class<?>) payloadType;
-            } else if (payloadType instanceof ParameterizedType parameterizedType) {
-                clazz = (Class<?>) parameterizedType.getRawType();
-            } else {
-                clazz = Objects.class;
-            }
+        MessageHeaders headers;
+        if (this.lazyHeaders) {
+            headers = new RocketMessageHeaders(rocketMessage, this.headerMapper);
+        } else {
+            Map<String, Object> mappedHeaders = new HashMap<>(64);
+            this.headerMapper.toSpringHeaders(rocketMessage, mappedHeaders);
+            mappedHeaders.putIfAbsent(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN);
+            headers = new MessageHeaders(mappedHeaders);
+        }
+
+        if (payloadType == null) {
+            return MessageBuilder.createMessage(rocketMessage.getBody(), headers);
+        }
+        return this.payloadConversions.computeIfAbsent(payloadType, this::createPayloadConversion).convert(rocketMessage, headers);
+    }
+
+    /**
+     * Plan how payloads of the given type are converted, once per type. {@code byte[]} is passed
+     * through, {@code String} is decoded with the charset of the content type, UTF-8 by default,
+     * unless the content is JSON or the messaging converter is not one of the defaults, and JSON
+     * content is read by a Jackson converter's reader prepared for the type. Other payloads go
+     * through the messaging converter.
+     */
+    private PayloadConversion createPayloadConversion(Type payloadType) {
+        if (Objects.equals(payloadType, byte[].class)) {
+            return (rocketMessage, headers) -> MessageBuilder.createMessage(rocketMessage.getBody(), headers);
+        }
+
+        Class<?> clazz;
+        if (payloadType instanceof Class) {
+            clazz = (Class<?>) payloadType;
+        } else if (payloadType instanceof ParameterizedType parameterizedType) {
+            clazz = (Class<?>) parameterizedType.getRawType();
+        } else {
+            clazz = Objects.class;
+        }
+        MessageConverter converter = this.messagingConverter;
+        PayloadConversion conversion = (rocketMessage, headers) -> {
+            org.springframework.messaging.Message<?> message = MessageBuilder.createMessage(rocketMessage.getBody(), headers);
             Object payload;
-            if (this.messagingConverter instanceof SmartMessageConverter smartMessageConverter) {
+            if (converter instanceof SmartMessageConverter smartMessageConverter) {
                 payload = smartMessageConverter.fromMessage(message, clazz, payloadType);
             } else {
-                payload = this.messagingConverter.fromMessage(message, clazz);
-            }
-            if (payload != null) {
-                message = new GenericMessage<>(payload, message.getHeaders());
+                payload = converter.fromMessage(message, clazz);
             }
+            return payload != null ? new GenericMessage<>(payload, headers) : message;
+        };
+
+        if (Objects.equals(payloadType, String.class) && decodesStrings(converter)) {
+            // a JSON string is quoted, left to the converter to read
+            return (rocketMessage, headers) -> {
+                MimeType contentType = contentType(headers);
+                if (isJson(contentType)) {
+                    return conversion.convert(rocketMessage, headers);
+                }
+                Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+                return MessageBuilder.createMessage(new String(rocketMessage.getBody(), charset), headers);
+            };
         }
-        return message;
+
+        JacksonPayloadReader jacksonReader = JACKSON_PRESENT ? JacksonPayloadReader.of(converter, payloadType) : null;
+        if (jacksonReader == null) {
+            return conversion;
+        }
+        return (rocketMessage, headers) -> jacksonReader.supports(contentType(headers))
+                ? MessageBuilder.createMessage(jacksonReader.read(rocketMessage.getBody()), headers)
+                : conversion.convert(rocketMessage, headers);
+    }
+
+    /**
+     * Whether the converter only decodes text into a {@code String}, so decoding it directly gives
+     * the same payload. A converter of another type, a subclass included, may transform the body.
+     */
+    private static boolean decodesStrings(MessageConverter converter) {
+        if (converter instanceof CompositeMessageConverter compositeConverter && converter.getClass() == CompositeMessageConverter.class) {
+            return compositeConverter.getConverters().stream().allMatch(DefaultMessagingMessageConverter::decodesStrings);
+        }
+        return converter != null && DEFAULT_STRING_CONVERTERS.contains(converter.getClass().getName());
+    }
+
+    private static MimeType contentType(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (contentType instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        if (contentType instanceof String value) {
+            return MimeTypeUtils.parseMimeType(value);
+        }
+        return null;
+    }
+
+    private static boolean isJson(MimeType contentType) {
+        return contentType != null && ("json".equals(contentType.getSubtype()) || contentType.getSubtype().endsWith("+json"));
     }
 
-    private Object extractAndConvertValue(Message rocketMessage, Type payloadType) {
-        return rocketMessage.getBody();
+    @FunctionalInterface
+    private interface PayloadConversion {
+        org.springframework.messaging.Message<?> convert(Message rocketMessage, MessageHeaders headers);
     }
 
     @Override
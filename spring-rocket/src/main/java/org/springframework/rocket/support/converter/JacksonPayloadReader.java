@@ -0,0 +1,105 @@
+package org.springframework.rocket.support.converter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.ContentTypeResolver;
+import org.springframework.messaging.converter.DefaultContentTypeResolver;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads payloads with an {@link ObjectReader} prepared once for the target type, from the
+ * {@link ObjectMapper} of the {@link MappingJackson2MessageConverter} that would convert them.
+ * Only referenced when Jackson is on the classpath.
+ * <p>
+ * Reading directly skips the converter, so it is only done where that gives the same payload:
+ * the converter is Spring's own class, not a subclass, and resolves the content type from the
+ * header, and its object mapper can deserialize the target type, as its {@code canConvertFrom} checks.
+ */
+final class JacksonPayloadReader {
+
+    private final ObjectReader objectReader;
+    private final List<MimeType> supportedMimeTypes;
+
+    private JacksonPayloadReader(ObjectReader objectReader, List<MimeType> supportedMimeTypes) {
+        this.objectReader = objectReader;
+        this.supportedMimeTypes = supportedMimeTypes;
+    }
+
+    /**
+     * @return the reader, or {@code null} if the payload is not converted by a Jackson converter
+     */
+    static JacksonPayloadReader of(MessageConverter messageConverter, Type payloadType) {
+        MappingJackson2MessageConverter jacksonConverter = findJacksonConverter(messageConverter);
+        if (jacksonConverter == null || !resolvesContentTypeFromHeader(jacksonConverter)) {
+            return null;
+        }
+        ObjectMapper objectMapper = jacksonConverter.getObjectMapper();
+        JavaType javaType = objectMapper.constructType(payloadType);
+        if (!objectMapper.canDeserialize(javaType)) {
+            return null;
+        }
+        return new JacksonPayloadReader(objectMapper.readerFor(javaType), jacksonConverter.getSupportedMimeTypes());
+    }
+
+    /**
+     * The first converter of a composite converter that converts into any object type has to be the Jackson one,
+     * the byte array and string converters before it only convert into their own type.
+     */
+    private static MappingJackson2MessageConverter findJacksonConverter(MessageConverter messageConverter) {
+        if (isExactly(messageConverter, MappingJackson2MessageConverter.class)) {
+            return (MappingJackson2MessageConverter) messageConverter;
+        }
+        if (isExactly(messageConverter, CompositeMessageConverter.class)) {
+            for (MessageConverter converter : ((CompositeMessageConverter) messageConverter).getConverters()) {
+                if (isExactly(converter, MappingJackson2MessageConverter.class)) {
+                    return (MappingJackson2MessageConverter) converter;
+                }
+                if (!isExactly(converter, ByteArrayMessageConverter.class) && !isExactly(converter, StringMessageConverter.class)) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isExactly(MessageConverter converter, Class<? extends MessageConverter> type) {
+        return converter != null && converter.getClass() == type;
+    }
+
+    private static boolean resolvesContentTypeFromHeader(MappingJackson2MessageConverter converter) {
+        ContentTypeResolver resolver = converter.getContentTypeResolver();
+        return resolver == null
+                || (resolver.getClass() == DefaultContentTypeResolver.class && ((DefaultContentTypeResolver) resolver).getDefaultMimeType() == null);
+    }
+
+    boolean supports(MimeType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        for (MimeType supportedMimeType : this.supportedMimeTypes) {
+            if (supportedMimeType.isCompatibleWith(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Object read(byte[] body) {
+        try {
+            return this.objectReader.readValue(body);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not read JSON: " + e.getMessage(), e);
+        }
+    }
+}
@@ -5,72 +5,251 @@ import org.apache.rocketmq.common.message.MessageAccessor;
 import org.apache.rocketmq.common.message.MessageConst;
 import org.apache.rocketmq.common.message.MessageExt;
 import org.springframework.messaging.MessageHeaders;
-import org.springframework.rocket.support.JavaUtils;
-import org.springframework.rocket.support.RocketHeaderUtils;
+import org.springframework.rocket.support.PropertiesUtils;
 import org.springframework.rocket.support.RocketHeaders;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Maps headers in a single pass over the source map. Known headers are resolved through
+ * precomputed tables instead of a lookup per header, a header with {@link RocketHeaders#PREFIX}
+ * taking precedence over the same header without it.
+ */
 public class DefaultRocketHeaderMapper implements RocketHeaderMapper {
+
+    /**
+     * spring headers applied to the rocket message, looked up with and without prefix
+     */
+    private enum Field {
+        TAGS(RocketHeaders.TAGS),
+        KEYS(RocketHeaders.KEYS),
+        FLAG(RocketHeaders.FLAG),
+        WAIT_STORE_MSG_OK(RocketHeaders.WAIT_STORE_MSG_OK),
+        TIMER_DELIVER_MS(RocketHeaders.TIMER_DELIVER_MS),
+        TIMER_DELAY_MS(RocketHeaders.TIMER_DELAY_MS),
+        TIMER_DELAY_SEC(RocketHeaders.TIMER_DELAY_SEC),
+        DELAY_TIME_LEVEL(RocketHeaders.DELAY_TIME_LEVEL),
+        TRANSACTION_ID(RocketHeaders.TRANSACTION_ID),
+        MESSAGE_TYPE(RocketHeaders.MESSAGE_TYPE),
+        CORRELATION_ID(RocketHeaders.CORRELATION_ID),
+        MESSAGE_REPLY_TO_CLIENT(RocketHeaders.MESSAGE_REPLY_TO_CLIENT),
+        MESSAGE_TTL(RocketHeaders.MESSAGE_TTL);
+
+        private final String header;
+
+        Field(String header) {
+            this.header = header;
+        }
+    }
+
+    /**
+     * @param slot where the value is kept while mapping, prefixed headers use the even slot of a field
+     * @param custom whether the header is also copied as a user property
+     */
+    private record FieldSlot(Field field, int slot, boolean custom) {
+    }
+
+    private static final int SLOT_COUNT = Field.values().length * 2;
+    private static final Map<String, FieldSlot> FIELD_SLOTS = new HashMap<>();
+    /**
+     * rocket properties mapped to received headers, besides the user properties
+     */
+    private static final Map<String, String> RECEIVED_PROPERTIES = Map.of(
+            MessageConst.PROPERTY_TAGS, RocketHeaders.RECEIVED_TAGS,
+            MessageConst.PROPERTY_KEYS, RocketHeaders.RECEIVED_KEYS,
+            MessageConst.PROPERTY_TIMER_DELIVER_MS, RocketHeaders.RECEIVED_DELIVER_TIME_MILLIS,
+            MessageConst.PROPERTY_TIMER_DELAY_MS, RocketHeaders.RECEIVED_DELAY_MILLIS,
+            MessageConst.PROPERTY_TIMER_DELAY_SEC, RocketHeaders.RECEIVED_DELAY_SECONDS,
+            MessageConst.PROPERTY_DELAY_TIME_LEVEL, RocketHeaders.RECEIVED_DELAY_LEVEL
+    );
+
+    private static final Map<String, String> RECEIVED_HEADERS = new HashMap<>();
+
+    static {
+        RECEIVED_PROPERTIES.forEach((property, header) -> RECEIVED_HEADERS.put(header, property));
+        for (Field field : Field.values()) {
+            String plain = RocketHeaders.replacePrefix(field.header);
+            FIELD_SLOTS.put(field.header, new FieldSlot(field, field.ordinal() * 2, customize(field.header)));
+            FIELD_SLOTS.put(plain, new FieldSlot(field, field.ordinal() * 2 + 1, customize(plain)));
+        }
+    }
+
     @Override
     public void fromSpringHeaders(Map<String, Object> springHeaders, Message rocketMessage) {
         Objects.requireNonNull(rocketMessage, "rocketMessage must not be null");
         if (ObjectUtils.isEmpty(springHeaders)) {
             return;
         }
-        RocketHeaderUtils.TAGS_HEADER_GET.accept(rocketMessage, springHeaders);
-        RocketHeaderUtils.KEYS_HEADER_GET.accept(rocketMessage, springHeaders);
-        RocketHeaderUtils.FLAG_HEADER_GET.accept(rocketMessage, springHeaders);
-        RocketHeaderUtils.WAIT_STORE_MSG_OK_HEADER_GET.accept(rocketMessage, springHeaders);
-        RocketHeaderUtils.DELAY_HEADER_GET.accept(rocketMessage, springHeaders);
-        RocketHeaderUtils.TRANSACTION_ID_HEADER_GET.accept(rocketMessage, springHeaders);
+        Object[] values = new Object[SLOT_COUNT];
+        for (Map.Entry<String, Object> entry : springHeaders.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            FieldSlot fieldSlot = FIELD_SLOTS.get(key);
+            if (fieldSlot != null && !ObjectUtils.isEmpty(value)) {
+                values[fieldSlot.slot()] = value;
+            }
+            if (fieldSlot != null ? fieldSlot.custom() : customize(key)) {
+                MessageAccessor.putProperty(rocketMessage, key, String.valueOf(value));
+            }
+        }
+
+        String tags = PropertiesUtils.asString(value(values, Field.TAGS));
+        if (StringUtils.hasText(tags)) {
+            rocketMessage.setTags(tags);
+        }
+        String keys = PropertiesUtils.asString(value(values, Field.KEYS));
+        if (StringUtils.hasText(keys)) {
+            rocketMessage.setKeys(keys);
+        }
+        Integer flag = PropertiesUtils.asInteger(value(values, Field.FLAG), RocketHeaders.FLAG);
+        rocketMessage.setFlag(flag != null ? flag : 0);
+        Boolean waitStoreMsgOK = PropertiesUtils.asBoolean(value(values, Field.WAIT_STORE_MSG_OK), RocketHeaders.WAIT_STORE_MSG_OK);
+        rocketMessage.setWaitStoreMsgOK(waitStoreMsgOK != null ? waitStoreMsgOK : Boolean.TRUE);
 
-        RocketHeaderUtils.REPLY_HEADER_GET.accept(rocketMessage, springHeaders);
+        Long timerDeliverMs = PropertiesUtils.asLong(value(values, Field.TIMER_DELIVER_MS), RocketHeaders.TIMER_DELIVER_MS);
+        if (timerDeliverMs != null) {
+            rocketMessage.setDeliverTimeMs(timerDeliverMs);
+        } else {
+            Long timerDelayMs = PropertiesUtils.asLong(value(values, Field.TIMER_DELAY_MS), RocketHeaders.TIMER_DELAY_MS);
+            if (timerDelayMs != null) {
+                rocketMessage.setDelayTimeMs(timerDelayMs);
+            } else {
+                Long timerDelaySec = PropertiesUtils.asLong(value(values, Field.TIMER_DELAY_SEC), RocketHeaders.TIMER_DELAY_SEC);
+                if (timerDelaySec != null) {
+                    rocketMessage.setDelayTimeSec(timerDelaySec);
+                } else {
+                    Integer delayTimeLevel = PropertiesUtils.asInteger(value(values, Field.DELAY_TIME_LEVEL), RocketHeaders.DELAY_TIME_LEVEL);
+                    if (delayTimeLevel != null) {
+                        rocketMessage.setDelayTimeLevel(delayTimeLevel);
+                    }
+                }
+            }
+        }
+
+        String transactionId = PropertiesUtils.asString(value(values, Field.TRANSACTION_ID));
+        if (StringUtils.hasText(transactionId)) {
+            rocketMessage.setTransactionId(transactionId);
+        }
 
-        springHeaders.entrySet().stream()
-                .filter(entry -> customize(entry.getKey()))
-                .forEach(entry -> MessageAccessor.putProperty(rocketMessage, entry.getKey(), String.valueOf(entry.getValue())));
+        putPropertyIfHasText(rocketMessage, MessageConst.PROPERTY_MESSAGE_TYPE, value(values, Field.MESSAGE_TYPE));
+        putPropertyIfHasText(rocketMessage, MessageConst.PROPERTY_CORRELATION_ID, value(values, Field.CORRELATION_ID));
+        putPropertyIfHasText(rocketMessage, MessageConst.PROPERTY_MESSAGE_REPLY_TO_CLIENT, value(values, Field.MESSAGE_REPLY_TO_CLIENT));
+        putPropertyIfHasText(rocketMessage, MessageConst.PROPERTY_MESSAGE_TTL, value(values, Field.MESSAGE_TTL));
     }
 
     @Override
     public void toSpringHeaders(Message rocketMessage, Map<String, Object> springHeaders) {
         Objects.requireNonNull(rocketMessage, "rocketMessage must not be null");
         springHeaders.put(RocketHeaders.RECEIVED_TOPIC, rocketMessage.getTopic());
-        JavaUtils.INSTANCE
-                .acceptIfHasText(rocketMessage.getTags(), value -> springHeaders.put(RocketHeaders.RECEIVED_TAGS, value))
-                .acceptIfHasText(rocketMessage.getKeys(), value -> springHeaders.put(RocketHeaders.RECEIVED_KEYS, value))
-                .acceptIfNotNull(rocketMessage.getFlag(), value -> springHeaders.put(RocketHeaders.RECEIVED_FLAG, value))
-                .acceptIfNotNull(rocketMessage.isWaitStoreMsgOK(), value -> springHeaders.put(RocketHeaders.RECEIVED_WAIT_STORE_MSG_OK, value))
-                .acceptIfHasText(rocketMessage.getProperty(MessageConst.PROPERTY_TIMER_DELIVER_MS), value -> springHeaders.put(RocketHeaders.RECEIVED_DELIVER_TIME_MILLIS, value))
-                .acceptIfHasText(rocketMessage.getProperty(MessageConst.PROPERTY_TIMER_DELAY_MS), value -> springHeaders.put(RocketHeaders.RECEIVED_DELAY_MILLIS, value))
-                .acceptIfHasText(rocketMessage.getProperty(MessageConst.PROPERTY_TIMER_DELAY_SEC), value -> springHeaders.put(RocketHeaders.RECEIVED_DELAY_SECONDS, value))
-                .acceptIfHasText(rocketMessage.getProperty(MessageConst.PROPERTY_DELAY_TIME_LEVEL), value -> springHeaders.put(RocketHeaders.RECEIVED_DELAY_LEVEL, value))
-                .acceptIfHasText(rocketMessage.getTransactionId(), value -> springHeaders.put(RocketHeaders.RECEIVED_TRANSACTION_ID, value));
+        springHeaders.put(RocketHeaders.RECEIVED_FLAG, rocketMessage.getFlag());
+        springHeaders.put(RocketHeaders.RECEIVED_WAIT_STORE_MSG_OK, rocketMessage.isWaitStoreMsgOK());
+        putIfHasText(springHeaders, RocketHeaders.RECEIVED_TRANSACTION_ID, rocketMessage.getTransactionId());
 
         if (rocketMessage instanceof MessageExt messageExt) {
-            JavaUtils.INSTANCE
-                    .acceptIfHasText(messageExt.getMsgId(), value -> springHeaders.put(RocketHeaders.RECEIVED_MESSAGE_ID, value))
-                    .acceptIfNotNull(messageExt.getQueueId(), value -> springHeaders.put(RocketHeaders.RECEIVED_QUEUE_ID, value))
-                    .acceptIfNotNull(messageExt.getQueueOffset(), value -> springHeaders.put(RocketHeaders.RECEIVED_QUEUE_OFFSET, value))
-                    .acceptIfNotNull(messageExt.getBornTimestamp(), value -> springHeaders.put(RocketHeaders.RECEIVED_BORN_TIMESTAMP, value))
-                    .acceptIfHasText(messageExt.getBornHostString(), value -> springHeaders.put(RocketHeaders.RECEIVED_BORN_HOST, value))
-                    .acceptIfNotNull(messageExt.getSysFlag(), value -> springHeaders.put(RocketHeaders.RECEIVED_SYS_FLAG, value));
-        }
-        if (!ObjectUtils.isEmpty(rocketMessage.getProperties())) {
-            rocketMessage.getProperties().entrySet().stream()
-                    .filter(entry -> !MessageHeaders.ID.equals(entry.getKey())
-                            && !MessageHeaders.TIMESTAMP.equals(entry.getKey())
-                            && customize(entry.getKey())
-            ).forEach(entry -> springHeaders.put(entry.getKey(), entry.getValue()));
+            putIfHasText(springHeaders, RocketHeaders.RECEIVED_MESSAGE_ID, messageExt.getMsgId());
+            springHeaders.put(RocketHeaders.RECEIVED_QUEUE_ID, messageExt.getQueueId());
+            springHeaders.put(RocketHeaders.RECEIVED_QUEUE_OFFSET, messageExt.getQueueOffset());
+            springHeaders.put(RocketHeaders.RECEIVED_BORN_TIMESTAMP, messageExt.getBornTimestamp());
+            putIfHasText(springHeaders, RocketHeaders.RECEIVED_BORN_HOST, messageExt.getBornHostString());
+            springHeaders.put(RocketHeaders.RECEIVED_SYS_FLAG, messageExt.getSysFlag());
+        }
+
+        Map<String, String> properties = rocketMessage.getProperties();
+        if (ObjectUtils.isEmpty(properties)) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            String key = entry.getKey();
+            String receivedHeader = RECEIVED_PROPERTIES.get(key);
+            if (receivedHeader != null) {
+                putIfHasText(springHeaders, receivedHeader, entry.getValue());
+            } else if (!MessageHeaders.ID.equals(key) && !MessageHeaders.TIMESTAMP.equals(key) && customize(key)) {
+                springHeaders.put(key, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Resolve one header the way {@link #toSpringHeaders} would map it, without mapping the others.
+     * @return the header value, or {@code null} if {@link #toSpringHeaders} would not map the header
+     */
+    public Object toSpringHeader(Message rocketMessage, String header) {
+        Objects.requireNonNull(rocketMessage, "rocketMessage must not be null");
+        if (header == null || MessageHeaders.ID.equals(header) || MessageHeaders.TIMESTAMP.equals(header)) {
+            return null;
+        }
+        Map<String, String> properties = rocketMessage.getProperties();
+        if (properties != null) {
+            // user properties are mapped last, so they win over headers of the same name
+            String value = properties.get(header);
+            if (value != null && !RECEIVED_PROPERTIES.containsKey(header) && customize(header)) {
+                return value;
+            }
+            String property = RECEIVED_HEADERS.get(header);
+            if (property != null) {
+                String propertyValue = properties.get(property);
+                return StringUtils.hasText(propertyValue) ? propertyValue : null;
+            }
+        }
+        switch (header) {
+            case RocketHeaders.RECEIVED_TOPIC:
+                return rocketMessage.getTopic();
+            case RocketHeaders.RECEIVED_FLAG:
+                return rocketMessage.getFlag();
+            case RocketHeaders.RECEIVED_WAIT_STORE_MSG_OK:
+                return rocketMessage.isWaitStoreMsgOK();
+            case RocketHeaders.RECEIVED_TRANSACTION_ID:
+                return StringUtils.hasText(rocketMessage.getTransactionId()) ? rocketMessage.getTransactionId() : null;
+            default:
+                break;
+        }
+        if (!(rocketMessage instanceof MessageExt messageExt)) {
+            return null;
+        }
+        return switch (header) {
+            case RocketHeaders.RECEIVED_MESSAGE_ID -> StringUtils.hasText(messageExt.getMsgId()) ? messageExt.getMsgId() : null;
+            case RocketHeaders.RECEIVED_QUEUE_ID -> messageExt.getQueueId();
+            case RocketHeaders.RECEIVED_QUEUE_OFFSET -> messageExt.getQueueOffset();
+            case RocketHeaders.RECEIVED_BORN_TIMESTAMP -> messageExt.getBornTimestamp();
+            case RocketHeaders.RECEIVED_BORN_HOST -> {
+                String bornHost = messageExt.getBornHostString();
+                yield StringUtils.hasText(bornHost) ? bornHost : null;
+            }
+            case RocketHeaders.RECEIVED_SYS_FLAG -> messageExt.getSysFlag();
+            default -> null;
+        };
+    }
+
+    private static Object value(Object[] values, Field field) {
+        Object prefixed = values[field.ordinal() * 2];
+        return prefixed != null ? prefixed : values[field.ordinal() * 2 + 1];
+    }
+
+    private static void putPropertyIfHasText(Message rocketMessage, String name, Object value) {
+        String text = PropertiesUtils.asString(value);
+        if (StringUtils.hasText(text)) {
+            MessageAccessor.putProperty(rocketMessage, name, text);
+        }
+    }
+
+    private static void putIfHasText(Map<String, Object> springHeaders, String header, String value) {
+        if (StringUtils.hasText(value)) {
+            springHeaders.put(header, value);
         }
     }
 
-    private boolean customize(String key) {
+    /**
+     * Whether the header is a user property, that is neither a rocket system property
+     * nor a system property with {@link RocketHeaders#PREFIX}.
+     */
+    static boolean customize(String key) {
         if (MessageConst.STRING_HASH_SET.contains(key)) {
             return false;
         }
-        return !key.startsWith(RocketHeaders.PREFIX) || !MessageConst.STRING_HASH_SET.contains(RocketHeaders.replacePrefix(key));
+        return !key.startsWith(RocketHeaders.PREFIX) || !MessageConst.STRING_HASH_SET.contains(key.substring(RocketHeaders.PREFIX.length()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package org.springframework.rocket.support.header;
+
+import org.apache.rocketmq.common.message.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link MessageHeaders} of a received message that map the rocket message on access.
+ * <p>
+ * With a {@link DefaultRocketHeaderMapper}, reading a single header resolves just that header,
+ * and the id is only generated when read. Any access to the whole map, or any read with another
+ * mapper, maps all headers once through {@link RocketHeaderMapper#toSpringHeaders} and serves
+ * further reads from the result. The content type defaults to {@code text/plain}.
+ * <p>
+ * Received messages get these headers unless the converter's {@code lazyHeaders} is switched off.
+ */
+public final class RocketMessageHeaders extends MessageHeaders {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Message rocketMessage;
+    private final transient RocketHeaderMapper headerMapper;
+    private final long timestamp = System.currentTimeMillis();
+    private transient volatile UUID id;
+    private transient volatile Map<String, Object> headers;
+
+    public RocketMessageHeaders(Message rocketMessage, RocketHeaderMapper headerMapper) {
+        super(null, ID_VALUE_NONE, -1L);
+        this.rocketMessage = Objects.requireNonNull(rocketMessage, "rocketMessage must not be null");
+        this.headerMapper = Objects.requireNonNull(headerMapper, "headerMapper must not be null");
+    }
+
+    @Override
+    public Object get(Object key) {
+        Map<String, Object> mapped = this.headers;
+        if (mapped != null) {
+            return mapped.get(key);
+        }
+        if (!(key instanceof String header)) {
+            return null;
+        }
+        if (ID.equals(header)) {
+            return id();
+        }
+        if (TIMESTAMP.equals(header)) {
+            return this.timestamp;
+        }
+        if (this.headerMapper instanceof DefaultRocketHeaderMapper defaultHeaderMapper) {
+            Object value = defaultHeaderMapper.toSpringHeader(this.rocketMessage, header);
+            return value == null && CONTENT_TYPE.equals(header) ? MimeTypeUtils.TEXT_PLAIN : value;
+        }
+        return headers().get(header);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = get(key);
+        if (value == null) {
+            return null;
+        }
+        if (!type.isAssignableFrom(value.getClass())) {
+            throw new IllegalArgumentException("Incorrect type specified for header '" + key + "'. Expected [" + type
+                    + "] but actual type is [" + value.getClass() + "]");
+        }
+        return (T) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return headers().containsValue(value);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return headers().entrySet();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return headers().keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return headers().values();
+    }
+
+    @Override
+    public int size() {
+        return headers().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    protected Map<String, Object> getRawHeaders() {
+        return headers();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Map<?, ?> map && headers().equals(map));
+    }
+
+    @Override
+    public int hashCode() {
+        return headers().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return headers().toString();
+    }
+
+    private UUID id() {
+        UUID generated = this.id;
+        if (generated == null) {
+            synchronized (this) {
+                generated = this.id;
+                if (generated == null) {
+                    generated = getIdGenerator().generateId();
+                    this.id = generated;
+                }
+            }
+        }
+        return generated;
+    }
+
+    private Map<String, Object> headers() {
+        Map<String, Object> mapped = this.headers;
+        if (mapped == null) {
+            synchronized (this) {
+                mapped = this.headers;
+                if (mapped == null) {
+                    mapped = new HashMap<>(64);
+                    this.headerMapper.toSpringHeaders(this.rocketMessage, mapped);
+                    mapped.putIfAbsent(CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN);
+                    mapped.put(ID, id());
+                    mapped.put(TIMESTAMP, this.timestamp);
+                    mapped = Collections.unmodifiableMap(mapped);
+                    this.headers = mapped;
+                }
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Serialize the mapped headers as plain {@link MessageHeaders}, the rocket message is not serializable.
+     */
+    @Serial
+    private Object writeReplace() {
+        return new MappedHeaders(headers());
+    }
+
+    private static final class MappedHeaders extends MessageHeaders {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private MappedHeaders(Map<String, Object> headers) {
+            super(headers, (UUID) headers.get(ID), (Long) headers.get(TIMESTAMP));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.springframework.rocket.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.RocketException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class InFlightLimiterTest {
+
+    @Test
+    void blocksUntilRoomIsReleased() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(2, Long.MAX_VALUE, BackpressureMode.BLOCK);
+        limiter.acquire(2, 0, 0);
+
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> limiter.acquire(1, 0, 10_000));
+        Thread.sleep(100);
+        boolean waited = !acquired.isDone();
+        limiter.release(1, 0);
+
+        assertThat(waited).isTrue();
+        assertThat(acquired.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.getInFlightMessages()).isEqualTo(2);
+    }
+
+    @Test
+    void failsBlockedAcquireAfterTimeout() {
+        InFlightLimiter limiter = new InFlightLimiter(1, Long.MAX_VALUE, BackpressureMode.BLOCK);
+        limiter.acquire(1, 0, 0);
+
+        Throwable thrown = catchThrowable(() -> limiter.acquire(1, 0, 50));
+
+        assertThat(thrown).isInstanceOf(RocketException.class).hasMessageContaining("within 50ms");
+        assertThat(limiter.getInFlightMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void failsFastWithoutRoom() {
+        InFlightLimiter limiter = new InFlightLimiter(Integer.MAX_VALUE, 100, BackpressureMode.FAIL_FAST);
+        limiter.acquire(1, 60, 0);
+
+        Throwable thrown = catchThrowable(() -> limiter.acquire(1, 60, 10_000));
+
+        assertThat(thrown).isInstanceOf(RocketException.class).hasMessageContaining("in-flight limit reached");
+        assertThat(limiter.getInFlightBytes()).isEqualTo(60);
+    }
+
+    @Test
+    void shedsWithoutRoom() {
+        InFlightLimiter limiter = new InFlightLimiter(1, Long.MAX_VALUE, BackpressureMode.SHED);
+        limiter.acquire(1, 0, 0);
+
+        boolean admitted = limiter.acquire(3, 0, 10_000);
+
+        assertThat(admitted).isFalse();
+        assertThat(limiter.getShedMessages()).isEqualTo(3);
+        assertThat(limiter.getInFlightMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsOversizedRequestWhenNothingIsInFlight() {
+        InFlightLimiter limiter = new InFlightLimiter(1, 100, BackpressureMode.FAIL_FAST);
+
+        boolean admitted = limiter.acquire(5, 1000, 0);
+        Throwable next = catchThrowable(() -> limiter.acquire(1, 1, 0));
+        limiter.release(5, 1000);
+
+        assertThat(admitted).isTrue();
+        assertThat(next).isInstanceOf(RocketException.class);
+        assertThat(limiter.getInFlightMessages()).isZero();
+        assertThat(limiter.getInFlightBytes()).isZero();
+    }
+}
@@ -0,0 +1,162 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.RocketException;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MessageAccumulatorTest {
+
+    private static final List<MessageQueue> QUEUES = List.of(new MessageQueue("topic", "broker", 0), new MessageQueue("topic", "broker", 1));
+
+    private final List<Sent> sent = new CopyOnWriteArrayList<>();
+    private MessageAccumulator accumulator;
+
+    @AfterEach
+    void close() {
+        if (this.accumulator != null) {
+            this.accumulator.close(0);
+        }
+    }
+
+    @Test
+    void sendsOneBatchPerQueueAtATimeInOrder() {
+        this.accumulator = accumulator(2, 10_000, TimeUnit.SECONDS.toMillis(10));
+
+        for (int i = 0; i < 4; i++) {
+            this.accumulator.append(message("m" + i), "key", callback(new CompletableFuture<>()), 1000);
+        }
+        int sentBeforeCompletion = this.sent.size();
+        this.sent.get(0).callback().onSuccess(sendResult("a,b", "x,y", 0));
+
+        assertThat(sentBeforeCompletion).isEqualTo(1);
+        assertThat(this.sent).extracting(Sent::bodies).containsExactly(List.of("m0", "m1"), List.of("m2", "m3"));
+        assertThat(this.sent).extracting(Sent::messageQueue).containsOnly(QUEUES.get(0));
+    }
+
+    @Test
+    void sendsBatchOnceLingerExpires() throws Exception {
+        this.accumulator = accumulator(10, 10_000, 50);
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+
+        this.accumulator.append(message("lingering"), "key", callback(future), 1000);
+        int sentBeforeLinger = this.sent.size();
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (this.sent.isEmpty() && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+
+        assertThat(sentBeforeLinger).isZero();
+        assertThat(this.sent).extracting(Sent::bodies).containsExactly(List.of("lingering"));
+    }
+
+    @Test
+    void completesEveryMessageWithItsShareOfTheBatch() {
+        this.accumulator = accumulator(3, 10_000, TimeUnit.SECONDS.toMillis(10));
+        List<CompletableFuture<SendResult>> futures = List.of(new CompletableFuture<>(), new CompletableFuture<>(), new CompletableFuture<>());
+
+        futures.forEach(future -> this.accumulator.append(message("m"), "key", callback(future), 1000));
+        this.sent.get(0).callback().onSuccess(sendResult("a,b,c", "x,y,z", 10));
+
+        assertThat(futures).extracting(CompletableFuture::join)
+                .extracting(SendResult::getMsgId, SendResult::getOffsetMsgId, SendResult::getQueueOffset)
+                .containsExactly(
+                        tuple("a", "x", 10L),
+                        tuple("b", "y", 11L),
+                        tuple("c", "z", 12L));
+    }
+
+    @Test
+    void failsEveryMessageOfAFailedBatch() {
+        this.accumulator = accumulator(2, 10_000, TimeUnit.SECONDS.toMillis(10));
+        List<CompletableFuture<SendResult>> futures = List.of(new CompletableFuture<>(), new CompletableFuture<>());
+
+        futures.forEach(future -> this.accumulator.append(message("m"), "key", callback(future), 1000));
+        this.sent.get(0).callback().onException(new RocketException("broker busy"));
+
+        assertThat(futures).allSatisfy(future -> assertThat(catchThrowable(future::join)).hasRootCauseMessage("broker busy"));
+    }
+
+    @Test
+    void keepsBatchesWithinTheMaxSize() {
+        Message large = message("x".repeat(600));
+        long largeSize = MessageBatchSplitter.estimateSize(large);
+        this.accumulator = accumulator(10, largeSize + 100, TimeUnit.SECONDS.toMillis(10));
+
+        this.accumulator.append(large, "key", callback(new CompletableFuture<>()), 1000);
+        this.accumulator.append(message("y".repeat(600)), "key", callback(new CompletableFuture<>()), 1000);
+        boolean acceptsLarger = this.accumulator.accepts(message("z".repeat(800)));
+
+        // the second message did not fit, so the first one's batch was closed and sent alone
+        assertThat(this.sent).extracting(Sent::bodies).containsExactly(List.of(new String(large.getBody(), StandardCharsets.UTF_8)));
+        assertThat(acceptsLarger).isFalse();
+        assertThat(this.accumulator.accepts(message("small"))).isTrue();
+    }
+
+    @Test
+    void rejectsMessagesOnceClosed() {
+        this.accumulator = accumulator(10, 10_000, TimeUnit.SECONDS.toMillis(10));
+        this.accumulator.close(0);
+
+        Throwable thrown = catchThrowable(() -> this.accumulator.append(message("late"), "key", callback(new CompletableFuture<>()), 1000));
+
+        assertThat(thrown).isInstanceOf(RocketException.class);
+        assertThat(this.sent).isEmpty();
+    }
+
+    private MessageAccumulator accumulator(int batchMaxMessages, long batchMaxBytes, long lingerMillis) {
+        MQProducer producer = (MQProducer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{MQProducer.class},
+                (proxy, method, args) -> {
+                    if ("send".equals(method.getName())) {
+                        List<?> messages = args[0] instanceof Collection<?> batch ? List.copyOf(batch) : List.of(args[0]);
+                        this.sent.add(new Sent(messages.stream().map(message -> new String(((Message) message).getBody(), StandardCharsets.UTF_8)).toList(),
+                                (MessageQueue) args[1], (SendCallback) args[2]));
+                    }
+                    return null;
+                });
+        return new MessageAccumulator(new ProducerPool(List.of(producer), ProducerSelection.ROUND_ROBIN), topic -> QUEUES,
+                (messageQueues, message, shardingKey) -> messageQueues.get(0), batchMaxMessages, batchMaxBytes, 4 * 1024 * 1024, lingerMillis);
+    }
+
+    private static Message message(String body) {
+        return new Message("topic", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SendResult sendResult(String msgIds, String offsetMsgIds, long queueOffset) {
+        return new SendResult(SendStatus.SEND_OK, msgIds, offsetMsgIds, QUEUES.get(0), queueOffset);
+    }
+
+    private static SendCallback callback(CompletableFuture<SendResult> future) {
+        return new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                future.complete(sendResult);
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+    }
+
+    private record Sent(List<String> bodies, MessageQueue messageQueue, SendCallback callback) {
+    }
+}
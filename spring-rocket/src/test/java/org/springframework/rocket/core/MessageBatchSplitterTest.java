@@ -0,0 +1,85 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageDecoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.RocketException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageBatchSplitterTest {
+
+    @Test
+    void keepsBatchWithinLimitsWhole() {
+        List<Message> messages = messages(10, 100);
+
+        List<int[]> batches = MessageBatchSplitter.split(messages, indexes(10), Integer.MAX_VALUE, 4 * 1024 * 1024);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactly(indexes(10));
+    }
+
+    @Test
+    void splitsByMessageCount() {
+        List<Message> messages = messages(5, 10);
+
+        List<int[]> batches = MessageBatchSplitter.split(messages, indexes(5), 2, 4 * 1024 * 1024);
+
+        assertThat(batches).containsExactly(new int[]{0, 1}, new int[]{2, 3}, new int[]{4});
+    }
+
+    @Test
+    void splitsBySize() {
+        List<Message> messages = messages(4, 1000);
+        long size = MessageBatchSplitter.estimateSize(messages.get(0));
+
+        List<int[]> batches = MessageBatchSplitter.split(messages, indexes(4), Integer.MAX_VALUE, size * 2);
+
+        assertThat(batches).containsExactly(new int[]{0, 1}, new int[]{2, 3});
+    }
+
+    @Test
+    void keepsGivenIndexOrder() {
+        List<Message> messages = messages(6, 10);
+
+        List<int[]> batches = MessageBatchSplitter.split(messages, new int[]{5, 1, 3}, 2, 4 * 1024 * 1024);
+
+        assertThat(batches).containsExactly(new int[]{5, 1}, new int[]{3});
+    }
+
+    @Test
+    void rejectsMessageLargerThanMaxSize() {
+        List<Message> messages = messages(2, 1000);
+
+        assertThatThrownBy(() -> MessageBatchSplitter.split(messages, indexes(2), Integer.MAX_VALUE, 500))
+                .isInstanceOf(RocketException.class)
+                .hasMessageContaining("message 0");
+    }
+
+    @Test
+    void countsPropertiesAsEncodedBytes() {
+        Message message = new Message("topic", "tag", "键值", "body".getBytes(StandardCharsets.UTF_8));
+        message.putUserProperty("name", "名字🚀");
+
+        byte[] encodedProperties = MessageDecoder.messageProperties2String(message.getProperties()).getBytes(StandardCharsets.UTF_8);
+        long expected = 4 + 4 + 4 + 4 + 4 + 2 + 64 + message.getBody().length + encodedProperties.length;
+
+        assertThat(MessageBatchSplitter.estimateSize(message)).isGreaterThanOrEqualTo(expected);
+        assertThat(MessageBatchSplitter.utf8Length("名字🚀")).isEqualTo("名字🚀".getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static List<Message> messages(int count, int bodySize) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Message("topic", new byte[bodySize]))
+                .toList();
+    }
+
+    private static int[] indexes(int count) {
+        return IntStream.range(0, count).toArray();
+    }
+}
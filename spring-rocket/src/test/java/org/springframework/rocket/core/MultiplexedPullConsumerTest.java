@@ -0,0 +1,154 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.client.consumer.MessageQueueListener;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultiplexedPullConsumerTest {
+
+    private static final MessageQueue QUEUE = new MessageQueue("topic", "broker", 0);
+    private static final TopicTag TAG_A = new TopicTag(QUEUE.getTopic(), "a");
+    private static final TopicTag TAG_B = new TopicTag(QUEUE.getTopic(), "b");
+
+    private final AtomicBoolean polled = new AtomicBoolean();
+    private final List<Map<MessageQueue, Long>> commits = new CopyOnWriteArrayList<>();
+    private final List<Collection<MessageQueue>> pauses = new CopyOnWriteArrayList<>();
+    private final List<Collection<MessageQueue>> resumes = new CopyOnWriteArrayList<>();
+    private final List<String> subExpressions = new CopyOnWriteArrayList<>();
+    private final AtomicReference<MessageQueueListener> rebalanceListener = new AtomicReference<>();
+
+    @Test
+    void commitsOnlyMessagesHandedToReceive() {
+        MultiplexedPullConsumer consumer = new MultiplexedPullConsumer(consumer(), 10, 60_000);
+        consumer.subscribe(TAG_A);
+        consumer.subscribe(TAG_B);
+
+        List<MessageExt> receivedA = consumer.receive(TAG_A, 1000);
+        List<Map<MessageQueue, Long>> commitsAfterA = List.copyOf(this.commits);
+        List<MessageExt> receivedB = consumer.receive(TAG_B, 1000);
+
+        assertThat(receivedA).extracting(MessageExt::getQueueOffset).containsExactly(0L, 2L);
+        // the message of tag b is still buffered
+        assertThat(commitsAfterA).containsExactly(Map.of(QUEUE, 1L));
+        assertThat(receivedB).extracting(MessageExt::getQueueOffset).containsExactly(1L);
+        assertThat(this.commits).last().isEqualTo(Map.of(QUEUE, 3L));
+    }
+
+    @Test
+    void doesNotCommitBufferedMessagesOnShutdown() {
+        MultiplexedPullConsumer consumer = new MultiplexedPullConsumer(consumer(), 10, 60_000);
+        consumer.subscribe(TAG_A);
+        consumer.subscribe(TAG_B);
+
+        consumer.receive(TAG_A, 1000);
+        consumer.shutdown();
+
+        assertThat(this.commits).allMatch(offsets -> offsets.get(QUEUE) == 1L);
+    }
+
+    @Test
+    void pausesQueuesAssignedWhilePaused() {
+        MultiplexedPullConsumer consumer = new MultiplexedPullConsumer(consumer(), 1, 60_000);
+        consumer.subscribe(TAG_A);
+        consumer.subscribe(TAG_B);
+
+        consumer.receive(TAG_B, 1000);
+        MessageQueue assigned = new MessageQueue(QUEUE.getTopic(), "broker", 1);
+        this.rebalanceListener.get().messageQueueChanged(QUEUE.getTopic(), Set.of(QUEUE, assigned), Set.of(QUEUE, assigned));
+
+        assertThat(this.pauses).hasSize(2);
+        assertThat(this.pauses.get(1)).containsExactlyInAnyOrder(QUEUE, assigned);
+    }
+
+    @Test
+    void dropsSubscriptionNobodyReceivesFromWhileItsTopicIsReceived() throws Exception {
+        MultiplexedPullConsumer consumer = new MultiplexedPullConsumer(consumer(), 1, 50);
+        consumer.subscribe(TAG_A);
+        consumer.subscribe(TAG_B);
+
+        List<MessageExt> receivedB = consumer.receive(TAG_B, 1000);
+        List<Map<MessageQueue, Long>> commitsBeforeIdle = List.copyOf(this.commits);
+        Thread.sleep(100);
+        consumer.receive(TAG_B, 100);
+
+        assertThat(receivedB).extracting(MessageExt::getQueueOffset).containsExactly(1L);
+        // the messages of tag a held back the offset and kept the topic paused
+        assertThat(commitsBeforeIdle).containsExactly(Map.of(QUEUE, 0L));
+        assertThat(this.pauses).hasSize(1);
+        assertThat(this.subExpressions).containsExactly("a", "a || b", "b");
+        assertThat(this.commits).last().isEqualTo(Map.of(QUEUE, 3L));
+        assertThat(this.resumes).containsExactly(List.of(QUEUE));
+    }
+
+    @Test
+    void keepsIdleSubscriptionWhileNoOtherOfItsTopicIsReceived() throws Exception {
+        MultiplexedPullConsumer consumer = new MultiplexedPullConsumer(consumer(), 10, 50);
+        consumer.subscribe(TAG_A);
+
+        Thread.sleep(100);
+        consumer.receive(new TopicTag("other", "*"), 100);
+        List<MessageExt> receivedA = consumer.receive(TAG_A, 1000);
+
+        assertThat(this.subExpressions).containsExactly("a", "*");
+        assertThat(receivedA).extracting(MessageExt::getQueueOffset).containsExactly(0L, 2L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LitePullConsumer consumer() {
+        return (LitePullConsumer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{LitePullConsumer.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "subscribe" -> {
+                        this.subExpressions.add((String) args[1]);
+                        this.rebalanceListener.set((MessageQueueListener) args[2]);
+                        yield null;
+                    }
+                    case "poll" -> poll();
+                    case "assignment" -> Set.of(QUEUE);
+                    case "commit" -> {
+                        this.commits.add(Map.copyOf((Map<MessageQueue, Long>) args[0]));
+                        yield null;
+                    }
+                    case "pause" -> {
+                        this.pauses.add(List.copyOf((Collection<MessageQueue>) args[0]));
+                        yield null;
+                    }
+                    case "resume" -> {
+                        this.resumes.add(List.copyOf((Collection<MessageQueue>) args[0]));
+                        yield null;
+                    }
+                    case "isRunning", "isAutoCommit" -> false;
+                    default -> null;
+                });
+    }
+
+    private List<MessageExt> poll() throws InterruptedException {
+        if (this.polled.getAndSet(true)) {
+            Thread.sleep(10);
+            return List.of();
+        }
+        return List.of(message(0, "a"), message(1, "b"), message(2, "a"));
+    }
+
+    private static MessageExt message(long offset, String tag) {
+        MessageExt message = new MessageExt();
+        message.setTopic(QUEUE.getTopic());
+        message.setBrokerName(QUEUE.getBrokerName());
+        message.setQueueId(QUEUE.getQueueId());
+        message.setQueueOffset(offset);
+        message.setTags(tag);
+        return message;
+    }
+}
@@ -0,0 +1,87 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefetchingReceiverTest {
+
+    private static final MessageQueue QUEUE = new MessageQueue("topic", "broker", 0);
+
+    private final AtomicBoolean polled = new AtomicBoolean();
+    private final List<Map<MessageQueue, Long>> commits = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Void> shutdown = new CompletableFuture<>();
+    private final CompletableFuture<PrefetchingReceiver> closed = new CompletableFuture<>();
+
+    @Test
+    void closesWhenStreamEnds() throws Exception {
+        List<MessageExt> messages = receiver(100L).stream().toList();
+
+        assertThat(messages).extracting(MessageExt::getQueueOffset).containsExactly(0L, 1L, 2L);
+        assertThat(this.shutdown).isDone();
+        assertThat(this.closed).isDone();
+        assertThat(this.commits).last().isEqualTo(Map.of(QUEUE, 3L));
+    }
+
+    @Test
+    void closesStreamLeftAfterLimit() throws Exception {
+        List<MessageExt> messages = receiver(null).stream().limit(2).toList();
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!this.closed.isDone() && System.nanoTime() < deadlineNanos) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(messages).hasSize(2);
+        assertThat(this.closed).isDone();
+        assertThat(this.shutdown).isDone();
+        // the last message of the limit was not requested past, it is received again
+        assertThat(this.commits).last().isEqualTo(Map.of(QUEUE, 1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PrefetchingReceiver receiver(Long idleTimeoutMillis) {
+        LitePullConsumer consumer = (LitePullConsumer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{LitePullConsumer.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "poll" -> poll();
+                    case "commit" -> {
+                        this.commits.add(Map.copyOf((Map<MessageQueue, Long>) args[0]));
+                        yield null;
+                    }
+                    case "shutdown" -> {
+                        this.shutdown.complete(null);
+                        yield null;
+                    }
+                    case "isRunning", "isAutoCommit" -> false;
+                    default -> null;
+                });
+        return new PrefetchingReceiver(new TopicTag(QUEUE.getTopic(), null), consumer, null, 10, 10, idleTimeoutMillis, this.closed::complete);
+    }
+
+    private List<MessageExt> poll() throws InterruptedException {
+        if (this.polled.getAndSet(true)) {
+            Thread.sleep(10);
+            return List.of();
+        }
+        return LongStream.range(0, 3).mapToObj(offset -> {
+            MessageExt message = new MessageExt();
+            message.setTopic(QUEUE.getTopic());
+            message.setBrokerName(QUEUE.getBrokerName());
+            message.setQueueId(QUEUE.getQueueId());
+            message.setQueueOffset(offset);
+            return message;
+        }).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.RocketException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class PullPollerTest {
+
+    private static final TopicTag TOPIC_TAG = new TopicTag("topic", "*");
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Long> timeouts = new CopyOnWriteArrayList<>();
+    private PullPoller poller;
+
+    @AfterEach
+    void close() {
+        this.release.countDown();
+        if (this.poller != null) {
+            this.poller.close();
+        }
+    }
+
+    @Test
+    void servesReceivesInOrder() throws Exception {
+        this.poller = new PullPoller(TOPIC_TAG, blockingReceiver());
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+
+        List<CompletableFuture<List<MessageExt>>> futures = List.of(this.poller.poll(10_000), this.poller.poll(10_000), this.poller.poll(10_000));
+        for (int i = 0; i < futures.size(); i++) {
+            int index = i;
+            futures.get(i).thenRun(() -> completed.add(index));
+        }
+        boolean doneBeforeRelease = futures.stream().anyMatch(CompletableFuture::isDone);
+        this.release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(doneBeforeRelease).isFalse();
+        assertThat(futures).extracting(CompletableFuture::join)
+                .extracting(messages -> messages.get(0).getQueueOffset())
+                .containsExactly(0L, 1L, 2L);
+        assertThat(completed).containsExactly(0, 1, 2);
+        // each receive polls for what is left of its own timeout
+        assertThat(this.timeouts).hasSize(3).allMatch(timeout -> timeout > 0 && timeout <= 10_000);
+    }
+
+    @Test
+    void completesEmptyOnceDeadlinePassedWhileWaiting() throws Exception {
+        this.poller = new PullPoller(TOPIC_TAG, blockingReceiver());
+
+        CompletableFuture<List<MessageExt>> first = this.poller.poll(10_000);
+        CompletableFuture<List<MessageExt>> expiring = this.poller.poll(50);
+        Thread.sleep(100);
+        this.release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(expiring.get(10, TimeUnit.SECONDS)).isEmpty();
+        // the expired receive did not poll
+        assertThat(this.timeouts).hasSize(1);
+    }
+
+    @Test
+    void failsPendingReceivesOnClose() throws Exception {
+        this.poller = new PullPoller(TOPIC_TAG, blockingReceiver());
+
+        CompletableFuture<List<MessageExt>> polling = this.poller.poll(10_000);
+        CompletableFuture<List<MessageExt>> pending = this.poller.poll(10_000);
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (this.timeouts.isEmpty() && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+        this.poller.close();
+        CompletableFuture<List<MessageExt>> late = this.poller.poll(10_000);
+
+        assertThat(catchThrowable(pending::join)).hasCauseInstanceOf(RocketException.class);
+        assertThat(catchThrowable(late::join)).hasCauseInstanceOf(RocketException.class);
+        // the receive in progress was interrupted and completed by the receiver
+        assertThat(polling.get(10, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    /**
+     * Receives one message per call, numbered in call order, once released; an empty list when interrupted.
+     */
+    private LongFunction<List<MessageExt>> blockingReceiver() {
+        return timeoutMillis -> {
+            this.timeouts.add(timeoutMillis);
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                return List.of();
+            }
+            MessageExt message = new MessageExt();
+            message.setTopic(TOPIC_TAG.topic());
+            message.setQueueOffset(this.timeouts.size() - 1);
+            return List.of(message);
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.client.producer.RequestCallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.rocket.RocketException;
+import org.springframework.rocket.client.RocketProducerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RocketTemplateProducerPoolTest {
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private RocketTemplate rocketTemplate;
+
+    @AfterEach
+    void destroy() {
+        if (this.rocketTemplate != null) {
+            this.rocketTemplate.destroy();
+        }
+    }
+
+    @Test
+    void countsOnewaySendsAndRequests() throws Exception {
+        this.rocketTemplate = new RocketTemplate(producerFactory(producer("factory")));
+        this.rocketTemplate.afterPropertiesSet();
+
+        this.rocketTemplate.sendOneway("topic", MessageBuilder.withPayload("oneway").build());
+        Throwable requestFailure = catchThrowable(() -> this.rocketTemplate.sendAndReceive("topic", MessageBuilder.withPayload("request").build(), String.class, null));
+        CompletableFuture<Throwable> asyncRequestFailure = new CompletableFuture<>();
+        this.rocketTemplate.<String>sendAndReceiveAsync("topic", MessageBuilder.withPayload("request").build(), String.class, null,
+                (reply, e) -> asyncRequestFailure.complete(e));
+        Throwable asyncFailure = asyncRequestFailure.get(5, TimeUnit.SECONDS);
+
+        assertThat(requestFailure).isInstanceOf(RocketException.class);
+        assertThat(asyncFailure).isInstanceOf(RocketException.class);
+        assertThat(this.rocketTemplate.getProducerMetrics()).singleElement()
+                .satisfies(metrics -> {
+                    assertThat(metrics.inFlight()).isZero();
+                    assertThat(metrics.sent()).isEqualTo(1);
+                    assertThat(metrics.failed()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void sendsThroughProducerSetBeforeInitialization() throws Exception {
+        this.rocketTemplate = new RocketTemplate(producerFactory(producer("factory")));
+        this.rocketTemplate.setProducer(producer("given"));
+        this.rocketTemplate.afterPropertiesSet();
+
+        this.rocketTemplate.sendOneway("topic", MessageBuilder.withPayload("oneway").build());
+
+        assertThat(this.calls).containsExactly("given sendOneway");
+        assertThat(this.rocketTemplate.getProducerMetrics()).singleElement()
+                .satisfies(metrics -> assertThat(metrics.sent()).isEqualTo(1));
+    }
+
+    private MQProducer producer(String name) {
+        return (MQProducer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{MQProducer.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "sendOneway" -> this.calls.add(name + " sendOneway");
+                        case "request" -> {
+                            if (args[args.length - 2] instanceof RequestCallback callback) {
+                                callback.onException(new RocketException("no reply"));
+                                return null;
+                            }
+                            throw new RocketException("no reply");
+                        }
+                        case "start", "shutdown" -> this.calls.add(name + " " + method.getName());
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private RocketProducerFactory producerFactory(MQProducer producer) {
+        return new RocketProducerFactory() {
+            @Override
+            public Map<String, Object> getDefaultProperties() {
+                return Map.of();
+            }
+
+            @Override
+            public MQProducer create(String groupId, Map<String, Object> overrideProperties) {
+                return producer;
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.producer.MQProducer;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.rocket.RocketException;
+import org.springframework.rocket.client.RocketProducerFactory;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RocketTemplateSendBatchTest {
+
+    private final List<Integer> sentBatchSizes = new ArrayList<>();
+    /**
+     * Completions of the asynchronous sends, held back while {@link #holdAsyncSends} is set
+     */
+    private final List<Runnable> heldCompletions = new CopyOnWriteArrayList<>();
+    private boolean holdAsyncSends;
+    private RocketTemplate rocketTemplate;
+
+    @AfterEach
+    void destroy() {
+        if (this.rocketTemplate != null) {
+            this.rocketTemplate.destroy();
+        }
+    }
+
+    @Test
+    void sendsBatchInOnePieceByDefault() throws Exception {
+        this.rocketTemplate = rocketTemplate(null);
+
+        SendResult sendResult = this.rocketTemplate.sendBatch("topic", messages(300, -1), null);
+
+        assertThat(this.sentBatchSizes).containsExactly(300);
+        assertThat(sendResult.getSendStatus()).isEqualTo(SendStatus.SEND_OK);
+    }
+
+    @Test
+    void reportsStoredSubBatchesWhenOneFails() throws Exception {
+        this.rocketTemplate = rocketTemplate(2);
+
+        Throwable thrown = catchThrowable(() -> this.rocketTemplate.sendBatch("topic", messages(5, 2), null));
+
+        assertThat(thrown).isInstanceOf(BatchSendException.class);
+        BatchSendException e = (BatchSendException) thrown;
+        assertThat(e.getSendResults()).hasSize(3);
+        assertThat(e.getSendResults().get(0)).isNotNull();
+        assertThat(e.getSendResults().get(1)).isNull();
+        assertThat(e.getSendResults().get(2)).isNotNull();
+        assertThat(e.getFailures().get(1)).hasMessage("broker busy");
+        assertThat(e.getFailedMessageIndexes()).containsExactly(2, 3);
+        assertThat(e.isSent(4)).isTrue();
+    }
+
+    @Test
+    void failsFutureOfSendNotAdmittedByInFlightLimit() throws Exception {
+        this.rocketTemplate = rocketTemplate(null, 1);
+        this.holdAsyncSends = true;
+
+        CompletableFuture<SendResult> first = this.rocketTemplate.sendAsync("topic", MessageBuilder.withPayload("first").build(), (Long) null);
+        CompletableFuture<SendResult> second = this.rocketTemplate.sendAsync("topic", MessageBuilder.withPayload("second").build(), (Long) null);
+        this.heldCompletions.forEach(Runnable::run);
+
+        assertThat(first).isCompleted();
+        assertThat(catchThrowable(second::join)).hasCauseInstanceOf(RocketException.class);
+    }
+
+    @Test
+    void reportsSubBatchesNotAdmittedByInFlightLimit() throws Exception {
+        this.rocketTemplate = rocketTemplate(2, 2);
+        this.holdAsyncSends = true;
+
+        CompletableFuture<SendResult> future = this.rocketTemplate.sendBatchAsync("topic", messages(5, -1), (Long) null);
+        this.heldCompletions.forEach(Runnable::run);
+        Throwable thrown = catchThrowable(future::join);
+
+        assertThat(thrown).hasCauseInstanceOf(BatchSendException.class);
+        BatchSendException e = (BatchSendException) thrown.getCause();
+        assertThat(e.getSendResults().get(0)).isNotNull();
+        assertThat(e.getFailures().get(1)).isInstanceOf(RocketException.class);
+        assertThat(e.getFailures().get(2)).isInstanceOf(RocketException.class);
+        assertThat(e.getFailedMessageIndexes()).containsExactly(2, 3, 4);
+    }
+
+    private RocketTemplate rocketTemplate(Integer splitBatchMaxMessages) throws Exception {
+        return rocketTemplate(splitBatchMaxMessages, null);
+    }
+
+    /**
+     * @param maxInFlightMessages the in-flight limit, failing fast, {@code null} for none
+     */
+    private RocketTemplate rocketTemplate(Integer splitBatchMaxMessages, Integer maxInFlightMessages) throws Exception {
+        MQProducer producer = (MQProducer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{MQProducer.class},
+                (proxy, method, args) -> {
+                    if (!"send".equals(method.getName())) {
+                        return null;
+                    }
+                    List<?> messages = args[0] instanceof Collection<?> batch ? List.copyOf(batch) : List.of(args[0]);
+                    if (args[0] instanceof Collection<?>) {
+                        synchronized (this.sentBatchSizes) {
+                            this.sentBatchSizes.add(messages.size());
+                        }
+                    }
+                    boolean fail = messages.stream().anyMatch(message -> new String(((Message) message).getBody(), StandardCharsets.UTF_8).contains("fail"));
+                    SendResult sendResult = new SendResult();
+                    sendResult.setSendStatus(SendStatus.SEND_OK);
+                    if (!(args[1] instanceof SendCallback callback)) {
+                        if (fail) {
+                            throw new RocketException("broker busy");
+                        }
+                        return sendResult;
+                    }
+                    Runnable completion = () -> {
+                        if (fail) {
+                            callback.onException(new RocketException("broker busy"));
+                        } else {
+                            callback.onSuccess(sendResult);
+                        }
+                    };
+                    if (this.holdAsyncSends) {
+                        this.heldCompletions.add(completion);
+                    } else {
+                        completion.run();
+                    }
+                    return null;
+                });
+        RocketProducerFactory producerFactory = new RocketProducerFactory() {
+            @Override
+            public Map<String, Object> getDefaultProperties() {
+                return Map.of();
+            }
+
+            @Override
+            public MQProducer create(String groupId, Map<String, Object> overrideProperties) {
+                return producer;
+            }
+        };
+        RocketTemplate rocketTemplate = new RocketTemplate(producerFactory);
+        rocketTemplate.setSplitBatchMaxMessages(splitBatchMaxMessages);
+        rocketTemplate.setMaxInFlightMessages(maxInFlightMessages);
+        rocketTemplate.setBackpressureMode(BackpressureMode.FAIL_FAST);
+        rocketTemplate.afterPropertiesSet();
+        return rocketTemplate;
+    }
+
+    /**
+     * @param failIndex index of the message whose sub-batch fails, -1 for none
+     */
+    private static List<org.springframework.messaging.Message<?>> messages(int count, int failIndex) {
+        return IntStream.range(0, count)
+                .<org.springframework.messaging.Message<?>>mapToObj(i -> MessageBuilder.withPayload(i == failIndex ? "fail" : "payload-" + i).build())
+                .toList();
+    }
+}
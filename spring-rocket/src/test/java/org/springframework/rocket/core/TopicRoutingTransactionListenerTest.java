@@ -0,0 +1,71 @@
+package org.springframework.rocket.core;
+
+import org.apache.rocketmq.client.producer.LocalTransactionState;
+import org.apache.rocketmq.client.producer.TransactionListener;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.remoting.protocol.NamespaceUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicRoutingTransactionListenerTest {
+
+    private final TopicRoutingTransactionListener router = new TopicRoutingTransactionListener();
+
+    @Test
+    void routesByTopicOfMessage() {
+        this.router.register("orders", listener(LocalTransactionState.COMMIT_MESSAGE, LocalTransactionState.COMMIT_MESSAGE));
+        this.router.register("payments", listener(LocalTransactionState.ROLLBACK_MESSAGE, LocalTransactionState.UNKNOW));
+
+        assertThat(this.router.executeLocalTransaction(new Message("orders", new byte[0]), null)).isEqualTo(LocalTransactionState.COMMIT_MESSAGE);
+        assertThat(this.router.executeLocalTransaction(new Message("payments", new byte[0]), null)).isEqualTo(LocalTransactionState.ROLLBACK_MESSAGE);
+        assertThat(this.router.checkLocalTransaction(messageExt("orders"))).isEqualTo(LocalTransactionState.COMMIT_MESSAGE);
+        assertThat(this.router.checkLocalTransaction(messageExt("payments"))).isEqualTo(LocalTransactionState.UNKNOW);
+    }
+
+    @Test
+    void routesTopicWithNamespace() {
+        this.router.register("orders", listener(LocalTransactionState.COMMIT_MESSAGE, LocalTransactionState.ROLLBACK_MESSAGE));
+        String namespacedTopic = NamespaceUtil.wrapNamespace("tenant", "orders");
+
+        assertThat(this.router.executeLocalTransaction(new Message(namespacedTopic, new byte[0]), null)).isEqualTo(LocalTransactionState.COMMIT_MESSAGE);
+        assertThat(this.router.checkLocalTransaction(messageExt(namespacedTopic))).isEqualTo(LocalTransactionState.ROLLBACK_MESSAGE);
+    }
+
+    @Test
+    void leavesTopicWithoutListenerUnknown() {
+        this.router.register("orders", listener(LocalTransactionState.COMMIT_MESSAGE, LocalTransactionState.COMMIT_MESSAGE));
+
+        assertThat(this.router.executeLocalTransaction(new Message("payments", new byte[0]), null)).isEqualTo(LocalTransactionState.UNKNOW);
+        assertThat(this.router.checkLocalTransaction(messageExt("payments"))).isEqualTo(LocalTransactionState.UNKNOW);
+    }
+
+    @Test
+    void registrationReplacesListenerOfTopic() {
+        this.router.register("orders", listener(LocalTransactionState.COMMIT_MESSAGE, LocalTransactionState.COMMIT_MESSAGE));
+        this.router.register("orders", listener(LocalTransactionState.ROLLBACK_MESSAGE, LocalTransactionState.ROLLBACK_MESSAGE));
+
+        assertThat(this.router.executeLocalTransaction(new Message("orders", new byte[0]), null)).isEqualTo(LocalTransactionState.ROLLBACK_MESSAGE);
+    }
+
+    private static TransactionListener listener(LocalTransactionState executeState, LocalTransactionState checkState) {
+        return new TransactionListener() {
+            @Override
+            public LocalTransactionState executeLocalTransaction(Message message, Object arg) {
+                return executeState;
+            }
+
+            @Override
+            public LocalTransactionState checkLocalTransaction(MessageExt message) {
+                return checkState;
+            }
+        };
+    }
+
+    private static MessageExt messageExt(String topic) {
+        MessageExt message = new MessageExt();
+        message.setTopic(topic);
+        return message;
+    }
+}
@@ -0,0 +1,101 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchAggregatorTest {
+
+    private final List<List<Message>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void handsFullBatchToListener() throws Exception {
+        BatchAggregator aggregator = new BatchAggregator(this.batches::add, 4, TimeUnit.SECONDS.toMillis(30));
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> aggregator.consume(messages(2)));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> aggregator.consume(messages(2)));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        assertThat(this.batches).hasSize(1);
+        assertThat(this.batches.get(0)).hasSize(4);
+    }
+
+    @Test
+    void handsPartialBatchWhenWindowExpires() {
+        BatchAggregator aggregator = new BatchAggregator(this.batches::add, 10, 50);
+
+        assertThat(aggregator.consume(messages(3))).isEqualTo(-1);
+        assertThat(this.batches).hasSize(1);
+        assertThat(this.batches.get(0)).hasSize(3);
+    }
+
+    @Test
+    void mapsFailedIndexToEachDelivery() throws Exception {
+        BatchRocketMessageListener.Partial listener = messages -> BatchConsumeResult.failedAt(3);
+        BatchAggregator aggregator = new BatchAggregator(listener, 4, TimeUnit.SECONDS.toMillis(30));
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> aggregator.consume(messages(2)));
+        Thread.sleep(100);
+        int second = aggregator.consume(messages(2));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        assertThat(second).isEqualTo(1);
+    }
+
+    @Test
+    void failsWholeBatchWhenListenerThrows() {
+        BatchAggregator aggregator = new BatchAggregator(messages -> {
+            throw new IllegalStateException("boom");
+        }, 2, TimeUnit.SECONDS.toMillis(30));
+
+        assertThat(aggregator.consume(messages(2))).isZero();
+    }
+
+    @Test
+    void interruptedThreadFailsOpenWindow() {
+        BatchAggregator aggregator = new BatchAggregator(this.batches::add, 10, TimeUnit.SECONDS.toMillis(30));
+
+        Thread.currentThread().interrupt();
+        int failedIndex = aggregator.consume(messages(2));
+        boolean interrupted = Thread.interrupted();
+
+        assertThat(failedIndex).isZero();
+        assertThat(interrupted).isTrue();
+        assertThat(this.batches).isEmpty();
+    }
+
+    @Test
+    void interruptedCreatorDoesNotBlockNextDelivery() throws Exception {
+        BatchAggregator aggregator = new BatchAggregator(this.batches::add, 10, 50);
+        Thread creator = new Thread(() -> aggregator.consume(messages(1)));
+        creator.start();
+        Thread.sleep(10);
+        creator.interrupt();
+        creator.join(5000);
+
+        // the window of the interrupted thread is closed, a later delivery starts a new one
+        int failedIndex = CompletableFuture.supplyAsync(() -> aggregator.consume(messages(1))).get(5, TimeUnit.SECONDS);
+
+        assertThat(failedIndex).isEqualTo(-1);
+        assertThat(this.batches).hasSize(1);
+        assertThat(this.batches.get(0)).hasSize(1);
+    }
+
+    private static List<MessageExt> messages(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            MessageExt message = new MessageExt();
+            message.setTopic("topic");
+            message.setQueueOffset(i);
+            return message;
+        }).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class ConsumeThreadsAutoscalerTest {
+
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private final List<Integer> corePoolSizes = new CopyOnWriteArrayList<>();
+    private volatile double systemLoad = 0.5;
+
+    @Test
+    void growsPoolWhenBusyThreadsHaveBacklog() {
+        ConsumeThreadsAutoscaler autoscaler = autoscaler(4, 18);
+
+        autoscaler.record(List.of(message(0, 101)), busyNanos(0.8, 4));
+        autoscaler.scale();
+
+        assertThat(this.corePoolSizes).containsExactly(6);
+        assertThat(autoscaler.getThreads()).isEqualTo(6);
+        assertThat(autoscaler.getBacklog()).isEqualTo(100);
+        assertThat(autoscaler.getScaleUps()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsPoolUnlessBacklogMeetsBusyThreads() {
+        ConsumeThreadsAutoscaler autoscaler = autoscaler(4, 18);
+
+        autoscaler.record(List.of(message(0, 1)), busyNanos(0.8, 4));
+        autoscaler.scale();
+        autoscaler.record(List.of(message(0, 101)), busyNanos(0.5, 4));
+        autoscaler.scale();
+
+        assertThat(this.corePoolSizes).isEmpty();
+        assertThat(autoscaler.getHolds()).isEqualTo(2);
+    }
+
+    @Test
+    void shrinksPoolWhenThreadsAreIdleOrProcessorsOverloaded() {
+        ConsumeThreadsAutoscaler autoscaler = autoscaler(4, 18);
+        autoscaler.record(List.of(message(0, 101)), busyNanos(0.8, 4));
+        autoscaler.scale();
+        autoscaler.record(List.of(message(0, 101)), busyNanos(0.8, 6));
+        autoscaler.scale();
+
+        autoscaler.scale();
+        this.systemLoad = 2;
+        autoscaler.record(List.of(message(0, 101)), busyNanos(0.8, 7));
+        autoscaler.scale();
+
+        // grows by half twice, then idle threads and overloaded processors each take a quarter off
+        assertThat(this.corePoolSizes).containsExactly(6, 9, 7, 6);
+        assertThat(autoscaler.getScaleDowns()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsPoolWithinBounds() {
+        ConsumeThreadsAutoscaler autoscaler = autoscaler(4, 6);
+
+        autoscaler.record(List.of(message(0, 101)), busyNanos(1, 4));
+        autoscaler.scale();
+        autoscaler.record(List.of(message(0, 101)), busyNanos(1, 5));
+        autoscaler.scale();
+        autoscaler.scale();
+        autoscaler.scale();
+
+        assertThat(this.corePoolSizes).containsExactly(5, 4);
+        assertThat(autoscaler.getHolds()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsBoundsThatLeaveNoRoomToResize() {
+        Throwable thrown = catchThrowable(() -> autoscaler(20, 20));
+
+        assertThat(thrown).isInstanceOf(IllegalStateException.class).hasMessageContaining("group");
+    }
+
+    private ConsumeThreadsAutoscaler autoscaler(int consumeThreadMin, int consumeThreadMax) {
+        DefaultMQPushConsumer consumer = new DefaultMQPushConsumer("group") {
+            @Override
+            public void updateCorePoolSize(int corePoolSize) {
+                ConsumeThreadsAutoscalerTest.this.corePoolSizes.add(corePoolSize);
+            }
+        };
+        consumer.setConsumeThreadMin(consumeThreadMin);
+        consumer.setConsumeThreadMax(consumeThreadMax);
+        MessageListenerContainer container = (MessageListenerContainer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MessageListenerContainer.class},
+                (proxy, method, args) -> "getGroupId".equals(method.getName()) ? "group" : null);
+        OperatingSystemMXBean operatingSystem = (OperatingSystemMXBean) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OperatingSystemMXBean.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getSystemLoadAverage" -> this.systemLoad;
+                    case "getAvailableProcessors" -> 1;
+                    default -> null;
+                });
+        ConsumeThreadsAutoscaler autoscaler = new ConsumeThreadsAutoscaler(container, consumer, INTERVAL_MILLIS, operatingSystem);
+        // hands over the consumer to resize, the tests take the decisions instead of the scheduler
+        autoscaler.start(consumer, null);
+        autoscaler.stop();
+        return autoscaler;
+    }
+
+    private static long busyNanos(double utilization, int threads) {
+        return (long) (utilization * threads * TimeUnit.MILLISECONDS.toNanos(INTERVAL_MILLIS));
+    }
+
+    private static MessageExt message(long queueOffset, long maxOffset) {
+        MessageExt message = new MessageExt();
+        message.setTopic("topic");
+        message.setBrokerName("broker");
+        message.setQueueOffset(queueOffset);
+        MessageAccessor.putProperty(message, MessageConst.PROPERTY_MAX_OFFSET, String.valueOf(maxOffset));
+        return message;
+    }
+}
@@ -0,0 +1,188 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.client.consumer.LitePullConsumer;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.client.PullConsumerProperties;
+import org.springframework.rocket.client.RocketPullConsumerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class DefaultRocketPullMessageListenerContainerTest {
+
+    private static final MessageQueue QUEUE = new MessageQueue("topic", "broker", 0);
+
+    /**
+     * Offset of the only stored message, polled until the queue is sought past it
+     */
+    private static final long OFFSET = 5;
+
+    private final AtomicLong position = new AtomicLong(OFFSET);
+    private final List<Map<MessageQueue, Long>> commits = new CopyOnWriteArrayList<>();
+    private DefaultRocketPullMessageListenerContainer container;
+
+    @AfterEach
+    void stop() {
+        if (this.container != null) {
+            this.container.stop();
+        }
+    }
+
+    @Test
+    void handsMessageToDeadLetterHandlerAfterRetries() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<MessageExt> deadLetter = new CompletableFuture<>();
+        ContainerProperties containerProperties = containerProperties(message -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+        containerProperties.getRocketConsumerProperties().put(PullConsumerProperties.RETRIES, 1);
+        containerProperties.setDeadLetterHandler((groupId, message, cause) -> deadLetter.complete(message));
+
+        start(containerProperties);
+        MessageExt message = deadLetter.get(10, TimeUnit.SECONDS);
+        this.container.stop();
+
+        assertThat(message.getQueueOffset()).isEqualTo(OFFSET);
+        assertThat(attempts).hasValue(2);
+        assertThat(this.position).hasValue(OFFSET + 1);
+        assertThat(this.commits).last().isEqualTo(Map.of(QUEUE, OFFSET + 1));
+    }
+
+    @Test
+    void consumesAgainWhenDeadLetterHandlerFails() throws Exception {
+        AtomicInteger handled = new AtomicInteger();
+        CompletableFuture<Void> retried = new CompletableFuture<>();
+        ContainerProperties containerProperties = containerProperties(message -> {
+            if (handled.get() > 0) {
+                retried.complete(null);
+            }
+            throw new IllegalStateException("boom");
+        });
+        containerProperties.getRocketConsumerProperties().put(PullConsumerProperties.RETRIES, 0);
+        containerProperties.setDeadLetterHandler((groupId, message, cause) -> {
+            handled.incrementAndGet();
+            throw new IllegalStateException("dead letter queue unavailable");
+        });
+
+        start(containerProperties);
+        retried.get(10, TimeUnit.SECONDS);
+        this.container.stop();
+
+        assertThat(this.position).hasValue(OFFSET);
+        assertThat(this.commits).allMatch(offsets -> offsets.get(QUEUE) == OFFSET);
+    }
+
+    @Test
+    void commitsOnlyWhenAskedWithManualCommit() throws Exception {
+        CompletableFuture<Void> consumed = new CompletableFuture<>();
+        ContainerProperties containerProperties = containerProperties(message -> consumed.complete(null));
+        containerProperties.getRocketConsumerProperties().put(PullConsumerProperties.MANUAL_COMMIT, true);
+
+        start(containerProperties);
+        consumed.get(10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        List<Map<MessageQueue, Long>> commitsBeforeAsked = List.copyOf(this.commits);
+        this.container.commitAsync().get(10, TimeUnit.SECONDS);
+
+        assertThat(commitsBeforeAsked).isEmpty();
+        assertThat(this.commits).containsExactly(Map.of(QUEUE, OFFSET + 1));
+    }
+
+    @Test
+    void failsCommitRequestOfStoppedContainer() {
+        this.container = new DefaultRocketPullMessageListenerContainer(consumerFactory(), containerProperties(message -> {
+        }));
+
+        Throwable thrown = catchThrowable(() -> this.container.commitAsync().get(10, TimeUnit.SECONDS));
+
+        assertThat(thrown).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsUnsupportedSettings() {
+        ContainerProperties rateLimited = containerProperties(message -> {
+        });
+        rateLimited.setMaxMessagesPerSecond(10.0);
+        DefaultRocketPullMessageListenerContainer orderly = new DefaultRocketPullMessageListenerContainer(consumerFactory(), containerProperties(message -> {
+        }));
+        orderly.setConcurrency(false);
+
+        assertThat(catchThrowable(() -> new DefaultRocketPullMessageListenerContainer(consumerFactory(), rateLimited).start()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rate limit");
+        assertThat(catchThrowable(orderly::start))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("orderly");
+    }
+
+    private void start(ContainerProperties containerProperties) {
+        this.container = new DefaultRocketPullMessageListenerContainer(consumerFactory(), containerProperties);
+        this.container.start();
+    }
+
+    private static ContainerProperties containerProperties(RocketMessageListener listener) {
+        ContainerProperties containerProperties = new ContainerProperties();
+        containerProperties.setGroupId("group");
+        containerProperties.setTopic(QUEUE.getTopic());
+        containerProperties.setMessageListener(listener);
+        return containerProperties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RocketPullConsumerFactory consumerFactory() {
+        LitePullConsumer consumer = (LitePullConsumer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{LitePullConsumer.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "poll" -> poll();
+                    case "seek" -> {
+                        this.position.set((Long) args[1]);
+                        yield null;
+                    }
+                    case "commit" -> {
+                        this.commits.add(Map.copyOf((Map<MessageQueue, Long>) args[0]));
+                        yield null;
+                    }
+                    case "isRunning", "isAutoCommit" -> false;
+                    default -> null;
+                });
+        return new RocketPullConsumerFactory() {
+            @Override
+            public Map<String, Object> getDefaultProperties() {
+                return Map.of();
+            }
+
+            @Override
+            public LitePullConsumer create(String groupId, Map<String, Object> overrideProperties) {
+                return consumer;
+            }
+        };
+    }
+
+    private List<MessageExt> poll() throws InterruptedException {
+        long offset = this.position.getAndUpdate(current -> current == OFFSET ? current + 1 : current);
+        if (offset != OFFSET) {
+            Thread.sleep(10);
+            return List.of();
+        }
+        MessageExt message = new MessageExt();
+        message.setTopic(QUEUE.getTopic());
+        message.setBrokerName(QUEUE.getBrokerName());
+        message.setQueueId(QUEUE.getQueueId());
+        message.setQueueOffset(OFFSET);
+        message.setMsgId("message-" + OFFSET);
+        message.setBody(new byte[0]);
+        return List.of(message);
+    }
+}
@@ -0,0 +1,89 @@
+package org.springframework.rocket.listener;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedKeySetTest {
+
+    @Test
+    void containsAddedKeys() {
+        HashedKeySet set = new HashedKeySet(8);
+
+        assertThat(set.add(1L, "a")).isTrue();
+        assertThat(set.add(2L, "b")).isTrue();
+
+        assertThat(set.contains(1L, "a")).isTrue();
+        assertThat(set.contains(2L, "b")).isTrue();
+        assertThat(set.contains(3L, "c")).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsKeyAlreadyPresent() {
+        HashedKeySet set = new HashedKeySet(8);
+        set.add(1L, "a");
+
+        assertThat(set.add(1L, "a")).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void tellsApartKeysWithSameHash() {
+        HashedKeySet set = new HashedKeySet(8);
+        set.add(42L, "a");
+
+        assertThat(set.contains(42L, "b")).isFalse();
+        assertThat(set.add(42L, "b")).isTrue();
+        assertThat(set.contains(42L, "a")).isTrue();
+        assertThat(set.contains(42L, "b")).isTrue();
+    }
+
+    @Test
+    void storesZeroHash() {
+        HashedKeySet set = new HashedKeySet(8);
+
+        assertThat(set.contains(0L, "zero")).isFalse();
+        set.add(0L, "zero");
+
+        assertThat(set.contains(0L, "zero")).isTrue();
+    }
+
+    @Test
+    void stopsAddingWhenFull() {
+        HashedKeySet set = new HashedKeySet(3);
+        for (long i = 0; i < 3; i++) {
+            set.add(i, "key-" + i);
+        }
+
+        assertThat(set.isFull()).isTrue();
+        assertThat(set.add(3L, "key-3")).isFalse();
+        assertThat(set.contains(3L, "key-3")).isFalse();
+    }
+
+    @Test
+    void findsKeysAfterProbingAroundTheTable() {
+        HashedKeySet set = new HashedKeySet(100);
+        for (long i = 0; i < 100; i++) {
+            set.add(i * 1024, "key-" + i);
+        }
+
+        for (long i = 0; i < 100; i++) {
+            assertThat(set.contains(i * 1024, "key-" + i)).isTrue();
+        }
+        assertThat(set.contains(100 * 1024, "key-100")).isFalse();
+    }
+
+    @Test
+    void clearRemovesEveryKey() {
+        HashedKeySet set = new HashedKeySet(4);
+        set.add(1L, "a");
+        set.add(2L, "b");
+
+        set.clear();
+
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(1L, "a")).isFalse();
+        assertThat(set.add(1L, "a")).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class MessageDeduplicatorTest {
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Test
+    void detectsConsumedMessageId() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_MSG_ID, TTL_MILLIS, 100);
+        deduplicator.consumed(message("id-1", null));
+
+        assertThat(deduplicator.isDuplicate(message("id-1", null))).isTrue();
+        assertThat(deduplicator.isDuplicate(message("id-2", null))).isFalse();
+        assertThat(deduplicator.getHits()).isEqualTo(1);
+        assertThat(deduplicator.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void identifiesByKeys() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_KEYS, TTL_MILLIS, 100);
+        deduplicator.consumed(message("id-1", "order-1"));
+
+        assertThat(deduplicator.isDuplicate(message("id-2", "order-1"))).isTrue();
+        assertThat(deduplicator.isDuplicate(message("id-1", "order-2"))).isFalse();
+    }
+
+    @Test
+    void identifiesByExpression() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator("getUserProperty('orderId')", TTL_MILLIS, 100);
+        MessageExt consumed = message("id-1", null);
+        consumed.putUserProperty("orderId", "42");
+        deduplicator.consumed(consumed);
+        MessageExt redelivered = message("id-2", null);
+        redelivered.putUserProperty("orderId", "42");
+
+        assertThat(deduplicator.isDuplicate(redelivered)).isTrue();
+        assertThat(deduplicator.isDuplicate(message("id-3", null))).isFalse();
+    }
+
+    @Test
+    void forgetsIdentitiesAfterTtl() throws InterruptedException {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_MSG_ID, 100, 100);
+        deduplicator.consumed(message("id-1", null));
+
+        Thread.sleep(250);
+
+        assertThat(deduplicator.isDuplicate(message("id-1", null))).isFalse();
+    }
+
+    @Test
+    void remembersAboutCapacityIdentities() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_MSG_ID, TTL_MILLIS, 10);
+        for (int i = 0; i < 10; i++) {
+            deduplicator.consumed(message("id-" + i, null));
+        }
+
+        // the oldest generation is retired once the current one is full
+        assertThat(deduplicator.isDuplicate(message("id-9", null))).isTrue();
+        deduplicator.consumed(message("id-10", null));
+        assertThat(deduplicator.isDuplicate(message("id-0", null))).isFalse();
+        assertThat(deduplicator.isDuplicate(message("id-10", null))).isTrue();
+    }
+
+    @Test
+    void recordsOnlySuccessfullyConsumedMessages() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_MSG_ID, TTL_MILLIS, 100);
+        RocketMessageListener listener = (RocketMessageListener) deduplicator.decorate((RocketMessageListener) message -> {
+            throw new IllegalStateException("boom");
+        });
+
+        Throwable thrown = catchThrowable(() -> listener.onMessage(message("id-1", null)));
+
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        assertThat(deduplicator.isDuplicate(message("id-1", null))).isFalse();
+    }
+
+    @Test
+    void handsBatchListenerOnlyFreshMessagesAndMapsFailedIndex() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(MessageDeduplicator.KEY_MSG_ID, TTL_MILLIS, 100);
+        deduplicator.consumed(message("id-1", null));
+        List<List<Message>> received = new ArrayList<>();
+        BatchRocketMessageListener.Partial delegate = messages -> {
+            received.add(messages);
+            return BatchConsumeResult.failedAt(1);
+        };
+        BatchRocketMessageListener listener = (BatchRocketMessageListener) deduplicator.decorate(delegate);
+
+        BatchConsumeResult result = listener.consume(List.of(message("id-0", null), message("id-1", null), message("id-2", null)));
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).hasSize(2);
+        assertThat(result.getFailedIndex()).isEqualTo(2);
+        assertThat(deduplicator.isDuplicate(message("id-0", null))).isTrue();
+        assertThat(deduplicator.isDuplicate(message("id-2", null))).isFalse();
+    }
+
+    private static MessageExt message(String msgId, String keys) {
+        MessageExt message = new MessageExt();
+        message.setTopic("topic");
+        message.setMsgId(msgId);
+        if (keys != null) {
+            message.setKeys(keys);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,256 @@
+package org.springframework.rocket.listener;
+
+import org.apache.rocketmq.client.consumer.MessageQueueListener;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeOrderlyStatus;
+import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
+import org.apache.rocketmq.client.consumer.listener.MessageListenerOrderly;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.rocket.support.RocketHeaders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.entry;
+
+class RocketMessageListenerFactoryTest {
+
+    private static final MessageQueue QUEUE = new MessageQueue("topic", "broker", 0);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void acknowledgesMessagesBeforePartialResult() {
+        BatchRocketMessageListener.Partial listener = messages -> BatchConsumeResult.failedAt(2);
+        MessageListenerConcurrently concurrently = RocketMessageListenerFactory.createConcurrently(listener, null);
+        ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(new MessageQueue("topic", "broker", 0));
+
+        ConsumeConcurrentlyStatus status = concurrently.consumeMessage(messages(4), context);
+
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        assertThat(context.getAckIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void consumesBatchAgainWhenFirstMessageFails() {
+        BatchRocketMessageListener.Partial listener = messages -> BatchConsumeResult.failedAt(0);
+        MessageListenerConcurrently concurrently = RocketMessageListenerFactory.createConcurrently(listener, null);
+        ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(new MessageQueue("topic", "broker", 0));
+
+        assertThat(concurrently.consumeMessage(messages(4), context)).isEqualTo(ConsumeConcurrentlyStatus.RECONSUME_LATER);
+    }
+
+    @Test
+    void throwsFailedIndexFromOnMessage() {
+        BatchRocketMessageListener.Partial listener = messages -> BatchConsumeResult.failedAt(3);
+
+        Throwable thrown = catchThrowable(() -> listener.onMessage(List.of()));
+
+        assertThat(thrown).isInstanceOf(BatchListenerFailedException.class);
+        assertThat(((BatchListenerFailedException) thrown).getIndex()).isEqualTo(3);
+    }
+
+    @Test
+    void consumesBatchInParallelAndAcknowledgesBeforeFirstFailure() {
+        CountDownLatch allStarted = new CountDownLatch(4);
+        List<Long> consumed = new CopyOnWriteArrayList<>();
+        RocketMessageListener listener = message -> {
+            allStarted.countDown();
+            await(allStarted);
+            consumed.add(((MessageExt) message).getQueueOffset());
+            if (((MessageExt) message).getQueueOffset() == 2) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        MessageListenerConcurrently concurrently = RocketMessageListenerFactory.createConcurrently(listener, null, this.executor, 4);
+        ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(new MessageQueue("topic", "broker", 0));
+
+        ConsumeConcurrentlyStatus status = concurrently.consumeMessage(messages(4), context);
+
+        // every message ran at the same time, the status waited for all of them
+        assertThat(consumed).containsExactlyInAnyOrder(0L, 1L, 2L, 3L);
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        assertThat(context.getAckIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsAsyncBatchOnlyOnceEveryStartedMessageCompleted() throws Exception {
+        List<CompletableFuture<Void>> started = new CopyOnWriteArrayList<>();
+        AsyncRocketMessageListener listener = asyncListener(message -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        });
+        MessageListenerConcurrently concurrently = RocketMessageListenerFactory.createConcurrently(listener, null, 4);
+        ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(QUEUE);
+
+        Future<ConsumeConcurrentlyStatus> status = this.executor.submit(() -> concurrently.consumeMessage(messages(4), context));
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (started.size() < 4 && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+        started.get(0).complete(null);
+        started.get(1).completeExceptionally(new IllegalStateException("boom"));
+        Throwable reportedEarly = catchThrowable(() -> status.get(100, TimeUnit.MILLISECONDS));
+        started.get(2).complete(null);
+        started.get(3).completeExceptionally(new IllegalStateException("boom"));
+
+        // the first failure did not report the batch while messages 2 and 3 were still in flight
+        assertThat(reportedEarly).isInstanceOf(TimeoutException.class);
+        assertThat(status.get(10, TimeUnit.SECONDS)).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        assertThat(context.getAckIndex()).isZero();
+    }
+
+    @Test
+    void stopsStartingAsyncMessagesAfterImmediateFailure() {
+        List<Long> started = new CopyOnWriteArrayList<>();
+        AsyncRocketMessageListener listener = asyncListener(message -> {
+            long offset = ((MessageExt) message).getQueueOffset();
+            started.add(offset);
+            if (offset == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+        MessageListenerConcurrently concurrently = RocketMessageListenerFactory.createConcurrently(listener, null, 4);
+        ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(QUEUE);
+
+        ConsumeConcurrentlyStatus status = concurrently.consumeMessage(messages(4), context);
+
+        assertThat(started).containsExactly(0L, 1L);
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        assertThat(context.getAckIndex()).isZero();
+    }
+
+    @Test
+    void consumesKeysInParallelAndInOrderWithinKey() {
+        CountDownLatch bothKeysStarted = new CountDownLatch(2);
+        Map<String, List<Long>> consumedByKey = new ConcurrentHashMap<>();
+        RocketMessageListener listener = message -> {
+            String key = message.getProperty(RocketHeaders.SHARDING_KEY);
+            List<Long> consumed = consumedByKey.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+            if (consumed.isEmpty()) {
+                bothKeysStarted.countDown();
+                await(bothKeysStarted);
+            }
+            consumed.add(((MessageExt) message).getQueueOffset());
+        };
+        MessageListenerOrderly orderly = RocketMessageListenerFactory.createOrderly(listener, null, this.executor, 2);
+
+        ConsumeOrderlyStatus status = orderly.consumeMessage(keyedMessages("a", "b", "a", "b", "a"), new ConsumeOrderlyContext(QUEUE));
+
+        assertThat(status).isEqualTo(ConsumeOrderlyStatus.SUCCESS);
+        assertThat(consumedByKey).containsOnly(entry("a", List.of(0L, 2L, 4L)), entry("b", List.of(1L, 3L)));
+    }
+
+    @Test
+    void skipsConsumedMessagesWhenSuspendedBatchIsRedelivered() {
+        List<Long> consumed = new CopyOnWriteArrayList<>();
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        RocketMessageListener listener = message -> {
+            long offset = ((MessageExt) message).getQueueOffset();
+            if (offset == 1 && failOnce.getAndSet(false)) {
+                throw new IllegalStateException("boom");
+            }
+            consumed.add(offset);
+        };
+        MessageListenerOrderly orderly = RocketMessageListenerFactory.createOrderly(listener, null, this.executor, 2);
+        List<MessageExt> messages = keyedMessages("a", "b", "a", "b");
+
+        ConsumeOrderlyStatus first = orderly.consumeMessage(messages, new ConsumeOrderlyContext(QUEUE));
+        List<Long> consumedFirst = List.copyOf(consumed);
+        ConsumeOrderlyStatus redelivered = orderly.consumeMessage(messages, new ConsumeOrderlyContext(QUEUE));
+
+        assertThat(first).isEqualTo(ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT);
+        // key b stopped at its failed message, key a went on
+        assertThat(consumedFirst).containsExactlyInAnyOrder(0L, 2L);
+        assertThat(redelivered).isEqualTo(ConsumeOrderlyStatus.SUCCESS);
+        assertThat(consumed).containsExactlyInAnyOrder(0L, 2L, 1L, 3L);
+    }
+
+    @Test
+    void forgetsConsumedMessagesOfQueueRebalancedAway() {
+        List<Long> consumed = new CopyOnWriteArrayList<>();
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        RocketMessageListener listener = message -> {
+            long offset = ((MessageExt) message).getQueueOffset();
+            if (offset == 1 && failOnce.getAndSet(false)) {
+                throw new IllegalStateException("boom");
+            }
+            consumed.add(offset);
+        };
+        MessageListenerOrderly orderly = RocketMessageListenerFactory.createOrderly(listener, null, this.executor, 2);
+        List<MessageExt> messages = keyedMessages("a", "b");
+
+        orderly.consumeMessage(messages, new ConsumeOrderlyContext(QUEUE));
+        ((MessageQueueListener) orderly).messageQueueChanged(QUEUE.getTopic(), Set.of(QUEUE), Set.of());
+        orderly.consumeMessage(messages, new ConsumeOrderlyContext(QUEUE));
+
+        assertThat(consumed).containsExactlyInAnyOrder(0L, 0L, 1L);
+    }
+
+    private static AsyncRocketMessageListener asyncListener(Function<Message, CompletableFuture<Void>> handler) {
+        return new AsyncRocketMessageListener() {
+            @Override
+            public CompletableFuture<Void> onMessageAsync(Message rocketMessage) {
+                return handler.apply(rocketMessage);
+            }
+
+            @Override
+            public void onMessage(Message rocketMessage) {
+                onMessageAsync(rocketMessage).join();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<MessageExt> keyedMessages(String... keys) {
+        List<MessageExt> messages = messages(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            messages.get(i).putUserProperty(RocketHeaders.SHARDING_KEY, keys[i]);
+        }
+        return messages;
+    }
+
+    private static List<MessageExt> messages(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            MessageExt message = new MessageExt();
+            message.setTopic("topic");
+            message.setQueueOffset(i);
+            return message;
+        }).toList();
+    }
+}
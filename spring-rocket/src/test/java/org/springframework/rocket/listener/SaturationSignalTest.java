@@ -0,0 +1,90 @@
+package org.springframework.rocket.listener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SaturationSignalTest {
+
+    @Test
+    void boundedQueueShareInUse() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> { });
+
+            assertThat(SaturationSignal.queueDepth(executor).getSaturation()).isEqualTo(0.25);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void synchronousQueueShareOfThreadsInUse() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, 2, 1, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            SaturationSignal signal = SaturationSignal.queueDepth(executor);
+            assertThat(signal.getSaturation()).isZero();
+
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            started.await();
+
+            assertThat(signal.getSaturation()).isEqualTo(0.5);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsUnboundedQueue() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        try {
+            assertThatIllegalArgumentException().isThrownBy(() -> SaturationSignal.queueDepth(executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void unboundedQueueShareOfSaturatedDepth() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> { });
+            }
+            SaturationSignal signal = SaturationSignal.queueDepth(executor, 2);
+
+            assertThat(signal.getSaturation()).isEqualTo(1);
+            assertThat(SaturationSignal.queueDepth(executor, 6).getSaturation()).isEqualTo(0.5);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.springframework.rocket.listener;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsWithOneSecondOfTokens() {
+        TokenBucket bucket = new TokenBucket(100);
+
+        long first = bucket.take(60);
+        long second = bucket.take(40);
+
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+    }
+
+    @Test
+    void waitsForTheDebt() {
+        TokenBucket bucket = new TokenBucket(100);
+
+        assertThat(bucket.take(150)).isBetween(490L, 500L);
+    }
+
+    @Test
+    void laterTakersPayForEarlierDebt() {
+        TokenBucket bucket = new TokenBucket(100);
+        bucket.take(150);
+        long waitMillis = bucket.take(10);
+
+        assertThat(waitMillis).isBetween(590L, 600L);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000);
+        bucket.take(1000);
+
+        Thread.sleep(50);
+
+        assertThat(bucket.take(40)).isZero();
+    }
+
+    @Test
+    void refillsUpToOneSecondOfTokens() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10);
+
+        Thread.sleep(50);
+
+        long full = bucket.take(10);
+        long over = bucket.take(1);
+
+        assertThat(full).isZero();
+        assertThat(over).isPositive();
+    }
+}
@@ -0,0 +1,74 @@
+package org.springframework.rocket.listener.adapter;
+
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.common.message.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.rocket.core.RocketTemplate;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultRocketMessageListenerAdapterTest {
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final List<String> replies = new CopyOnWriteArrayList<>();
+
+    @Test
+    void sendsReplyOnlyOnceAsyncResultCompleted() throws Exception {
+        DefaultRocketMessageListenerAdapter adapter = adapter("handle");
+        adapter.setReplyTemplate(replyTemplate());
+        adapter.setReplyTopic("reply");
+
+        CompletableFuture<Void> handled = adapter.onMessageAsync(new Message("topic", "request".getBytes(StandardCharsets.UTF_8)));
+        boolean handledBeforeResult = handled.isDone();
+        List<String> repliesBeforeResult = List.copyOf(this.replies);
+        this.result.complete("response");
+
+        assertThat(adapter.isAsync()).isTrue();
+        assertThat(handledBeforeResult).isFalse();
+        assertThat(repliesBeforeResult).isEmpty();
+        assertThat(handled).isCompleted();
+        assertThat(this.replies).containsExactly("reply:response");
+    }
+
+    @Test
+    void failsHandledFutureWhenAsyncResultFails() throws Exception {
+        DefaultRocketMessageListenerAdapter adapter = adapter("handle");
+        adapter.setReplyTemplate(replyTemplate());
+        adapter.setReplyTopic("reply");
+
+        CompletableFuture<Void> handled = adapter.onMessageAsync(new Message("topic", "request".getBytes(StandardCharsets.UTF_8)));
+        this.result.completeExceptionally(new IllegalStateException("boom"));
+
+        assertThat(handled).isCompletedExceptionally();
+        assertThat(this.replies).isEmpty();
+    }
+
+    public CompletableFuture<String> handle(String request) {
+        return this.result;
+    }
+
+    private DefaultRocketMessageListenerAdapter adapter(String methodName) throws NoSuchMethodException {
+        Method method = getClass().getMethod(methodName, String.class);
+        DefaultRocketMessageListenerAdapter adapter = new DefaultRocketMessageListenerAdapter(this, method);
+        adapter.setHandlerMethod(new HandlerAdapter(new InvocableHandlerMethod(this, method)));
+        return adapter;
+    }
+
+    private RocketTemplate replyTemplate() {
+        return new RocketTemplate(null) {
+            @Override
+            public void sendAsync(String topic, org.springframework.messaging.Message<?> message, Long timeoutMillis,
+                                  BiConsumer<SendResult, Throwable> sendConsumer) {
+                DefaultRocketMessageListenerAdapterTest.this.replies.add(topic + ":" + message.getPayload());
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package org.springframework.rocket.support;
+
+import org.apache.rocketmq.common.message.MessageConst;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RocketHeadersTest {
+
+    @Test
+    void replacesPrefixOfPrefixedHeadersOnly() {
+        assertThat(RocketHeaders.replacePrefix(RocketHeaders.TAGS)).isEqualTo(MessageConst.PROPERTY_TAGS);
+        assertThat(RocketHeaders.replacePrefix(MessageConst.PROPERTY_TAGS)).isEqualTo(MessageConst.PROPERTY_TAGS);
+        assertThat(RocketHeaders.replacePrefix(RocketHeaders.PREFIX)).isEmpty();
+        assertThat(RocketHeaders.replacePrefix("")).isNull();
+        assertThat(RocketHeaders.replacePrefix(null)).isNull();
+    }
+
+    @Test
+    void findsPrefixedHeaderBeforePlainOne() {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RocketHeaders.KEYS, "prefixed");
+        headers.put(MessageConst.PROPERTY_KEYS, "plain");
+        headers.put(MessageConst.PROPERTY_TAGS, "plain");
+        headers.put(RocketHeaders.FLAG, "");
+
+        assertThat(RocketHeaders.find(headers, RocketHeaders.KEYS)).isEqualTo("prefixed");
+        assertThat(RocketHeaders.find(headers, RocketHeaders.TAGS)).isEqualTo("plain");
+        // an empty value counts as missing
+        assertThat(RocketHeaders.find(headers, RocketHeaders.FLAG)).isNull();
+        assertThat(RocketHeaders.find(headers, null)).isNull();
+    }
+}
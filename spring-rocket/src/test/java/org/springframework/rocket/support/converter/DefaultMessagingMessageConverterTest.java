@@ -0,0 +1,91 @@
+package org.springframework.rocket.support.converter;
+
+import org.apache.rocketmq.common.message.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultMessagingMessageConverterTest {
+
+    @Test
+    void decodesTextAsString() {
+        DefaultMessagingMessageConverter converter = converter(new MappingJackson2MessageConverter());
+
+        Object payload = converter.toMessage(message("\"abc\"", "text/plain"), String.class).getPayload();
+
+        assertThat(payload).isEqualTo("\"abc\"");
+    }
+
+    @Test
+    void readsJsonStringThroughConverter() {
+        DefaultMessagingMessageConverter converter = converter(new MappingJackson2MessageConverter());
+
+        Object payload = converter.toMessage(message("\"abc\"", "application/json"), String.class).getPayload();
+
+        assertThat(payload).isEqualTo("abc");
+    }
+
+    @Test
+    void readsJsonWithGenericType() throws Exception {
+        DefaultMessagingMessageConverter converter = converter(new MappingJackson2MessageConverter());
+
+        Object payload = converter.toMessage(message("{\"a\":1}", "application/json"),
+                DefaultMessagingMessageConverterTest.class.getDeclaredMethod("mapType").getGenericReturnType()).getPayload();
+
+        assertThat(payload).isEqualTo(Map.of("a", 1));
+    }
+
+    @Test
+    void leavesCustomizedJacksonConverterInCharge() {
+        DefaultMessagingMessageConverter converter = converter(new MappingJackson2MessageConverter() {
+            @Override
+            protected Object convertFromInternal(org.springframework.messaging.Message<?> message, Class<?> targetClass, Object conversionHint) {
+                return Map.of("converted", true);
+            }
+        });
+
+        Object payload = converter.toMessage(message("{\"a\":1}", "application/json"), Map.class).getPayload();
+
+        assertThat(payload).isEqualTo(Map.of("converted", true));
+    }
+
+    @Test
+    void leavesCustomConverterInChargeOfStrings() {
+        DefaultMessagingMessageConverter converter = new DefaultMessagingMessageConverter();
+        converter.setMessagingConverter(new StringMessageConverter() {
+            @Override
+            protected Object convertFromInternal(org.springframework.messaging.Message<?> message, Class<?> targetClass, Object conversionHint) {
+                return new StringBuilder((String) super.convertFromInternal(message, targetClass, conversionHint)).reverse().toString();
+            }
+        });
+
+        Object payload = converter.toMessage(message("abc", "text/plain"), String.class).getPayload();
+
+        assertThat(payload).isEqualTo("cba");
+    }
+
+    @SuppressWarnings("unused")
+    private static Map<String, Integer> mapType() {
+        return null;
+    }
+
+    private static DefaultMessagingMessageConverter converter(MappingJackson2MessageConverter jacksonConverter) {
+        DefaultMessagingMessageConverter converter = new DefaultMessagingMessageConverter();
+        converter.setMessagingConverter(new CompositeMessageConverter(List.of(new StringMessageConverter(), jacksonConverter)));
+        return converter;
+    }
+
+    private static Message message(String body, String contentType) {
+        Message message = new Message("topic", body.getBytes(StandardCharsets.UTF_8));
+        message.putUserProperty(MessageHeaders.CONTENT_TYPE, contentType);
+        return message;
+    }
+}
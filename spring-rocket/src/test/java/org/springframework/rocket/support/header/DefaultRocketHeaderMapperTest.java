@@ -0,0 +1,124 @@
+package org.springframework.rocket.support.header;
+
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageAccessor;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.rocket.support.RocketHeaders;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class DefaultRocketHeaderMapperTest {
+
+    private final DefaultRocketHeaderMapper mapper = new DefaultRocketHeaderMapper();
+
+    @Test
+    void prefersPrefixedHeaderOverPlainOne() {
+        Map<String, Object> springHeaders = new HashMap<>();
+        springHeaders.put(RocketHeaders.TAGS, "prefixed");
+        springHeaders.put(MessageConst.PROPERTY_TAGS, "plain");
+        springHeaders.put(MessageConst.PROPERTY_KEYS, "key");
+        springHeaders.put(RocketHeaders.FLAG, 7);
+        springHeaders.put(MessageConst.PROPERTY_WAIT_STORE_MSG_OK, "false");
+        springHeaders.put(RocketHeaders.CORRELATION_ID, "correlation");
+        Message rocketMessage = new Message("topic", new byte[0]);
+
+        this.mapper.fromSpringHeaders(springHeaders, rocketMessage);
+
+        assertThat(rocketMessage.getTags()).isEqualTo("prefixed");
+        assertThat(rocketMessage.getKeys()).isEqualTo("key");
+        assertThat(rocketMessage.getFlag()).isEqualTo(7);
+        assertThat(rocketMessage.isWaitStoreMsgOK()).isFalse();
+        assertThat(rocketMessage.getProperty(MessageConst.PROPERTY_CORRELATION_ID)).isEqualTo("correlation");
+        // system headers are applied to their fields, not copied as user properties
+        assertThat(rocketMessage.getProperties()).doesNotContainKeys(RocketHeaders.TAGS, RocketHeaders.CORRELATION_ID);
+    }
+
+    @Test
+    void appliesFirstOfTheDelayHeaders() {
+        Map<String, Object> springHeaders = new HashMap<>();
+        springHeaders.put(RocketHeaders.DELAY_TIME_LEVEL, 3);
+        springHeaders.put(MessageConst.PROPERTY_TIMER_DELAY_SEC, 10L);
+        springHeaders.put(RocketHeaders.TIMER_DELIVER_MS, 1000L);
+        Message rocketMessage = new Message("topic", new byte[0]);
+
+        this.mapper.fromSpringHeaders(springHeaders, rocketMessage);
+
+        assertThat(rocketMessage.getDeliverTimeMs()).isEqualTo(1000L);
+        assertThat(rocketMessage.getProperties()).doesNotContainKeys(MessageConst.PROPERTY_TIMER_DELAY_SEC, MessageConst.PROPERTY_DELAY_TIME_LEVEL);
+    }
+
+    @Test
+    void copiesUserHeadersAsProperties() {
+        Map<String, Object> springHeaders = new HashMap<>();
+        springHeaders.put("trace", "abc");
+        springHeaders.put(RocketHeaders.SHARDING_KEY, "order-1");
+        Message rocketMessage = new Message("topic", new byte[0]);
+
+        this.mapper.fromSpringHeaders(springHeaders, rocketMessage);
+
+        assertThat(rocketMessage.getUserProperty("trace")).isEqualTo("abc");
+        assertThat(rocketMessage.getUserProperty(RocketHeaders.SHARDING_KEY)).isEqualTo("order-1");
+    }
+
+    @Test
+    void mapsReceivedMessageToSpringHeaders() {
+        MessageExt rocketMessage = new MessageExt();
+        rocketMessage.setTopic("topic");
+        rocketMessage.setTags("tag");
+        rocketMessage.setKeys("key");
+        rocketMessage.setFlag(7);
+        rocketMessage.setMsgId("message-id");
+        rocketMessage.setQueueId(2);
+        rocketMessage.setQueueOffset(42);
+        rocketMessage.setDelayTimeLevel(3);
+        rocketMessage.putUserProperty("trace", "abc");
+        MessageAccessor.putProperty(rocketMessage, MessageHeaders.ID, "not-an-id");
+        Map<String, Object> springHeaders = new HashMap<>();
+
+        this.mapper.toSpringHeaders(rocketMessage, springHeaders);
+
+        assertThat(springHeaders).contains(
+                entry(RocketHeaders.RECEIVED_TOPIC, "topic"),
+                entry(RocketHeaders.RECEIVED_TAGS, "tag"),
+                entry(RocketHeaders.RECEIVED_KEYS, "key"),
+                entry(RocketHeaders.RECEIVED_FLAG, 7),
+                entry(RocketHeaders.RECEIVED_MESSAGE_ID, "message-id"),
+                entry(RocketHeaders.RECEIVED_QUEUE_ID, 2),
+                entry(RocketHeaders.RECEIVED_QUEUE_OFFSET, 42L),
+                entry(RocketHeaders.RECEIVED_DELAY_LEVEL, "3"),
+                entry("trace", "abc"));
+        assertThat(springHeaders).doesNotContainKeys(MessageConst.PROPERTY_TAGS, MessageConst.PROPERTY_KEYS, MessageHeaders.ID);
+    }
+
+    @Test
+    void roundTripsHeadersThroughRocketMessage() {
+        Map<String, Object> sent = new HashMap<>();
+        sent.put(RocketHeaders.TAGS, "tag");
+        sent.put(MessageConst.PROPERTY_KEYS, "key");
+        sent.put(RocketHeaders.FLAG, 7);
+        sent.put(RocketHeaders.TIMER_DELAY_SEC, 10L);
+        sent.put("trace", "abc");
+        Message rocketMessage = new Message("topic", new byte[0]);
+
+        this.mapper.fromSpringHeaders(sent, rocketMessage);
+        Map<String, Object> received = new HashMap<>();
+        this.mapper.toSpringHeaders(rocketMessage, received);
+
+        assertThat(received).contains(
+                entry(RocketHeaders.RECEIVED_TOPIC, "topic"),
+                entry(RocketHeaders.RECEIVED_TAGS, "tag"),
+                entry(RocketHeaders.RECEIVED_KEYS, "key"),
+                entry(RocketHeaders.RECEIVED_FLAG, 7),
+                entry(RocketHeaders.RECEIVED_DELAY_SECONDS, "10"),
+                entry("trace", "abc"));
+        // each header resolves alone to what the full mapping put in the map
+        assertThat(received).allSatisfy((header, value) -> assertThat(this.mapper.toSpringHeader(rocketMessage, header)).isEqualTo(value));
+    }
+}
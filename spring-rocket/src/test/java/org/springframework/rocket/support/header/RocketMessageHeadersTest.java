@@ -0,0 +1,101 @@
+package org.springframework.rocket.support.header;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.rocket.support.RocketHeaders;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RocketMessageHeadersTest {
+
+    private final DefaultRocketHeaderMapper mapper = new DefaultRocketHeaderMapper();
+
+    @Test
+    void resolvesSingleHeaderAsTheFullMappingDoes() {
+        MessageExt rocketMessage = rocketMessage();
+        Map<String, Object> mapped = new HashMap<>();
+        this.mapper.toSpringHeaders(rocketMessage, mapped);
+
+        // a fresh instance per header, so every read goes through the single header lookup
+        assertThat(mapped).isNotEmpty().allSatisfy((header, value) ->
+                assertThat(new RocketMessageHeaders(rocketMessage, this.mapper).get(header)).isEqualTo(value));
+        assertThat(new RocketMessageHeaders(rocketMessage, this.mapper)).containsAllEntriesOf(mapped);
+    }
+
+    @Test
+    void defaultsContentTypeToTextPlain() {
+        MessageExt jsonMessage = rocketMessage();
+        jsonMessage.putUserProperty(MessageHeaders.CONTENT_TYPE, "application/json");
+
+        assertThat(new RocketMessageHeaders(rocketMessage(), this.mapper).get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.TEXT_PLAIN);
+        assertThat(new RocketMessageHeaders(rocketMessage(), this.mapper)).containsEntry(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN);
+        assertThat(new RocketMessageHeaders(jsonMessage, this.mapper).get(MessageHeaders.CONTENT_TYPE)).isEqualTo("application/json");
+    }
+
+    @Test
+    void generatesIdOnceOnFirstRead() {
+        RocketMessageHeaders headers = new RocketMessageHeaders(rocketMessage(), this.mapper);
+        RocketMessageHeaders other = new RocketMessageHeaders(rocketMessage(), this.mapper);
+
+        UUID id = headers.getId();
+
+        assertThat(id).isNotNull().isEqualTo(headers.getId()).isNotEqualTo(other.getId());
+        // mapping all headers afterwards keeps the id already handed out
+        assertThat(headers).containsEntry(MessageHeaders.ID, id);
+        assertThat(headers.getTimestamp()).isEqualTo(headers.get(MessageHeaders.TIMESTAMP));
+    }
+
+    @Test
+    void rejectsReadOfWrongType() {
+        RocketMessageHeaders headers = new RocketMessageHeaders(rocketMessage(), this.mapper);
+
+        Throwable thrown = catchThrowable(() -> headers.get(RocketHeaders.RECEIVED_TOPIC, Integer.class));
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        assertThat(headers.get(RocketHeaders.RECEIVED_TOPIC, String.class)).isEqualTo("topic");
+    }
+
+    @Test
+    void serializesMappedHeaders() throws Exception {
+        RocketMessageHeaders headers = new RocketMessageHeaders(rocketMessage(), this.mapper);
+        UUID id = headers.getId();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(headers);
+        }
+        Object deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = in.readObject();
+        }
+
+        assertThat(deserialized).isInstanceOf(MessageHeaders.class).isNotInstanceOf(RocketMessageHeaders.class);
+        MessageHeaders copy = (MessageHeaders) deserialized;
+        assertThat(copy.getId()).isEqualTo(id);
+        assertThat(copy.getTimestamp()).isEqualTo(headers.getTimestamp());
+        assertThat(copy).containsAllEntriesOf(headers).hasSameSizeAs(headers);
+    }
+
+    private static MessageExt rocketMessage() {
+        MessageExt rocketMessage = new MessageExt();
+        rocketMessage.setTopic("topic");
+        rocketMessage.setTags("tag");
+        rocketMessage.setKeys("key");
+        rocketMessage.setMsgId("message-id");
+        rocketMessage.setQueueId(2);
+        rocketMessage.setQueueOffset(42);
+        rocketMessage.putUserProperty("trace", "abc");
+        return rocketMessage;
+    }
+}